@@ -0,0 +1,57 @@
+#!/usr/bin/env bash
+#
+# Startup benchmark: JVM start -> /test/ready for each startup mode.
+#
+#   mvn -Pfast-start package -DskipTests     # builds the jar, AOT context and AppCDS archive
+#   scripts/startup-benchmark.sh [runs]
+#
+# Modes:
+#   full          plain jar, warm-up gates readiness (default behaviour)
+#   fast          plain jar, --startup.mode=fast (lazy OCR, background text warm-up)
+#   fast+aot+cds  extracted jar with Spring AOT and the AppCDS archive
+#   text-only     fast+aot+cds with --ocr.enabled=false
+#
+set -euo pipefail
+
+RUNS="${1:-3}"
+PORT="${PORT:-19191}"
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+JAR="$(ls "$ROOT"/target/AI_AppointmentScheduler-*.jar | grep -v original | head -1)"
+APP_DIR="$ROOT/target/app"
+WORK="$(mktemp -d)"
+trap 'rm -rf "$WORK"' EXIT
+
+now_ms() { date +%s%3N; }
+
+run_mode() {
+  local mode="$1"; shift
+  local total=0
+  for ((i = 1; i <= RUNS; i++)); do
+    local log="$WORK/$mode-$i.log"
+    local start; start=$(now_ms)
+    java "$@" --server.port="$PORT" --booking.journal.dir="$WORK/journal-$mode-$i" >"$log" 2>&1 &
+    local pid=$!
+    until curl -fs "http://localhost:$PORT/test/ready" >/dev/null 2>&1; do
+      if ! kill -0 "$pid" 2>/dev/null; then echo "$mode: process exited, see $log" >&2; return 1; fi
+      sleep 0.05
+    done
+    local elapsed=$(( $(now_ms) - start ))
+    local reported; reported=$(grep -o 'Ready [0-9]* ms after JVM start' "$log" | head -1 | awk '{print $2}')
+    kill "$pid"; wait "$pid" 2>/dev/null || true
+    printf '%-14s run %d: %6d ms to ready (app-reported %s ms)\n' "$mode" "$i" "$elapsed" "${reported:-?}"
+    total=$((total + elapsed))
+  done
+  printf '%-14s mean:  %6d ms\n\n' "$mode" $((total / RUNS))
+}
+
+run_mode full -jar "$JAR"
+run_mode fast -jar "$JAR" --startup.mode=fast
+if [[ -f "$APP_DIR/application.jsa" ]]; then
+  cd "$APP_DIR"
+  run_mode fast+aot+cds -XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true \
+    -jar "$(basename "$JAR")" --startup.mode=fast
+  run_mode text-only -XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true \
+    -jar "$(basename "$JAR")" --startup.mode=fast --ocr.enabled=false
+else
+  echo "target/app/application.jsa not found; run 'mvn -Pfast-start package' for the AOT/CDS modes" >&2
+fi
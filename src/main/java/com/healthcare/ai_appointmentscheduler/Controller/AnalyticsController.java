@@ -0,0 +1,87 @@
+package com.healthcare.ai_appointmentscheduler.Controller;
+
+import com.healthcare.ai_appointmentscheduler.service.DemandAnalyticsService;
+import com.healthcare.ai_appointmentscheduler.service.DemandAnalyticsService.Dimension;
+import com.healthcare.ai_appointmentscheduler.service.DemandAnalyticsService.Granularity;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+@RestController
+@RequestMapping("ai_task/analytics")
+public class AnalyticsController {
+
+    private static final int MAX_LIMIT = 50;
+
+    private final DemandAnalyticsService analytics;
+
+    public AnalyticsController(DemandAnalyticsService analytics) {
+        this.analytics = analytics;
+    }
+
+    /**
+     * Parse volume over time, one point per bucket, broken down by a dimension.
+     * Example: GET /ai_task/analytics/series?granularity=minute&points=60&by=status
+     */
+    @GetMapping("/series")
+    public ResponseEntity<?> series(@RequestParam(value = "granularity", defaultValue = "minute") String granularity,
+                                    @RequestParam(value = "points", defaultValue = "60") int points,
+                                    @RequestParam(value = "by", defaultValue = "status") String by) {
+        Granularity g;
+        Dimension d;
+        try {
+            g = Granularity.parse(granularity);
+            d = Dimension.parse(by);
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(Map.of("error", ex.getMessage()));
+        }
+        if (points < 1 || points > analytics.capacity(g)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "points must be 1.." + analytics.capacity(g)));
+        }
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("granularity", g.name().toLowerCase(Locale.ROOT));
+        body.put("by", d.name().toLowerCase(Locale.ROOT));
+        body.put("points", analytics.series(g, points, d));
+        return ResponseEntity.ok(body);
+    }
+
+    /**
+     * Most requested values of a dimension over a recent window, optionally for one status.
+     * Example: GET /ai_task/analytics/top?by=department&granularity=hour&points=24&limit=5&status=ok
+     */
+    @GetMapping("/top")
+    public ResponseEntity<?> top(@RequestParam(value = "by", defaultValue = "department") String by,
+                                 @RequestParam(value = "granularity", defaultValue = "hour") String granularity,
+                                 @RequestParam(value = "points", defaultValue = "24") int points,
+                                 @RequestParam(value = "limit", defaultValue = "5") int limit,
+                                 @RequestParam(value = "status", required = false) String status) {
+        Granularity g;
+        Dimension d;
+        try {
+            g = Granularity.parse(granularity);
+            d = Dimension.parse(by);
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(Map.of("error", ex.getMessage()));
+        }
+        if (points < 1 || points > analytics.capacity(g) || limit < 1 || limit > MAX_LIMIT) {
+            return ResponseEntity.badRequest().body(Map.of("error",
+                    "points must be 1.." + analytics.capacity(g) + " and limit 1.." + MAX_LIMIT));
+        }
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("by", d.name().toLowerCase(Locale.ROOT));
+        body.put("granularity", g.name().toLowerCase(Locale.ROOT));
+        body.put("points", points);
+        body.put("status", status);
+        try {
+            body.put("top", analytics.top(d, g, points, limit, status));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(Map.of("error", ex.getMessage()));
+        }
+        return ResponseEntity.ok(body);
+    }
+}
@@ -1,6 +1,8 @@
 package com.healthcare.ai_appointmentscheduler.Controller;
 
 
+import com.healthcare.ai_appointmentscheduler.service.WarmupService;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -10,10 +12,35 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("test")
 public class HealthController {
 
+    private final WarmupService warmupService;
+
+    public HealthController(WarmupService warmupService) {
+        this.warmupService = warmupService;
+    }
+
     @GetMapping("/")
     public ResponseEntity<String> healthCheck() {
         return ResponseEntity.ok("Health Check");
     }
 
+    /**
+     * Liveness: the process is up and serving HTTP.
+     */
+    @GetMapping("/live")
+    public ResponseEntity<String> live() {
+        return ResponseEntity.ok("Live");
+    }
+
+    /**
+     * Readiness: 503 until the startup warm-up has finished.
+     */
+    @GetMapping("/ready")
+    public ResponseEntity<String> ready() {
+        if (!warmupService.isReady()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Warming up");
+        }
+        return ResponseEntity.ok("Ready");
+    }
+
 
 }
@@ -0,0 +1,196 @@
+package com.healthcare.ai_appointmentscheduler.Controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.healthcare.ai_appointmentscheduler.dto.ParseOptions;
+import com.healthcare.ai_appointmentscheduler.dto.ParseResponse;
+import com.healthcare.ai_appointmentscheduler.service.LiveParseService;
+import com.healthcare.ai_appointmentscheduler.service.LiveParseSession;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.adapter.NativeWebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.IOException;
+import java.time.DateTimeException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * WebSocket endpoint /ai_task/parse/live: entities and confidence pushed while the user types.
+ *
+ * Query parameters tz and now work as in /ai_task/parse/text. Client messages:
+ * <pre>
+ *   {"rev": 1, "text": "book dentist tomo"}              whole text (first message, or resync)
+ *   {"rev": 2, "from": 13, "to": 17, "insert": "tomorrow"}  replace characters [from, to)
+ * </pre>
+ * Each reply carries the newest revision it reflects; bursts of edits are coalesced, so a fast
+ * typist gets fewer replies than keystrokes, never stale ones. An edit that does not fit the
+ * text gets {"error", "resync": true} and the client should send the whole text again.
+ *
+ * An open connection holds no thread: the container reads frames with non-blocking I/O, and
+ * evaluation runs on a virtual thread only while there are edits to process.
+ */
+@Component
+public class LiveParseHandler extends TextWebSocketHandler {
+
+    private static final Logger log = LoggerFactory.getLogger(LiveParseHandler.class);
+    private static final String STATE = "live.state";
+
+    private final LiveParseService live;
+    private final ObjectMapper mapper;
+    private final int maxSessions;
+    private final int maxMessageBytes;
+    private final long idleTimeoutMs;
+    private final int sendTimeMs;
+    private final int sendBufferBytes;
+    private final AtomicInteger open = new AtomicInteger();
+    private final ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor();
+
+    /** Per-connection state; {@code running} keeps evaluation to one worker at a time. */
+    private record Connection(WebSocketSession out, LiveParseSession session, AtomicBoolean running) {}
+
+    public LiveParseHandler(LiveParseService live, ObjectMapper mapper, MeterRegistry registry,
+                            @Value("${live.max-sessions:20000}") int maxSessions,
+                            @Value("${live.max-message-bytes:8192}") int maxMessageBytes,
+                            @Value("${live.idle-timeout-seconds:600}") long idleTimeoutSeconds,
+                            @Value("${live.send-time-ms:5000}") int sendTimeMs,
+                            @Value("${live.send-buffer-bytes:65536}") int sendBufferBytes) {
+        this.live = live;
+        this.mapper = mapper;
+        this.maxSessions = maxSessions;
+        this.maxMessageBytes = maxMessageBytes;
+        this.idleTimeoutMs = idleTimeoutSeconds * 1000;
+        this.sendTimeMs = sendTimeMs;
+        this.sendBufferBytes = sendBufferBytes;
+        Gauge.builder("live.sessions", open, AtomicInteger::get).register(registry);
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession ws) throws Exception {
+        if (open.incrementAndGet() > maxSessions) {
+            open.decrementAndGet();
+            ws.close(CloseStatus.SERVICE_OVERLOAD);
+            return;
+        }
+        ParseOptions options;
+        try {
+            Map<String, String> q = UriComponentsBuilder.fromUri(ws.getUri()).build().getQueryParams().toSingleValueMap();
+            options = ParseOptions.of(q.get("tz"), q.get("now"));
+        } catch (DateTimeException ex) {
+            open.decrementAndGet();
+            ws.close(CloseStatus.BAD_DATA.withReason("Invalid tz or now"));
+            return;
+        }
+
+        // Small per-connection buffers so thousands of idle connections stay cheap.
+        ws.setTextMessageSizeLimit(maxMessageBytes);
+        if (ws instanceof NativeWebSocketSession n && n.getNativeSession(jakarta.websocket.Session.class) != null) {
+            n.getNativeSession(jakarta.websocket.Session.class).setMaxIdleTimeout(idleTimeoutMs);
+        }
+
+        WebSocketSession out = new ConcurrentWebSocketSessionDecorator(ws, sendTimeMs, sendBufferBytes);
+        ws.getAttributes().put(STATE, new Connection(out, live.open(options), new AtomicBoolean()));
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession ws, TextMessage message) throws Exception {
+        Connection c = (Connection) ws.getAttributes().get(STATE);
+        if (c == null) return;
+
+        long rev = 0;
+        try {
+            JsonNode msg = mapper.readTree(message.getPayload());
+            rev = msg.path("rev").asLong(0);
+            if (msg.has("text")) {
+                c.session().replace(msg.get("text").asText(), rev);
+            } else if (msg.has("from") && msg.has("to")) {
+                c.session().edit(msg.get("from").asInt(), msg.get("to").asInt(), msg.path("insert").asText(""), rev);
+            } else {
+                throw new IllegalArgumentException("expected \"text\" or \"from\"/\"to\"/\"insert\"");
+            }
+        } catch (IOException | IllegalArgumentException ex) {
+            Map<String, Object> error = new LinkedHashMap<>();
+            error.put("rev", rev);
+            error.put("error", ex.getMessage());
+            error.put("resync", true);
+            send(c, error);
+            return;
+        }
+        schedule(c);
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession ws, CloseStatus status) {
+        if (ws.getAttributes().remove(STATE) != null) open.decrementAndGet();
+    }
+
+    @Override
+    public void handleTransportError(WebSocketSession ws, Throwable exception) throws Exception {
+        log.debug("Live parse connection {} failed", ws.getId(), exception);
+        if (ws.isOpen()) ws.close(CloseStatus.SERVER_ERROR);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    // -------- Evaluation --------
+
+    private void schedule(Connection c) {
+        if (c.running().compareAndSet(false, true)) workers.execute(() -> drain(c));
+    }
+
+    private void drain(Connection c) {
+        do {
+            try {
+                while (c.session().hasPending() && c.out().isOpen()) {
+                    LiveParseService.Update u = live.evaluate(c.session());
+                    send(c, toMessage(u));
+                }
+            } catch (RuntimeException ex) {
+                log.warn("Live parse evaluation failed", ex);
+            } finally {
+                c.running().set(false);
+            }
+            // An edit may have landed after the last check but before running was cleared.
+        } while (c.session().hasPending() && c.out().isOpen() && c.running().compareAndSet(false, true));
+    }
+
+    private static Map<String, Object> toMessage(LiveParseService.Update u) {
+        ParseResponse r = u.response();
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("rev", u.revision());
+        body.put("status", r.getStatus());
+        body.put("entities", r.getEntities());
+        body.put("entities_confidence", r.getEntitiesConfidence());
+        body.put("normalized", r.getNormalized());
+        body.put("normalization_confidence", r.getNormalizationConfidence());
+        body.put("reran", u.reran());
+        return body;
+    }
+
+    private void send(Connection c, Map<String, Object> body) {
+        try {
+            c.out().sendMessage(new TextMessage(mapper.writeValueAsString(body)));
+        } catch (IOException | IllegalStateException ex) {
+            // Closed, or too slow to keep up (the decorator closes it); nothing else to do.
+            log.debug("Live parse update not delivered", ex);
+        }
+    }
+}
@@ -1,36 +1,59 @@
 package com.healthcare.ai_appointmentscheduler.Controller;
 
+import com.healthcare.ai_appointmentscheduler.config.AdmissionInterceptor;
+import com.healthcare.ai_appointmentscheduler.config.ClientIdentity;
+import com.healthcare.ai_appointmentscheduler.dto.ParseOptions;
 import com.healthcare.ai_appointmentscheduler.dto.ParseResponse;
 import com.healthcare.ai_appointmentscheduler.dto.TextParseRequest;
-import com.healthcare.ai_appointmentscheduler.service.OcrServiceImpl;
-import com.healthcare.ai_appointmentscheduler.service.PipelineService;
+import com.healthcare.ai_appointmentscheduler.service.IdempotencyService;
+import com.healthcare.ai_appointmentscheduler.service.ImageMemoryBudget;
+import com.healthcare.ai_appointmentscheduler.service.ParseWorkflowService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
 import java.util.Map;
+import java.util.NoSuchElementException;
 
 @RestController
 @RequestMapping("ai_task/parse")
 public class ParseController {
 
-    private final PipelineService pipelineService;
-    private final OcrServiceImpl ocrService;
+    private final ParseWorkflowService workflow;
+    private final IdempotencyService idempotency;
+    private final ClientIdentity clients;
+    private final boolean ocrEnabled;
 
-    public ParseController(PipelineService pipelineService, OcrServiceImpl ocrService) {
-        this.pipelineService = pipelineService;
-        this.ocrService = ocrService;
+    public ParseController(ParseWorkflowService workflow, IdempotencyService idempotency, ClientIdentity clients,
+                           @Value("${ocr.enabled:true}") boolean ocrEnabled) {
+        this.workflow = workflow;
+        this.idempotency = idempotency;
+        this.clients = clients;
+        this.ocrEnabled = ocrEnabled;
     }
 
     /**
      * Parse raw text input (JSON body).
      * Returns HTTP 200 OK for successful parsing and a full appointment.
      * Returns HTTP 422 Unprocessable Entity if the input is ambiguous.
+     * Returns HTTP 409 Conflict if booking was requested and the slot is already taken.
+     * Duplicates from one client (same Idempotency-Key, or same content when absent and not booking)
+     * share one computation.
+     * Optional "tz" and "now" fields set the clinic zone and reference time for relative dates.
+     * A needs_clarification response carries a "session_token"; sending it back with only the
+     * missing details ("3pm please") completes that parse. Unknown or expired tokens get 404.
      */
     @PostMapping("/text")
-    public ResponseEntity<ParseResponse> parseText(@RequestBody TextParseRequest request) {
+    public ResponseEntity<?> parseText(@RequestBody TextParseRequest request,
+                                       @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+                                       HttpServletRequest http) {
         if (request == null || request.getText() == null || request.getText().isBlank()) {
             ParseResponse p = new ParseResponse();
             p.setRawText("");
@@ -39,38 +62,86 @@ public class ParseController {
             return ResponseEntity.badRequest().body(p);
         }
 
-        ParseResponse resp = pipelineService.parseText(request.getText());
-
-        // --- NEW LOGIC ---
-        // If the pipeline could not form a complete appointment, return a 422 status.
-        if ("needs_clarification".equals(resp.getStatus())) {
-            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(resp);
+        ParseOptions options;
+        try {
+            options = ParseOptions.of(request.getTz(), request.getNow());
+        } catch (DateTimeException ex) {
+            return invalidOptions(ex);
         }
 
-        return ResponseEntity.ok(resp);
+        String token = request.getSessionToken();
+        String fingerprint = IdempotencyService.fingerprint("text", request.isBook(),
+                options + "|" + (token == null ? "" : token), request.getText().getBytes(StandardCharsets.UTF_8));
+        return idempotency.execute(clients.of(http), idempotencyKey, fingerprint, request.isBook(), () -> {
+            if (token == null || token.isBlank()) {
+                return measured(() -> toResponse(workflow.parseText(request.getText(), request.isBook(), options)));
+            }
+            try {
+                return measured(() -> toResponse(workflow.parseFollowUp(token, request.getText(), request.isBook(), options)));
+            } catch (NoSuchElementException ex) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", ex.getMessage()));
+            }
+        });
     }
 
     /**
      * Parse uploaded image (form-data key "file").
      * Returns HTTP 200 OK for successful parsing and a full appointment.
      * Returns HTTP 422 Unprocessable Entity if the image content is ambiguous.
+     * Returns HTTP 409 Conflict if booking was requested and the slot is already taken.
+     * Duplicates from one client (same Idempotency-Key, or same image bytes when absent and not
+     * booking) share one OCR run.
+     * Optional "tz" and "now" parameters as for the text endpoint, and "binarization"
+     * (otsu | sauvola | niblack | auto) to choose how the photo is thresholded before OCR.
+     * "ocr_strategy=multi" races several preprocessing/segmentation variants and keeps the best read.
+     * Returns HTTP 413 if the image could never fit the image memory budget, and 503 with
+     * Retry-After if the budget is busy with other images.
      */
     @PostMapping("/image")
-    public ResponseEntity<?> parseImage(@RequestParam("file") MultipartFile file) {
+    public ResponseEntity<?> parseImage(@RequestParam("file") MultipartFile file,
+                                        @RequestParam(value = "book", defaultValue = "false") boolean book,
+                                        @RequestParam(value = "tz", required = false) String tz,
+                                        @RequestParam(value = "now", required = false) String now,
+                                        @RequestParam(value = "binarization", required = false) String binarization,
+                                        @RequestParam(value = "ocr_strategy", required = false) String ocrStrategy,
+                                        @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+                                        HttpServletRequest http) {
+        if (!ocrEnabled) {
+            return ResponseEntity.status(HttpStatus.NOT_IMPLEMENTED)
+                    .body(Map.of("error", "Image parsing is disabled on this node"));
+        }
         if (file == null || file.isEmpty()) {
             return ResponseEntity.badRequest().body(Map.of("error", "No file uploaded or file is empty"));
         }
 
+        ParseOptions options;
         try {
-            ParseResponse resp = ocrService.parseImageAndRunPipeline(file);
+            options = ParseOptions.of(tz, now).withBinarization(binarization).withOcrStrategy(ocrStrategy);
+        } catch (DateTimeException | IllegalArgumentException ex) {
+            return invalidOptions(ex);
+        }
 
-            // --- NEW LOGIC ---
-            // If the pipeline could not form a complete appointment, return a 422 status.
-            if ("needs_clarification".equals(resp.getStatus())) {
-                return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(resp);
-            }
+        byte[] bytes;
+        try {
+            bytes = file.getBytes();
+        } catch (IOException ioe) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to read/process uploaded file", "details", ioe.getMessage()));
+        }
+        String fingerprint = IdempotencyService.fingerprint("image", book, options.toString(), bytes);
+        return idempotency.execute(clients.of(http), idempotencyKey, fingerprint, book,
+                () -> runImage(bytes, book, options));
+    }
 
-            return ResponseEntity.ok(resp);
+    private ResponseEntity<?> runImage(byte[] bytes, boolean book, ParseOptions options) {
+        try {
+            return measured(() -> toResponse(workflow.parseImage(bytes, book, options)));
+        } catch (ImageMemoryBudget.Rejected ex) {
+            if (ex.isTooLarge()) {
+                return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(Map.of("error", ex.getMessage()));
+            }
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(Map.of("error", ex.getMessage()));
         } catch (IOException ioe) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to read/process uploaded file", "details", ioe.getMessage()));
@@ -79,4 +150,28 @@ public class ParseController {
                     .body(Map.of("error", "Unexpected server error", "details", ex.getMessage()));
         }
     }
+
+    // Reports the time of a parse that ran to an outcome (200/409/422) to the admission limit.
+    private static <E extends Exception> ResponseEntity<?> measured(Work<E> work) throws E {
+        long t0 = System.nanoTime();
+        ResponseEntity<?> resp = work.run();
+        int status = resp.getStatusCode().value();
+        if (status == 200 || status == 409 || status == 422) {
+            AdmissionInterceptor.recordServiceTime(System.nanoTime() - t0);
+        }
+        return resp;
+    }
+
+    @FunctionalInterface
+    private interface Work<E extends Exception> {
+        ResponseEntity<?> run() throws E;
+    }
+
+    private static ResponseEntity<?> invalidOptions(RuntimeException ex) {
+        return ResponseEntity.badRequest().body(Map.of("error", "Invalid request options", "details", ex.getMessage()));
+    }
+
+    private static ResponseEntity<?> toResponse(ParseWorkflowService.Result result) {
+        return ResponseEntity.status(result.status()).body(result.response());
+    }
 }
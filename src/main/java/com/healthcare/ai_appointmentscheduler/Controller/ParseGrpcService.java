@@ -0,0 +1,242 @@
+package com.healthcare.ai_appointmentscheduler.Controller;
+
+import com.healthcare.ai_appointmentscheduler.dto.ParseOptions;
+import com.healthcare.ai_appointmentscheduler.dto.ParseResponse;
+import com.healthcare.ai_appointmentscheduler.entity.AppointmentEntity;
+import com.healthcare.ai_appointmentscheduler.entity.BookingEntity;
+import com.healthcare.ai_appointmentscheduler.grpc.*;
+import com.healthcare.ai_appointmentscheduler.service.ImageMemoryBudget;
+import com.healthcare.ai_appointmentscheduler.service.ParseWorkflowService;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * gRPC counterpart of {@link ParseController} for internal high-throughput callers.
+ * Replies carry the HTTP status the REST endpoint would have returned.
+ *
+ * ParseStream keeps up to grpc.stream.max-in-flight requests of one stream running at once
+ * (manual flow control: one more message is requested each time a reply is sent).
+ */
+@Component
+public class ParseGrpcService extends AppointmentParserGrpc.AppointmentParserImplBase {
+
+    private final ParseWorkflowService workflow;
+    private final boolean ocrEnabled;
+    private final int maxInFlightPerStream;
+    // Pipeline work is blocking; virtual threads keep many streams cheap.
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public ParseGrpcService(ParseWorkflowService workflow,
+                            @Value("${ocr.enabled:true}") boolean ocrEnabled,
+                            @Value("${grpc.stream.max-in-flight:32}") int maxInFlightPerStream) {
+        this.workflow = workflow;
+        this.ocrEnabled = ocrEnabled;
+        this.maxInFlightPerStream = maxInFlightPerStream;
+    }
+
+    @Override
+    public void parseText(TextRequest request, StreamObserver<ParseReply> responseObserver) {
+        responseObserver.onNext(handleText("", request));
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public void parseImage(ImageRequest request, StreamObserver<ParseReply> responseObserver) {
+        responseObserver.onNext(handleImage("", request));
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public StreamObserver<ParseRequest> parseStream(StreamObserver<ParseReply> responseObserver) {
+        ServerCallStreamObserver<ParseReply> out = (ServerCallStreamObserver<ParseReply>) responseObserver;
+        out.disableAutoRequest();
+        out.request(maxInFlightPerStream);
+
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicBoolean halfClosed = new AtomicBoolean();
+        Object sendLock = new Object();
+
+        return new StreamObserver<>() {
+            @Override
+            public void onNext(ParseRequest req) {
+                inFlight.incrementAndGet();
+                executor.execute(() -> {
+                    ParseReply reply = switch (req.getInputCase()) {
+                        case TEXT -> handleText(req.getRequestId(), req.getText());
+                        case IMAGE -> handleImage(req.getRequestId(), req.getImage());
+                        default -> error(req.getRequestId(), 400, "Request has neither text nor image");
+                    };
+                    synchronized (sendLock) {
+                        if (!out.isCancelled()) {
+                            out.onNext(reply);
+                            out.request(1);
+                        }
+                        if (inFlight.decrementAndGet() == 0 && halfClosed.get()) out.onCompleted();
+                    }
+                });
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                // client went away; in-flight work finishes and its replies are dropped
+            }
+
+            @Override
+            public void onCompleted() {
+                synchronized (sendLock) {
+                    halfClosed.set(true);
+                    if (inFlight.get() == 0) out.onCompleted();
+                }
+            }
+        };
+    }
+
+    // -------- Request handling (same checks as the REST endpoints) --------
+
+    private ParseReply handleText(String requestId, TextRequest request) {
+        if (request.getText().isBlank()) {
+            return ParseReply.newBuilder().setRequestId(requestId).setHttpStatus(400)
+                    .setStatus("needs_clarification").setMessage("Empty text provided").build();
+        }
+        ParseOptions options;
+        try {
+            options = ParseOptions.of(request.getTz(), request.getNow());
+        } catch (java.time.DateTimeException ex) {
+            return error(requestId, 400, "Invalid tz or now: " + ex.getMessage());
+        }
+        if (!request.getSessionToken().isBlank()) {
+            try {
+                return toReply(requestId, workflow.parseFollowUp(request.getSessionToken(), request.getText(),
+                        request.getBook(), options));
+            } catch (java.util.NoSuchElementException ex) {
+                return error(requestId, 404, ex.getMessage());
+            }
+        }
+        ParseWorkflowService.Result result = workflow.parseText(request.getText(), request.getBook(), options);
+        return toReply(requestId, result);
+    }
+
+    private ParseReply handleImage(String requestId, ImageRequest request) {
+        if (!ocrEnabled) return error(requestId, 501, "Image parsing is disabled on this node");
+        if (request.getImage().isEmpty()) return error(requestId, 400, "No file uploaded or file is empty");
+        ParseOptions options;
+        try {
+            options = ParseOptions.of(request.getTz(), request.getNow())
+                    .withBinarization(request.getBinarization())
+                    .withOcrStrategy(request.getOcrStrategy());
+        } catch (java.time.DateTimeException | IllegalArgumentException ex) {
+            return error(requestId, 400, "Invalid request options: " + ex.getMessage());
+        }
+        try {
+            return toReply(requestId, workflow.parseImage(request.getImage().toByteArray(), request.getBook(), options));
+        } catch (ImageMemoryBudget.Rejected ex) {
+            return error(requestId, ex.isTooLarge() ? 413 : 503, ex.getMessage());
+        } catch (java.io.IOException ioe) {
+            return error(requestId, 500, "Failed to read/process uploaded file: " + ioe.getMessage());
+        } catch (Exception ex) {
+            return error(requestId, 500, "Unexpected server error: " + ex.getMessage());
+        }
+    }
+
+    private static ParseReply error(String requestId, int httpStatus, String message) {
+        return ParseReply.newBuilder().setRequestId(requestId).setHttpStatus(httpStatus).setError(message).build();
+    }
+
+    // -------- Mapping ParseResponse -> protobuf (proto3 strings cannot be null) --------
+
+    static ParseReply toReply(String requestId, ParseWorkflowService.Result result) {
+        ParseResponse r = result.response();
+        ParseReply.Builder b = ParseReply.newBuilder()
+                .setRequestId(requestId)
+                .setHttpStatus(result.status().value())
+                .setStatus(nz(r.getStatus()))
+                .setMessage(nz(r.getMessage()))
+                .setRawText(nz(r.getRawText()))
+                .setConfidence(r.getConfidence());
+        if (r.getOcrConfidence() != null) b.setOcrConfidence(r.getOcrConfidence());
+        if (r.getDegradedStages() != null) b.addAllDegradedStages(r.getDegradedStages());
+        if (r.getSessionToken() != null) b.setSessionToken(r.getSessionToken());
+        if (r.getEntities() != null) b.setEntities(toProto(r.getEntities()));
+        if (r.getEntitiesConfidence() != null) b.setEntitiesConfidence(r.getEntitiesConfidence());
+        if (r.getNormalized() != null) b.setNormalized(toProto(r.getNormalized()));
+        if (r.getNormalizationConfidence() != null) b.setNormalizationConfidence(r.getNormalizationConfidence());
+        if (r.getAppointment() != null) b.setAppointment(toProto(r.getAppointment()));
+        if (r.getBooking() != null) b.setBooking(toProto(r.getBooking()));
+        if (r.getSuggestions() != null) {
+            for (AppointmentEntity s : r.getSuggestions()) b.addSuggestions(toProto(s));
+        }
+        if (r.getAppointments() != null) {
+            for (com.healthcare.ai_appointmentscheduler.dto.ParsedAppointment a : r.getAppointments()) {
+                b.addAppointments(toProto(a));
+            }
+        }
+        return b.build();
+    }
+
+    private static ParsedAppointment toProto(com.healthcare.ai_appointmentscheduler.dto.ParsedAppointment a) {
+        ParsedAppointment.Builder b = ParsedAppointment.newBuilder()
+                .setText(nz(a.getText()))
+                .setStatus(nz(a.getStatus()))
+                .setMessage(nz(a.getMessage()))
+                .setConfidence(a.getConfidence());
+        if (a.getEntities() != null) b.setEntities(toProto(a.getEntities()));
+        if (a.getNormalized() != null) b.setNormalized(toProto(a.getNormalized()));
+        if (a.getAppointment() != null) b.setAppointment(toProto(a.getAppointment()));
+        if (a.getBooking() != null) b.setBooking(toProto(a.getBooking()));
+        if (a.getSuggestions() != null) {
+            for (AppointmentEntity s : a.getSuggestions()) b.addSuggestions(toProto(s));
+        }
+        return b.build();
+    }
+
+    private static Booking toProto(BookingEntity bk) {
+        return Booking.newBuilder()
+                .setStatus(nz(bk.getStatus()))
+                .setDepartment(nz(bk.getDepartment()))
+                .setDate(nz(bk.getDate()))
+                .setTime(nz(bk.getTime()))
+                .setDurationMinutes(bk.getDurationMinutes())
+                .setMessage(nz(bk.getMessage()))
+                .build();
+    }
+
+    private static ExtractedEntities toProto(com.healthcare.ai_appointmentscheduler.entity.ExtractedEntities e) {
+        return ExtractedEntities.newBuilder()
+                .setDepartment(nz(e.getDepartment()))
+                .setDatePhrase(nz(e.getDatePhrase()))
+                .setTimePhrase(nz(e.getTimePhrase()))
+                .setDepartmentConfidence(e.getDepartmentConfidence())
+                .setDoctor(nz(e.getDoctor()))
+                .setDoctorConfidence(e.getDoctorConfidence() == null ? 0 : e.getDoctorConfidence())
+                .build();
+    }
+
+    private static NormalizedEntity toProto(com.healthcare.ai_appointmentscheduler.entity.NormalizedEntity n) {
+        return NormalizedEntity.newBuilder()
+                .setDate(nz(n.getDate()))
+                .setTime(nz(n.getTime()))
+                .setTz(nz(n.getTz()))
+                .build();
+    }
+
+    private static Appointment toProto(AppointmentEntity a) {
+        return Appointment.newBuilder()
+                .setDepartment(nz(a.getDepartment()))
+                .setDate(nz(a.getDate()))
+                .setTime(nz(a.getTime()))
+                .setTz(nz(a.getTz()))
+                .setDoctor(nz(a.getDoctor()))
+                .build();
+    }
+
+    private static String nz(String s) {
+        return s == null ? "" : s;
+    }
+}
@@ -0,0 +1,53 @@
+package com.healthcare.ai_appointmentscheduler.Controller;
+
+import com.healthcare.ai_appointmentscheduler.entity.AppointmentEntity;
+import com.healthcare.ai_appointmentscheduler.service.SlotCalendarService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("ai_task/slots")
+public class SlotController {
+
+    private static final int MAX_LIMIT = 50;
+    private static final int MAX_HORIZON_DAYS = 90;
+
+    private final SlotCalendarService slotCalendar;
+
+    public SlotController(SlotCalendarService slotCalendar) {
+        this.slotCalendar = slotCalendar;
+    }
+
+    /**
+     * Nearest free slots for a department around a date (and optional time).
+     * Example: GET /ai_task/slots/suggest?department=dentist&date=2025-10-03&time=15:00&limit=5
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<?> suggest(@RequestParam("department") String department,
+                                     @RequestParam("date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+                                     @RequestParam(value = "time", required = false)
+                                     @DateTimeFormat(pattern = "HH:mm") LocalTime time,
+                                     @RequestParam(value = "limit", defaultValue = "${booking.suggest.limit:3}") int limit,
+                                     @RequestParam(value = "horizon_days", defaultValue = "${booking.suggest.horizon-days:14}") int horizonDays) {
+        if (limit < 1 || limit > MAX_LIMIT || horizonDays < 0 || horizonDays > MAX_HORIZON_DAYS) {
+            return ResponseEntity.badRequest().body(Map.of("error",
+                    "limit must be 1.." + MAX_LIMIT + " and horizon_days 0.." + MAX_HORIZON_DAYS));
+        }
+
+        List<AppointmentEntity> suggestions = slotCalendar.suggestNearest(department, date, time, limit, horizonDays);
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("department", department);
+        body.put("date", date.toString());
+        body.put("time", time == null ? null : time.toString());
+        body.put("suggestions", suggestions);
+        return ResponseEntity.ok(body);
+    }
+}
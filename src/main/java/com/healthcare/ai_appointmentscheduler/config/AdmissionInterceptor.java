@@ -0,0 +1,77 @@
+package com.healthcare.ai_appointmentscheduler.config;
+
+import com.healthcare.ai_appointmentscheduler.service.AdmissionControlService;
+import com.healthcare.ai_appointmentscheduler.service.AdmissionControlService.Admission;
+import com.healthcare.ai_appointmentscheduler.service.AdmissionControlService.Decision;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Applies {@link AdmissionControlService} in front of the parse endpoints.
+ * Rejected requests never reach the controller and get a Retry-After header.
+ * Only latency reported through {@link #recordServiceTime} feeds the concurrency limit, so
+ * validation errors, replays and failures (microseconds, or no real work) do not drag it down.
+ */
+@Component
+public class AdmissionInterceptor implements HandlerInterceptor {
+
+    private static final String ENDPOINT_ATTR = AdmissionInterceptor.class.getName() + ".endpoint";
+    private static final String SERVICE_NANOS_ATTR = AdmissionInterceptor.class.getName() + ".serviceNanos";
+
+    private final AdmissionControlService admission;
+    private final ClientIdentity clients;
+
+    public AdmissionInterceptor(AdmissionControlService admission, ClientIdentity clients) {
+        this.admission = admission;
+        this.clients = clients;
+    }
+
+    /** Records, for the current request, how long its parse pipeline / OCR run took. */
+    public static void recordServiceTime(long nanos) {
+        RequestAttributes attrs = RequestContextHolder.getRequestAttributes();
+        if (attrs != null) attrs.setAttribute(SERVICE_NANOS_ATTR, nanos, RequestAttributes.SCOPE_REQUEST);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        String endpoint = endpointOf(request.getRequestURI());
+        if (endpoint == null) return true;
+
+        Admission result = admission.tryAdmit(endpoint, clients.of(request));
+        if (result.decision() == Decision.ADMITTED) {
+            request.setAttribute(ENDPOINT_ATTR, endpoint);
+            return true;
+        }
+
+        HttpStatus status = result.decision() == Decision.RATE_LIMITED
+                ? HttpStatus.TOO_MANY_REQUESTS : HttpStatus.SERVICE_UNAVAILABLE;
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(result.retryAfterSeconds()));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"error\":\"" + (status == HttpStatus.TOO_MANY_REQUESTS
+                ? "Rate limit exceeded" : "Server is at capacity") + "\"}");
+        return false;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object endpoint = request.getAttribute(ENDPOINT_ATTR);
+        if (endpoint == null) return;
+        Object serviceNanos = request.getAttribute(SERVICE_NANOS_ATTR);
+        admission.release((String) endpoint, ex == null && serviceNanos instanceof Long n ? n : 0);
+    }
+
+    private static String endpointOf(String uri) {
+        if (uri == null) return null;
+        if (uri.endsWith("/parse/text")) return "text";
+        if (uri.endsWith("/parse/image")) return "image";
+        return null;
+    }
+}
@@ -0,0 +1,32 @@
+package com.healthcare.ai_appointmentscheduler.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Who a request comes from, for per-client rate limits and idempotency scopes.
+ *
+ * The remote address, unless admission.trust-client-header is set because a gateway in front of
+ * this service authenticates callers and sets X-Client-Id itself. A header sent by the client is
+ * never trusted on its own: rotating it would mint a fresh identity, and a fresh rate limit, per request.
+ */
+@Component
+public class ClientIdentity {
+
+    public static final String HEADER = "X-Client-Id";
+
+    private final boolean trustHeader;
+
+    public ClientIdentity(@Value("${admission.trust-client-header:false}") boolean trustHeader) {
+        this.trustHeader = trustHeader;
+    }
+
+    public String of(HttpServletRequest request) {
+        if (trustHeader) {
+            String id = request.getHeader(HEADER);
+            if (id != null && !id.isBlank()) return "id:" + id.trim();
+        }
+        return "addr:" + request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,74 @@
+package com.healthcare.ai_appointmentscheduler.config;
+
+import com.healthcare.ai_appointmentscheduler.Controller.ParseGrpcService;
+import io.grpc.Server;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the gRPC server (HTTP/2) next to the servlet container, on grpc.port.
+ */
+@Component
+public class GrpcServerConfig implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(GrpcServerConfig.class);
+
+    private final ParseGrpcService parseGrpcService;
+    private final boolean enabled;
+    private final int port;
+    private final int maxMessageBytes;
+
+    private volatile Server server;
+
+    public GrpcServerConfig(ParseGrpcService parseGrpcService,
+                            @Value("${grpc.enabled:true}") boolean enabled,
+                            @Value("${grpc.port:9192}") int port,
+                            @Value("${grpc.max-message-bytes:16777216}") int maxMessageBytes) {
+        this.parseGrpcService = parseGrpcService;
+        this.enabled = enabled;
+        this.port = port;
+        this.maxMessageBytes = maxMessageBytes;
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) return;
+        try {
+            server = NettyServerBuilder.forPort(port)
+                    .addService(parseGrpcService)
+                    .maxInboundMessageSize(maxMessageBytes)
+                    .build()
+                    .start();
+            log.info("gRPC server listening on port {}", server.getPort());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to start gRPC server on port " + port, e);
+        }
+    }
+
+    @Override
+    public void stop() {
+        Server s = server;
+        if (s == null) return;
+        s.shutdown();
+        try {
+            if (!s.awaitTermination(5, TimeUnit.SECONDS)) s.shutdownNow();
+        } catch (InterruptedException e) {
+            s.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        server = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+}
@@ -0,0 +1,31 @@
+package com.healthcare.ai_appointmentscheduler.config;
+
+import com.healthcare.ai_appointmentscheduler.Controller.LiveParseHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+/**
+ * Registers the live-parsing WebSocket endpoint (see {@link LiveParseHandler}).
+ */
+@Configuration
+@EnableWebSocket
+public class WebSocketConfig implements WebSocketConfigurer {
+
+    private final LiveParseHandler liveParseHandler;
+    private final String[] allowedOrigins;
+
+    public WebSocketConfig(LiveParseHandler liveParseHandler,
+                           @Value("${live.allowed-origins:}") String[] allowedOrigins) {
+        this.liveParseHandler = liveParseHandler;
+        this.allowedOrigins = allowedOrigins;
+    }
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        // Same-origin only unless live.allowed-origins lists others.
+        registry.addHandler(liveParseHandler, "/ai_task/parse/live").setAllowedOrigins(allowedOrigins);
+    }
+}
@@ -0,0 +1,103 @@
+package com.healthcare.ai_appointmentscheduler.dto;
+
+import com.healthcare.ai_appointmentscheduler.util.Binarizer;
+import com.healthcare.ai_appointmentscheduler.util.Deadline;
+
+import java.time.Instant;
+import java.time.ZoneId;
+
+/**
+ * Per-request parse settings.
+ *  - zone: clinic time zone used to resolve relative dates (null = service default)
+ *  - referenceTime: the "now" relative dates are resolved against (null = current time)
+ *  - binarization: OCR thresholding mode for image requests (null = ocr.binarization.mode)
+ *  - ocrStrategy: one OCR pass, or several variants raced against each other (null = ocr.strategy)
+ *  - deadline: when the answer is due; stages past it degrade instead of waiting (not part of toString)
+ */
+public class ParseOptions {
+
+    public enum OcrStrategy { SINGLE, MULTI }
+
+    private static final ParseOptions DEFAULTS = new ParseOptions(null, null, null, null);
+
+    private final ZoneId zone;
+    private final Instant referenceTime;
+    private final Binarizer.Mode binarization;
+    private final OcrStrategy ocrStrategy;
+    private final Deadline deadline;
+
+    public ParseOptions(ZoneId zone, Instant referenceTime) {
+        this(zone, referenceTime, null, null);
+    }
+
+    public ParseOptions(ZoneId zone, Instant referenceTime, Binarizer.Mode binarization, OcrStrategy ocrStrategy) {
+        this(zone, referenceTime, binarization, ocrStrategy, Deadline.none());
+    }
+
+    private ParseOptions(ZoneId zone, Instant referenceTime, Binarizer.Mode binarization, OcrStrategy ocrStrategy,
+                         Deadline deadline) {
+        this.zone = zone;
+        this.referenceTime = referenceTime;
+        this.binarization = binarization;
+        this.ocrStrategy = ocrStrategy;
+        this.deadline = deadline;
+    }
+
+    public static ParseOptions defaults() { return DEFAULTS; }
+
+    /**
+     * Builds options from request strings; blank values mean "default".
+     * @throws java.time.DateTimeException for an unknown zone or a malformed timestamp
+     */
+    public static ParseOptions of(String tz, String now) {
+        ZoneId zone = tz == null || tz.isBlank() ? null : ZoneId.of(tz.trim());
+        Instant ref = now == null || now.isBlank() ? null : java.time.OffsetDateTime.parse(now.trim()).toInstant();
+        return zone == null && ref == null ? DEFAULTS : new ParseOptions(zone, ref);
+    }
+
+    /**
+     * Same options with an OCR binarization mode; blank keeps the service default.
+     * @throws IllegalArgumentException for an unknown mode
+     */
+    public ParseOptions withBinarization(String mode) {
+        if (mode == null || mode.isBlank()) return this;
+        return new ParseOptions(zone, referenceTime, Binarizer.Mode.parse(mode), ocrStrategy, deadline);
+    }
+
+    /**
+     * Same options with an OCR strategy ("single" or "multi"); blank keeps the service default.
+     * @throws IllegalArgumentException for an unknown strategy
+     */
+    public ParseOptions withOcrStrategy(String strategy) {
+        if (strategy == null || strategy.isBlank()) return this;
+        try {
+            OcrStrategy s = OcrStrategy.valueOf(strategy.trim().toUpperCase(java.util.Locale.ROOT));
+            return new ParseOptions(zone, referenceTime, binarization, s, deadline);
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Unknown OCR strategy: " + strategy);
+        }
+    }
+
+    /** Same options answering by {@code deadline}. */
+    public ParseOptions withDeadline(Deadline deadline) {
+        return new ParseOptions(zone, referenceTime, binarization, ocrStrategy, deadline);
+    }
+
+    public ZoneId getZone() { return zone; }
+
+    public Instant getReferenceTime() { return referenceTime; }
+
+    public Binarizer.Mode getBinarization() { return binarization; }
+
+    public OcrStrategy getOcrStrategy() { return ocrStrategy; }
+
+    public Deadline getDeadline() { return deadline; }
+
+    /** Stable text form for request fingerprints. */
+    @Override
+    public String toString() {
+        return (zone == null ? "" : zone.getId()) + "|" + (referenceTime == null ? "" : referenceTime.toString())
+                + "|" + (binarization == null ? "" : binarization.name())
+                + "|" + (ocrStrategy == null ? "" : ocrStrategy.name());
+    }
+}
@@ -1,9 +1,18 @@
 package com.healthcare.ai_appointmentscheduler.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.healthcare.ai_appointmentscheduler.entity.ExtractedEntities;
 import com.healthcare.ai_appointmentscheduler.entity.NormalizedEntity;
 import com.healthcare.ai_appointmentscheduler.entity.AppointmentEntity;
+import com.healthcare.ai_appointmentscheduler.entity.BookingEntity;
+import com.healthcare.ai_appointmentscheduler.entity.OcrResult;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 public class ParseResponse {
     @JsonProperty("raw_text")
@@ -23,10 +32,40 @@ public class ParseResponse {
 
     private AppointmentEntity appointment;
 
+    private BookingEntity booking;
+
+    // Nearest free slots, filled when the time is missing or the requested slot is taken.
+    private List<AppointmentEntity> suggestions;
+
     private String status;
 
     private String message; // 👈 add this
 
+    // Mean Tesseract word confidence (0..1); absent for text requests.
+    @JsonProperty("ocr_confidence")
+    private Double ocrConfidence;
+
+    // Set on needs_clarification: send it back with just the missing details to complete this parse.
+    @JsonProperty("session_token")
+    private String sessionToken;
+
+    // Every appointment the input asks for, each parsed from its own clause; the top-level fields
+    // describe the first. A single request gives a list of one.
+    private List<ParsedAppointment> appointments;
+
+    // The OCR read the response was built from; kept for clarification follow-ups, never serialized.
+    @JsonIgnore
+    private OcrResult ocr;
+
+    // Stages that ran out of time and answered with a fallback (e.g. "normalize", "ocr"); absent when none.
+    @JsonProperty("degraded_stages")
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    private List<String> degradedStages;
+
+    // Wall time per pipeline stage in milliseconds, in execution order.
+    @JsonProperty("timings_ms")
+    private Map<String, Double> timings = new LinkedHashMap<>();
+
     // ---------------- Getters & setters ----------------
 
     public String getRawText() { return rawText; }
@@ -50,9 +89,44 @@ public class ParseResponse {
     public AppointmentEntity getAppointment() { return appointment; }
     public void setAppointment(AppointmentEntity appointment) { this.appointment = appointment; }
 
+    public BookingEntity getBooking() { return booking; }
+    public void setBooking(BookingEntity booking) { this.booking = booking; }
+
+    public List<AppointmentEntity> getSuggestions() { return suggestions; }
+    public void setSuggestions(List<AppointmentEntity> suggestions) { this.suggestions = suggestions; }
+
     public String getStatus() { return status; }
     public void setStatus(String status) { this.status = status; }
 
     public String getMessage() { return message; }   // 👈 add this
     public void setMessage(String message) { this.message = message; }  // 👈 add this
+
+    public Double getOcrConfidence() { return ocrConfidence; }
+    public void setOcrConfidence(Double ocrConfidence) { this.ocrConfidence = ocrConfidence; }
+
+    public String getSessionToken() { return sessionToken; }
+    public void setSessionToken(String sessionToken) { this.sessionToken = sessionToken; }
+
+    public List<ParsedAppointment> getAppointments() { return appointments; }
+    public void setAppointments(List<ParsedAppointment> appointments) { this.appointments = appointments; }
+
+    public OcrResult getOcr() { return ocr; }
+    public void setOcr(OcrResult ocr) { this.ocr = ocr; }
+
+    public List<String> getDegradedStages() { return degradedStages; }
+    public void setDegradedStages(List<String> degradedStages) { this.degradedStages = degradedStages; }
+
+    /** Notes that a stage hit its deadline and the answer may be less complete. */
+    public void markDegraded(String stage) {
+        if (degradedStages == null) degradedStages = new ArrayList<>(2);
+        if (!degradedStages.contains(stage)) degradedStages.add(stage);
+    }
+
+    public Map<String, Double> getTimings() { return timings; }
+    public void setTimings(Map<String, Double> timings) { this.timings = timings; }
+
+    /** Records a stage duration measured with {@link System#nanoTime()}. */
+    public void recordTiming(String stage, long nanos) {
+        timings.put(stage, nanos / 1_000_000.0);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,87 @@
+package com.healthcare.ai_appointmentscheduler.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.healthcare.ai_appointmentscheduler.entity.AppointmentEntity;
+import com.healthcare.ai_appointmentscheduler.entity.BookingEntity;
+import com.healthcare.ai_appointmentscheduler.entity.ExtractedEntities;
+import com.healthcare.ai_appointmentscheduler.entity.NormalizedEntity;
+
+import java.util.List;
+
+/**
+ * One requested appointment of a message, parsed from its own clause (see ParseResponse#appointments).
+ */
+public class ParsedAppointment {
+
+    // The clause of the input this appointment was read from.
+    private String text;
+
+    private String status;
+
+    private String message;
+
+    private double confidence;
+
+    private ExtractedEntities entities;
+
+    private NormalizedEntity normalized;
+
+    private AppointmentEntity appointment;
+
+    // Outcome of booking this clause when the request asked to book.
+    private BookingEntity booking;
+
+    private List<AppointmentEntity> suggestions;
+
+    @JsonProperty("degraded_stages")
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    private List<String> degradedStages;
+
+    public static ParsedAppointment from(ParseResponse r) {
+        ParsedAppointment a = new ParsedAppointment();
+        a.text = r.getRawText();
+        a.status = r.getStatus();
+        a.message = r.getMessage();
+        a.confidence = r.getConfidence();
+        a.entities = r.getEntities();
+        a.normalized = r.getNormalized();
+        a.appointment = r.getAppointment();
+        a.booking = r.getBooking();
+        a.suggestions = r.getSuggestions();
+        a.degradedStages = r.getDegradedStages();
+        return a;
+    }
+
+    // ---------------- Getters & setters ----------------
+
+    public String getText() { return text; }
+    public void setText(String text) { this.text = text; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+
+    public double getConfidence() { return confidence; }
+    public void setConfidence(double confidence) { this.confidence = confidence; }
+
+    public ExtractedEntities getEntities() { return entities; }
+    public void setEntities(ExtractedEntities entities) { this.entities = entities; }
+
+    public NormalizedEntity getNormalized() { return normalized; }
+    public void setNormalized(NormalizedEntity normalized) { this.normalized = normalized; }
+
+    public AppointmentEntity getAppointment() { return appointment; }
+    public void setAppointment(AppointmentEntity appointment) { this.appointment = appointment; }
+
+    public BookingEntity getBooking() { return booking; }
+    public void setBooking(BookingEntity booking) { this.booking = booking; }
+
+    public List<AppointmentEntity> getSuggestions() { return suggestions; }
+    public void setSuggestions(List<AppointmentEntity> suggestions) { this.suggestions = suggestions; }
+
+    public List<String> getDegradedStages() { return degradedStages; }
+    public void setDegradedStages(List<String> degradedStages) { this.degradedStages = degradedStages; }
+}
@@ -1,11 +1,36 @@
 package com.healthcare.ai_appointmentscheduler.dto;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 public class TextParseRequest {
     private String text;
 
+    // When true, a successful parse also books the slot in the calendar.
+    private boolean book;
+
+    // Optional IANA zone (e.g. "Europe/London") and ISO-8601 reference time ("2025-10-01T09:00:00+05:30").
+    private String tz;
+    private String now;
+
+    // Token from an earlier needs_clarification response: the text then only has to supply what was missing.
+    @JsonProperty("session_token")
+    private String sessionToken;
+
     public TextParseRequest() {}
     public TextParseRequest(String text) { this.text = text; }
 
     public String getText() { return text; }
     public void setText(String text) { this.text = text; }
-}
\ No newline at end of file
+
+    public boolean isBook() { return book; }
+    public void setBook(boolean book) { this.book = book; }
+
+    public String getTz() { return tz; }
+    public void setTz(String tz) { this.tz = tz; }
+
+    public String getNow() { return now; }
+    public void setNow(String now) { this.now = now; }
+
+    public String getSessionToken() { return sessionToken; }
+    public void setSessionToken(String sessionToken) { this.sessionToken = sessionToken; }
+}
@@ -5,6 +5,7 @@ public class AppointmentEntity {
     private String date;
     private String time;
     private String tz;
+    private String doctor;
 
     public String getDepartment() { return department; }
     public void setDepartment(String department) { this.department = department; }
@@ -17,4 +18,7 @@ public class AppointmentEntity {
 
     public String getTz() { return tz; }
     public void setTz(String tz) { this.tz = tz; }
+
+    public String getDoctor() { return doctor; }
+    public void setDoctor(String doctor) { this.doctor = doctor; }
 }
\ No newline at end of file
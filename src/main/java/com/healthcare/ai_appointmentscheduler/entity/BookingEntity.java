@@ -0,0 +1,29 @@
+package com.healthcare.ai_appointmentscheduler.entity;
+
+public class BookingEntity {
+    // booked | conflict | outside_hours | invalid
+    private String status;
+    private String department;
+    private String date;
+    private String time;
+    private int durationMinutes;
+    private String message;
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public String getDepartment() { return department; }
+    public void setDepartment(String department) { this.department = department; }
+
+    public String getDate() { return date; }
+    public void setDate(String date) { this.date = date; }
+
+    public String getTime() { return time; }
+    public void setTime(String time) { this.time = time; }
+
+    public int getDurationMinutes() { return durationMinutes; }
+    public void setDurationMinutes(int durationMinutes) { this.durationMinutes = durationMinutes; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+}
@@ -9,6 +9,10 @@ public class ExtractedEntities {
     // This field will store the confidence score (0.0 to 1.0) of the department match.
     private double departmentConfidence;
 
+    // Practitioner named in the request ("Dr Sharma"), resolved against the doctor directory.
+    private String doctor;
+    private Double doctorConfidence;
+
     // --- GETTERS AND SETTERS ---
 
     public String getDepartment() {
@@ -44,4 +48,20 @@ public class ExtractedEntities {
     public void setDepartmentConfidence(double departmentConfidence) {
         this.departmentConfidence = departmentConfidence;
     }
+
+    public String getDoctor() {
+        return doctor;
+    }
+
+    public void setDoctor(String doctor) {
+        this.doctor = doctor;
+    }
+
+    public Double getDoctorConfidence() {
+        return doctorConfidence;
+    }
+
+    public void setDoctorConfidence(Double doctorConfidence) {
+        this.doctorConfidence = doctorConfidence;
+    }
 }
\ No newline at end of file
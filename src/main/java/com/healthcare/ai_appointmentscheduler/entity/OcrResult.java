@@ -0,0 +1,100 @@
+package com.healthcare.ai_appointmentscheduler.entity;
+
+import com.healthcare.ai_appointmentscheduler.util.FuzzyMatcher;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Output of one OCR pass: the words in reading order with confidences and boxes,
+ * and the plain text rebuilt from them (a line break wherever a word starts a new line).
+ */
+public class OcrResult {
+
+    // A phrase token must be at least this similar to the words it is attributed to.
+    private static final double WORD_MATCH_THRESHOLD = 0.70;
+    // Tokens such as "3pm" may be split by OCR into "3" "pm": try runs of up to this many words.
+    private static final int MAX_WORD_RUN = 3;
+
+    private final List<OcrWord> words;
+    private final String text;
+    private final String[] keys;
+    private final boolean timedOut;
+
+    public OcrResult(List<OcrWord> words) {
+        this(words, false);
+    }
+
+    /** @param timedOut recognition was stopped by its deadline; the words may cover only part of the page */
+    public OcrResult(List<OcrWord> words, boolean timedOut) {
+        this.timedOut = timedOut;
+        this.words = List.copyOf(words);
+        this.keys = new String[this.words.size()];
+        StringBuilder sb = new StringBuilder();
+        OcrWord prev = null;
+        for (int i = 0; i < this.words.size(); i++) {
+            OcrWord w = this.words.get(i);
+            keys[i] = key(w.getText());
+            if (prev != null) {
+                boolean newLine = w.getY() > prev.getY() + prev.getHeight() / 2;
+                sb.append(newLine ? '\n' : ' ');
+            }
+            sb.append(w.getText());
+            prev = w;
+        }
+        this.text = sb.toString();
+    }
+
+    public List<OcrWord> getWords() { return words; }
+
+    public String getText() { return text; }
+
+    public boolean isTimedOut() { return timedOut; }
+
+    /** Mean word confidence, 0 when nothing was recognised. */
+    public double getMeanConfidence() {
+        if (words.isEmpty()) return 0.0;
+        double sum = 0;
+        for (OcrWord w : words) sum += w.getConfidence();
+        return sum / words.size();
+    }
+
+    /**
+     * Mean confidence of the words a phrase was read from (e.g. an extracted "next friday").
+     * Each token of the phrase is matched to the most similar run of one to three adjacent words.
+     *
+     * @return the confidence, or -1 when no token of the phrase can be located
+     */
+    public double confidenceOf(String phrase) {
+        if (phrase == null || phrase.isBlank() || words.isEmpty()) return -1;
+        double sum = 0;
+        int found = 0;
+        for (String token : phrase.toLowerCase(Locale.ROOT).split("\\s+")) {
+            String t = key(token);
+            if (t.isEmpty()) continue;
+            double bestSim = 0, bestConf = 0;
+            for (int i = 0; i < keys.length; i++) {
+                StringBuilder run = new StringBuilder();
+                double confSum = 0;
+                for (int n = 1; n <= MAX_WORD_RUN && i + n <= keys.length; n++) {
+                    run.append(keys[i + n - 1]);
+                    confSum += words.get(i + n - 1).getConfidence();
+                    double sim = FuzzyMatcher.similarity(t, run.toString());
+                    if (sim > bestSim) {
+                        bestSim = sim;
+                        bestConf = confSum / n;
+                    }
+                }
+            }
+            if (bestSim >= WORD_MATCH_THRESHOLD) {
+                sum += bestConf;
+                found++;
+            }
+        }
+        return found == 0 ? -1 : sum / found;
+    }
+
+    private static String key(String s) {
+        return s == null ? "" : s.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]", "");
+    }
+}
@@ -0,0 +1,34 @@
+package com.healthcare.ai_appointmentscheduler.entity;
+
+/**
+ * One recognised word with Tesseract's confidence (0..1) and its box in the OCR input image.
+ */
+public class OcrWord {
+    private final String text;
+    private final double confidence;
+    private final int x;
+    private final int y;
+    private final int width;
+    private final int height;
+
+    public OcrWord(String text, double confidence, int x, int y, int width, int height) {
+        this.text = text;
+        this.confidence = confidence;
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+    }
+
+    public String getText() { return text; }
+
+    public double getConfidence() { return confidence; }
+
+    public int getX() { return x; }
+
+    public int getY() { return y; }
+
+    public int getWidth() { return width; }
+
+    public int getHeight() { return height; }
+}
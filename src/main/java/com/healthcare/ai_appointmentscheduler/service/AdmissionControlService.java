@@ -0,0 +1,129 @@
+package com.healthcare.ai_appointmentscheduler.service;
+
+import com.healthcare.ai_appointmentscheduler.util.AdaptiveConcurrencyLimit;
+import com.healthcare.ai_appointmentscheduler.util.TokenBucket;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AdmissionControlService
+ *
+ * Fast rejection instead of unbounded queueing, per endpoint ("text" and "image"):
+ *  - per-client token bucket  -> 429 Too Many Requests
+ *  - adaptive concurrency cap -> 503 Service Unavailable (limit follows measured latency)
+ *
+ * Limits are configured under admission.{endpoint}.* and exposed as admission.* metrics.
+ */
+@Service
+public class AdmissionControlService {
+
+    public enum Decision { ADMITTED, RATE_LIMITED, OVERLOADED }
+
+    /** Outcome of {@link #tryAdmit}; {@code retryAfterSeconds} is set for rejections. */
+    public record Admission(Decision decision, long retryAfterSeconds) {}
+
+    private static final long IDLE_CLIENT_NANOS = TimeUnit.MINUTES.toNanos(10);
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    private final class Endpoint {
+        final String name;
+        final double burst;
+        final double ratePerSecond;
+        final int maxClients;
+        final AdaptiveConcurrencyLimit limit;
+        final ConcurrentHashMap<String, TokenBucket> clients = new ConcurrentHashMap<>();
+        final Counter rateLimited;
+        final Counter overloaded;
+
+        Endpoint(String name, Environment env, MeterRegistry registry) {
+            String p = "admission." + name + ".";
+            this.name = name;
+            this.burst = env.getProperty(p + "burst", Double.class, 10.0);
+            this.ratePerSecond = env.getProperty(p + "rate-per-second", Double.class, 5.0);
+            this.maxClients = env.getProperty("admission.max-tracked-clients", Integer.class, 100_000);
+            this.limit = new AdaptiveConcurrencyLimit(
+                    env.getProperty(p + "initial-concurrency", Integer.class, 8),
+                    env.getProperty(p + "min-concurrency", Integer.class, 1),
+                    env.getProperty(p + "max-concurrency", Integer.class, 64),
+                    env.getProperty(p + "latency-tolerance", Double.class, 2.0),
+                    env.getProperty(p + "window-samples", Integer.class, 500));
+
+            Gauge.builder("admission.concurrency.limit", limit, AdaptiveConcurrencyLimit::getLimit)
+                    .tag("endpoint", name).register(registry);
+            Gauge.builder("admission.concurrency.in_flight", limit, AdaptiveConcurrencyLimit::getInFlight)
+                    .tag("endpoint", name).register(registry);
+            Gauge.builder("admission.latency.smoothed_ms", limit, AdaptiveConcurrencyLimit::getSmoothedLatencyMillis)
+                    .tag("endpoint", name).register(registry);
+            Gauge.builder("admission.clients.tracked", clients, Map::size)
+                    .tag("endpoint", name).register(registry);
+            this.rateLimited = Counter.builder("admission.rejected").tag("endpoint", name)
+                    .tag("reason", "rate_limited").register(registry);
+            this.overloaded = Counter.builder("admission.rejected").tag("endpoint", name)
+                    .tag("reason", "overloaded").register(registry);
+        }
+    }
+
+    public AdmissionControlService(Environment env, MeterRegistry registry) {
+        for (String name : new String[]{"text", "image"}) {
+            endpoints.put(name, new Endpoint(name, env, registry));
+        }
+    }
+
+    /**
+     * Checks the client's rate limit, then takes a concurrency permit.
+     * An ADMITTED caller must call {@link #release} when the request completes.
+     */
+    public Admission tryAdmit(String endpoint, String clientId) {
+        Endpoint ep = endpoints.get(endpoint);
+        if (ep == null) return new Admission(Decision.ADMITTED, 0);
+
+        long now = System.nanoTime();
+        if (ep.clients.size() >= ep.maxClients) evictIdle(ep, now);
+        TokenBucket bucket = ep.clients.computeIfAbsent(clientId,
+                k -> new TokenBucket(ep.burst, ep.ratePerSecond, now));
+        long waitNanos = bucket.tryAcquire(now);
+        if (waitNanos > 0) {
+            ep.rateLimited.increment();
+            return new Admission(Decision.RATE_LIMITED, Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999)));
+        }
+
+        if (!ep.limit.tryAcquire()) {
+            ep.overloaded.increment();
+            long retry = Math.max(1, Math.round(ep.limit.getSmoothedLatencyMillis() / 1000.0));
+            return new Admission(Decision.OVERLOADED, retry);
+        }
+        return new Admission(Decision.ADMITTED, 0);
+    }
+
+    /** Returns the concurrency permit and records the request's latency; 0 records no sample. */
+    public void release(String endpoint, long latencyNanos) {
+        Endpoint ep = endpoints.get(endpoint);
+        if (ep != null) ep.limit.release(latencyNanos);
+    }
+
+    public int currentLimit(String endpoint) {
+        Endpoint ep = endpoints.get(endpoint);
+        return ep == null ? -1 : ep.limit.getLimit();
+    }
+
+    private void evictIdle(Endpoint ep, long now) {
+        ep.clients.entrySet().removeIf(e -> now - e.getValue().getLastUsed() > IDLE_CLIENT_NANOS);
+        int excess = ep.clients.size() - ep.maxClients * 9 / 10;
+        if (excess <= 0) return;
+        // Still full of active clients: forget the least recently seen tenth, never the busy ones,
+        // so a flood of new identities cannot reset the limits of clients that are using them.
+        ep.clients.entrySet().stream()
+                .map(e -> Map.entry(e.getKey(), e.getValue().getLastUsed()))
+                .sorted(Map.Entry.comparingByValue((a, b) -> Long.compare(a - now, b - now)))
+                .limit(excess)
+                .forEach(e -> ep.clients.remove(e.getKey()));
+    }
+}
@@ -0,0 +1,92 @@
+package com.healthcare.ai_appointmentscheduler.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * AppointmentSegmenter
+ *
+ * Splits a message into one clause per requested appointment, e.g.
+ * "dentist tomorrow 3pm and cardiologist next friday 10am" into two, so each is extracted and
+ * normalized on its own instead of mixing the department of one with the time of another.
+ *  - Candidate boundaries: line breaks, sentence ends (not after "Dr." and similar titles),
+ *    semicolons, commas and joining words ("and", "also", "then", "plus").
+ *  - A fragment only starts a new clause when it names a department or doctor (even the same one
+ *    again: "dentist monday 9am and dentist friday 4pm" is two visits), or describes a complaint
+ *    of another department than the current clause; anything else ("tomorrow at 3pm",
+ *    "bring your card", "dentist friday, my tooth hurts") stays with the clause before it, so
+ *    ordinary punctuation inside one request never splits it.
+ */
+@Component
+public class AppointmentSegmenter {
+
+    private static final Pattern BOUNDARY = Pattern.compile(
+            "\\s*(?:[\\r\\n]+|(?<!\\b(?:dr|mr|mrs|ms|prof))[.;!?](?=\\s)|,)\\s*|\\s+(?:and(?:\\s+also)?|also|then|plus)\\s+",
+            Pattern.CASE_INSENSITIVE);
+
+    // What a fragment asks for; inferred when only a complaint points at the department.
+    private record Subject(String key, boolean inferred) {}
+
+    private final TextPreprocessorImpl preprocessor;
+    private final EntityExtractorImpl extractor;
+    private final boolean enabled;
+    private final int maxClauses;
+
+    public AppointmentSegmenter(TextPreprocessorImpl preprocessor, EntityExtractorImpl extractor,
+                                @Value("${segment.enabled:true}") boolean enabled,
+                                @Value("${segment.max-clauses:8}") int maxClauses) {
+        this.preprocessor = preprocessor;
+        this.extractor = extractor;
+        this.enabled = enabled;
+        this.maxClauses = maxClauses;
+    }
+
+    /** The clauses of {@code text} in order, as substrings of it; one element when nothing splits. */
+    public List<String> split(String text) {
+        if (!enabled || text == null || text.isBlank()) return List.of(text == null ? "" : text);
+
+        // [start, end) of each clause in text; fragments without a new subject extend the current one.
+        List<int[]> clauses = new ArrayList<>();
+        String current = null;
+        int pendingStart = -1;
+        Matcher m = BOUNDARY.matcher(text);
+        int from = 0;
+        while (from < text.length()) {
+            boolean found = m.find(from);
+            int end = found ? m.start() : text.length();
+            if (end > from && !text.substring(from, end).isBlank()) {
+                Subject subject = clauses.size() < maxClauses ? subject(text.substring(from, end)) : null;
+                if (subject != null && (!subject.inferred() || !subject.key().equals(current))) {
+                    clauses.add(new int[]{pendingStart >= 0 ? pendingStart : from, end});
+                    current = subject.key();
+                    pendingStart = -1;
+                } else if (!clauses.isEmpty()) {
+                    clauses.get(clauses.size() - 1)[1] = end;
+                } else if (pendingStart < 0) {
+                    // Leading chatter ("Hi, please book:") joins the first clause.
+                    pendingStart = from;
+                }
+            }
+            if (!found) break;
+            from = Math.max(m.end(), m.start() + 1);
+        }
+        if (clauses.size() < 2) return List.of(text);
+        return clauses.stream().map(c -> text.substring(c[0], c[1]).trim()).toList();
+    }
+
+    // The department a fragment asks for (named, implied by a doctor, or inferred), else the doctor.
+    private Subject subject(String fragment) {
+        String clean = extractor.clean(preprocessor.preprocess(fragment));
+        EntityExtractorImpl.DeptMatchResult department = extractor.department(clean);
+        DoctorDirectoryService.DoctorMatch doctor = extractor.doctor(clean);
+        if (doctor != null && (department.department() == null || department.inferred())) {
+            return new Subject(doctor.department() != null ? doctor.department() : doctor.name(), false);
+        }
+        return department.department() == null ? null : new Subject(department.department(), department.inferred());
+    }
+}
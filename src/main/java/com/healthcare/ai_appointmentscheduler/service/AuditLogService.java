@@ -0,0 +1,348 @@
+package com.healthcare.ai_appointmentscheduler.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.healthcare.ai_appointmentscheduler.dto.ParseResponse;
+import com.healthcare.ai_appointmentscheduler.util.MpscRingBuffer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * AuditLogService
+ *
+ * Records every parse (input, outcome, confidence, stage timings) without doing I/O on the
+ * request thread:
+ *  - The request thread only builds a small {@link Entry} holding references it already has and
+ *    offers it to a bounded lock-free ring. No formatting, no locks, no syscalls.
+ *  - One background writer drains the ring in batches, encodes JSON lines into a buffered stream
+ *    and flushes when the ring runs dry or the flush interval passes.
+ *  - Files are audit-&lt;epochMillis&gt;.jsonl in the audit directory, rolled by size and age; the
+ *    oldest are deleted beyond max-files. {@link com.healthcare.ai_appointmentscheduler.util.AuditLogReader}
+ *    reads them back.
+ *
+ * Overflow policy when the ring is full:
+ *  - drop (default): the record is counted and a {"gap":N} line marks the loss in the file
+ *  - block: the request thread waits up to block-timeout-ms for room, then drops
+ */
+@Service
+public class AuditLogService {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditLogService.class);
+
+    private static final String PREFIX = "audit-";
+    private static final String SUFFIX = ".jsonl";
+
+    /** One audited parse. Built on the request thread, encoded on the writer thread. */
+    public record Entry(long epochMillis, String endpoint, int httpStatus, ParseResponse response,
+                        String text, int imageBytes, int imageCrc, long durationNanos, String error) {}
+
+    private final boolean enabled;
+    private final Path dir;
+    private final long maxFileBytes;
+    private final long rollMillis;
+    private final int maxFiles;
+    private final long flushIntervalNanos;
+    private final int batchSize;
+    private final int maxTextChars;
+    private final boolean block;
+    private final long blockTimeoutNanos;
+
+    private final MpscRingBuffer<Entry> ring;
+    private final AtomicLong dropped = new AtomicLong();
+    private final Counter writtenCounter;
+    private final Counter droppedCounter;
+    private final JsonFactory json = new JsonFactory();
+
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    // writer thread only
+    private CountingStream out;
+    private JsonGenerator gen;
+    private FileChannel channel;
+    private long fileOpenedAt;
+    private long lastFlush;
+    private long gapsWritten;
+
+    public AuditLogService(@Value("${audit.enabled:true}") boolean enabled,
+                           @Value("${audit.dir:./data/audit}") String dir,
+                           @Value("${audit.queue-capacity:16384}") int queueCapacity,
+                           @Value("${audit.batch-size:512}") int batchSize,
+                           @Value("${audit.flush-interval-ms:200}") long flushIntervalMs,
+                           @Value("${audit.max-file-bytes:67108864}") long maxFileBytes,
+                           @Value("${audit.roll-minutes:60}") long rollMinutes,
+                           @Value("${audit.max-files:168}") int maxFiles,
+                           @Value("${audit.max-text-chars:2000}") int maxTextChars,
+                           @Value("${audit.overflow:drop}") String overflow,
+                           @Value("${audit.block-timeout-ms:50}") long blockTimeoutMs,
+                           MeterRegistry registry) {
+        this.enabled = enabled;
+        this.dir = Paths.get(dir);
+        this.maxFileBytes = maxFileBytes;
+        this.rollMillis = TimeUnit.MINUTES.toMillis(rollMinutes);
+        this.maxFiles = maxFiles;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        this.batchSize = batchSize;
+        this.maxTextChars = maxTextChars;
+        this.blockTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(blockTimeoutMs);
+        this.block = switch (overflow.trim().toLowerCase(Locale.ROOT)) {
+            case "drop" -> false;
+            case "block" -> true;
+            default -> throw new IllegalArgumentException("audit.overflow must be drop or block: " + overflow);
+        };
+
+        this.ring = new MpscRingBuffer<>(queueCapacity);
+        Gauge.builder("audit.queue.size", ring, MpscRingBuffer::size).register(registry);
+        this.writtenCounter = Counter.builder("audit.records").tag("result", "written").register(registry);
+        this.droppedCounter = Counter.builder("audit.records").tag("result", "dropped").register(registry);
+
+        this.writer = new Thread(this::writeLoop, "audit-writer");
+        writer.setDaemon(true);
+        if (enabled) writer.start();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // -------- Request side --------
+
+    /** Audits a text parse. */
+    public void text(String text, int httpStatus, ParseResponse response, long startedNanos, String error) {
+        if (!enabled) return;
+        offer(new Entry(System.currentTimeMillis(), "text", httpStatus, response, text, -1, 0,
+                System.nanoTime() - startedNanos, error));
+    }
+
+    /**
+     * Audits an image parse. The image itself is not kept, only its size and CRC32C
+     * (hardware-accelerated, microseconds per megabyte, small next to the OCR it follows).
+     */
+    public void image(byte[] image, int httpStatus, ParseResponse response, long startedNanos, String error) {
+        if (!enabled) return;
+        CRC32C crc = new CRC32C();
+        crc.update(image);
+        offer(new Entry(System.currentTimeMillis(), "image", httpStatus, response, null, image.length,
+                (int) crc.getValue(), System.nanoTime() - startedNanos, error));
+    }
+
+    void offer(Entry entry) {
+        if (ring.offer(entry)) return;
+        if (block) {
+            long deadline = System.nanoTime() + blockTimeoutNanos;
+            while (System.nanoTime() - deadline < 0) {
+                LockSupport.parkNanos(50_000);
+                if (ring.offer(entry)) return;
+            }
+        }
+        dropped.incrementAndGet();
+        droppedCounter.increment();
+    }
+
+    /** Records lost to a full ring since startup. */
+    public long droppedCount() {
+        return dropped.get();
+    }
+
+    // -------- Writer thread --------
+
+    private void writeLoop() {
+        while (running || ring.size() > 0) {
+            try {
+                int n = ring.drain(this::write, batchSize);
+                long now = System.nanoTime();
+                if (n > 0) writtenCounter.increment(n);
+                if (gen != null && (n < batchSize || now - lastFlush >= flushIntervalNanos)) {
+                    writeGap();
+                    gen.flush();
+                    lastFlush = now;
+                    if (out.count >= maxFileBytes || System.currentTimeMillis() - fileOpenedAt >= rollMillis) {
+                        closeFile();
+                    }
+                }
+                if (n == 0) LockSupport.parkNanos(flushIntervalNanos);
+            } catch (IOException | RuntimeException e) {
+                log.warn("Audit writer failed; reopening the log file", e);
+                closeQuietly();
+                LockSupport.parkNanos(flushIntervalNanos);
+            }
+        }
+        try {
+            if (gen != null) writeGap();
+            closeFile();
+        } catch (IOException e) {
+            log.warn("Failed to close audit log", e);
+        }
+    }
+
+    private void write(Entry e) {
+        try {
+            if (gen == null) openFile();
+            encode(e);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private void encode(Entry e) throws IOException {
+        ParseResponse r = e.response();
+        gen.writeStartObject();
+        gen.writeNumberField("ts", e.epochMillis());
+        gen.writeStringField("endpoint", e.endpoint());
+        gen.writeNumberField("http_status", e.httpStatus());
+        gen.writeNumberField("duration_ms", e.durationNanos() / 1_000_000.0);
+        if (e.text() != null) {
+            String text = e.text().length() > maxTextChars ? e.text().substring(0, maxTextChars) : e.text();
+            gen.writeStringField("input", text);
+        } else if (e.imageBytes() >= 0) {
+            gen.writeNumberField("image_bytes", e.imageBytes());
+            gen.writeStringField("image_crc32c", Integer.toHexString(e.imageCrc()));
+        }
+        if (e.error() != null) gen.writeStringField("error", e.error());
+        if (r != null) {
+            gen.writeStringField("status", r.getStatus());
+            gen.writeNumberField("confidence", r.getConfidence());
+            if (r.getOcrConfidence() != null) gen.writeNumberField("ocr_confidence", r.getOcrConfidence());
+            if (r.getEntities() != null) {
+                writeIfPresent("department", r.getEntities().getDepartment());
+                writeIfPresent("doctor", r.getEntities().getDoctor());
+            }
+            if (r.getNormalized() != null) {
+                writeIfPresent("date", r.getNormalized().getDate());
+                writeIfPresent("time", r.getNormalized().getTime());
+                writeIfPresent("tz", r.getNormalized().getTz());
+            }
+            if (r.getBooking() != null) writeIfPresent("booking", r.getBooking().getStatus());
+            if (r.getTimings() != null && !r.getTimings().isEmpty()) {
+                gen.writeObjectFieldStart("timings_ms");
+                for (Map.Entry<String, Double> t : r.getTimings().entrySet()) {
+                    gen.writeNumberField(t.getKey(), t.getValue());
+                }
+                gen.writeEndObject();
+            }
+        }
+        gen.writeEndObject();
+        gen.writeRaw('\n');
+    }
+
+    private void writeIfPresent(String field, String value) throws IOException {
+        if (value != null) gen.writeStringField(field, value);
+    }
+
+    // Marks records lost to overflow since the previous marker.
+    private void writeGap() throws IOException {
+        long lost = dropped.get() - gapsWritten;
+        if (lost <= 0) return;
+        if (gen == null) openFile();
+        gen.writeStartObject();
+        gen.writeNumberField("ts", System.currentTimeMillis());
+        gen.writeNumberField("gap", lost);
+        gen.writeEndObject();
+        gen.writeRaw('\n');
+        gapsWritten += lost;
+    }
+
+    // -------- Files --------
+
+    private void openFile() throws IOException {
+        Files.createDirectories(dir);
+        long now = System.currentTimeMillis();
+        Path file;
+        // Names sort by creation time; bump on the rare same-millisecond collision.
+        while (Files.exists(file = dir.resolve(String.format("%s%013d%s", PREFIX, now, SUFFIX)))) now++;
+        channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        out = new CountingStream(new BufferedOutputStream(Channels.newOutputStream(channel), 64 * 1024));
+        gen = json.createGenerator(out);
+        fileOpenedAt = now;
+        lastFlush = System.nanoTime();
+        pruneOldFiles();
+    }
+
+    private void closeFile() throws IOException {
+        if (gen == null) return;
+        gen.flush();
+        channel.force(false);
+        gen.close();
+        gen = null;
+        out = null;
+        channel = null;
+    }
+
+    private void closeQuietly() {
+        try {
+            if (gen != null) gen.close();
+        } catch (IOException ignored) {
+            // already failing; the next record opens a fresh file
+        }
+        gen = null;
+        out = null;
+        channel = null;
+    }
+
+    private void pruneOldFiles() throws IOException {
+        if (maxFiles <= 0) return;
+        List<Path> files;
+        try (Stream<Path> s = Files.list(dir)) {
+            files = s.filter(p -> {
+                String n = p.getFileName().toString();
+                return n.startsWith(PREFIX) && n.endsWith(SUFFIX);
+            }).sorted().toList();
+        }
+        for (int i = 0; i < files.size() - maxFiles; i++) Files.deleteIfExists(files.get(i));
+    }
+
+    @PreDestroy
+    void close() {
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** Byte count of the current file, for size-based rolling. */
+    private static final class CountingStream extends FilterOutputStream {
+        long count;
+
+        CountingStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
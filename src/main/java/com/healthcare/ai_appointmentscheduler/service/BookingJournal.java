@@ -0,0 +1,488 @@
+package com.healthcare.ai_appointmentscheduler.service;
+
+import com.healthcare.ai_appointmentscheduler.config.DepartmentConfig;
+import com.healthcare.ai_appointmentscheduler.util.SlotBitmap;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * BookingJournal
+ *
+ * Append-only, memory-mapped journal that makes the {@link SlotCalendarService} survive restarts.
+ *
+ * Layout (all records are {@value #RECORD_SIZE} bytes, big-endian):
+ *  - journal-NNNNNNNNNN.log : one header record followed by booking records, preallocated and mapped.
+ *      header = magic(4) version(4) slotMinutes(4) dayStart(4) slotsPerDay(4) deptCount(4) deptCrc32c(4)
+ *      record = op(1) dept(1) slot(2) epochDay(4) seq(8) timestampMillis(8) crc32c(4) reserved(4)
+ *  - snapshot-NNNNNNNNNN.bin : compact dump of every day bitmap, covering all segments before NNNNNNNNNN,
+ *      headed by the slot grid and the department names.
+ *
+ * Records store departments by index into {@link DepartmentConfig#DEPARTMENTS}, so files written
+ * with a different slot grid or department list are refused rather than replayed into the wrong one.
+ *
+ * Write path: a booking is copied into the mapped segment under a short lock (no syscall).
+ * Group commit: a background thread forces the mapping every flush interval, so one fsync covers
+ * every booking appended since the previous one. With sync enabled, callers wait for that force.
+ *
+ * Recovery: load the newest valid snapshot, then replay every later segment up to its first
+ * empty or corrupt record. Replay is idempotent (bits are OR-ed in), so a snapshot taken while
+ * bookings are still arriving is safe.
+ */
+@Component
+public class BookingJournal {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingJournal.class);
+
+    static final int RECORD_SIZE = 32;
+    static final byte OP_BOOK = 1;
+
+    private static final int SEGMENT_MAGIC = 0x424A524E;  // "BJRN"
+    private static final int SNAPSHOT_MAGIC = 0x42534E50; // "BSNP"
+    private static final int FORMAT_VERSION = 1;
+    private static final byte[] DEPARTMENT_NAMES =
+            String.join("\n", DepartmentConfig.DEPARTMENTS).getBytes(StandardCharsets.UTF_8);
+
+    private final boolean enabled;
+    private final Path dir;
+    private final int segmentRecords;
+    private final long flushIntervalMs;
+    private final long snapshotEveryRecords;
+    private final long snapshotIntervalMinutes;
+    private final boolean syncCommit;
+
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final Object durableMonitor = new Object();
+    private final AtomicBoolean snapshotRunning = new AtomicBoolean();
+
+    private ScheduledExecutorService background;
+    private SlotCalendarService calendar;
+
+    // guarded by appendLock
+    private FileChannel segmentChannel;
+    private volatile MappedByteBuffer segment;
+    private long segmentNo;
+    private int nextRecord;
+    private long seq;
+    private long recordsSinceSnapshot;
+    private boolean closed;
+
+    // group-commit watermarks (sequence numbers)
+    private volatile long appendedSeq;
+    private volatile long durableSeq;
+
+    public BookingJournal(@Value("${booking.journal.enabled:true}") boolean enabled,
+                          @Value("${booking.journal.dir:./data/journal}") String dir,
+                          @Value("${booking.journal.segment-records:1048576}") int segmentRecords,
+                          @Value("${booking.journal.flush-interval-ms:5}") long flushIntervalMs,
+                          @Value("${booking.journal.snapshot-every-records:200000}") long snapshotEveryRecords,
+                          @Value("${booking.journal.snapshot-interval-minutes:60}") long snapshotIntervalMinutes,
+                          @Value("${booking.journal.sync:false}") boolean syncCommit) {
+        this.enabled = enabled;
+        this.dir = Paths.get(dir);
+        this.segmentRecords = segmentRecords;
+        this.flushIntervalMs = flushIntervalMs;
+        this.snapshotEveryRecords = snapshotEveryRecords;
+        this.snapshotIntervalMinutes = snapshotIntervalMinutes;
+        this.syncCommit = syncCommit;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Restores the calendar from disk and opens a fresh segment for new bookings.
+     * Called once by the calendar after its grid is configured.
+     */
+    void recover(SlotCalendarService calendar) {
+        if (!enabled) return;
+        this.calendar = calendar;
+        long started = System.nanoTime();
+        long replayed = 0;
+        try {
+            Files.createDirectories(dir);
+            long snapshotNo = loadLatestSnapshot();
+            long lastSegment = snapshotNo - 1;
+            for (long no : listNumbers("journal-", ".log")) {
+                if (no < snapshotNo) continue;
+                replayed += replaySegment(no);
+                lastSegment = no;
+            }
+            // Always start a new segment: the old tail may end in a torn record.
+            openSegment(Math.max(lastSegment + 1, snapshotNo));
+            log.info("Booking journal recovered {} records after snapshot {} in {} ms",
+                    replayed, snapshotNo, (System.nanoTime() - started) / 1_000_000);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to recover booking journal in " + dir, e);
+        }
+
+        background = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "booking-journal");
+            t.setDaemon(true);
+            return t;
+        });
+        background.scheduleWithFixedDelay(this::groupCommit, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        background.scheduleWithFixedDelay(this::snapshotIfDirty, snapshotIntervalMinutes, snapshotIntervalMinutes,
+                TimeUnit.MINUTES);
+        // Fold the replayed tail into a snapshot so the next start has less to replay.
+        if (replayed > 0) snapshotInBackground();
+    }
+
+    /**
+     * Appends one booking. Returns once the record is in the mapped segment,
+     * or, with booking.journal.sync=true, once the group commit covering it has been forced.
+     */
+    void appendBooking(int dept, long epochDay, int slot) {
+        if (!enabled || segment == null) return;
+        long mySeq;
+        boolean rotate = false;
+        appendLock.lock();
+        try {
+            if (nextRecord > segmentRecords) {
+                rollSegment();
+            }
+            mySeq = ++seq;
+            int off = nextRecord++ * RECORD_SIZE;
+            writeRecord(segment, off, OP_BOOK, dept, slot, (int) epochDay, mySeq, System.currentTimeMillis());
+            appendedSeq = mySeq;
+            if (++recordsSinceSnapshot >= snapshotEveryRecords) {
+                recordsSinceSnapshot = 0;
+                rotate = true;
+            }
+        } finally {
+            appendLock.unlock();
+        }
+        if (rotate) snapshotInBackground();
+        if (syncCommit) awaitDurable(mySeq);
+    }
+
+    /**
+     * Starts a new segment and writes a snapshot covering everything before it.
+     * Older segments and snapshots are deleted once the new snapshot is on disk.
+     */
+    void snapshot() {
+        if (!enabled || calendar == null || !snapshotRunning.compareAndSet(false, true)) return;
+        try {
+            long coveredBefore;
+            appendLock.lock();
+            try {
+                if (closed) return;
+                rollSegment();
+                coveredBefore = segmentNo;
+            } finally {
+                appendLock.unlock();
+            }
+            writeSnapshot(coveredBefore);
+            deleteOlderThan(coveredBefore);
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("Booking snapshot failed; journal segments are kept for replay", e);
+        } finally {
+            snapshotRunning.set(false);
+        }
+    }
+
+    // Once the journal is closing the executor refuses work; the segments are replayed on the next start instead.
+    private void snapshotInBackground() {
+        try {
+            if (background != null) background.execute(this::snapshot);
+        } catch (RejectedExecutionException e) {
+            log.debug("Booking journal is shutting down; snapshot skipped");
+        }
+    }
+
+    private void snapshotIfDirty() {
+        appendLock.lock();
+        try {
+            if (recordsSinceSnapshot == 0) return;
+            recordsSinceSnapshot = 0;
+        } finally {
+            appendLock.unlock();
+        }
+        snapshot();
+    }
+
+    @PreDestroy
+    void close() {
+        if (background != null) background.shutdownNow();
+        appendLock.lock();
+        try {
+            closed = true;
+            if (segment != null) {
+                segment.force();
+                durableSeq = appendedSeq;
+                segmentChannel.close();
+                segment = null;
+            }
+        } catch (IOException e) {
+            log.warn("Failed to close booking journal", e);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    // -------- Group commit --------
+
+    private void groupCommit() {
+        long target = appendedSeq;
+        if (target == durableSeq) return;
+        MappedByteBuffer current = segment;
+        if (current == null) return;
+        current.force();
+        durableSeq = target;
+        if (syncCommit) {
+            synchronized (durableMonitor) {
+                durableMonitor.notifyAll();
+            }
+        }
+    }
+
+    private void awaitDurable(long target) {
+        synchronized (durableMonitor) {
+            while (durableSeq < target) {
+                try {
+                    durableMonitor.wait(flushIntervalMs * 4);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    // -------- Segments --------
+
+    // caller holds appendLock (or is the single recovery thread)
+    private void rollSegment() {
+        try {
+            if (segment != null) {
+                segment.force();
+                durableSeq = appendedSeq;
+                segmentChannel.close();
+            }
+            openSegment(segmentNo + 1);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to roll booking journal segment", e);
+        }
+    }
+
+    private void openSegment(long no) throws IOException {
+        Path p = dir.resolve(name("journal-", no, ".log"));
+        long size = (long) (segmentRecords + 1) * RECORD_SIZE;
+        segmentChannel = FileChannel.open(p, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        segment = segmentChannel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        segment.putInt(0, SEGMENT_MAGIC);
+        segment.putInt(4, FORMAT_VERSION);
+        segment.putInt(8, calendar.getSlotMinutes());
+        segment.putInt(12, calendar.getDayStartMinute());
+        segment.putInt(16, calendar.getSlotsPerDay());
+        segment.putInt(20, DepartmentConfig.DEPARTMENTS.size());
+        segment.putInt(24, crc(DEPARTMENT_NAMES));
+        segment.force();
+        segmentNo = no;
+        nextRecord = 1; // record 0 is the header
+    }
+
+    private long replaySegment(long no) throws IOException {
+        Path p = dir.resolve(name("journal-", no, ".log"));
+        long count = 0;
+        try (FileChannel ch = FileChannel.open(p, StandardOpenOption.READ)) {
+            if (ch.size() < RECORD_SIZE) return 0;
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            if (buf.getInt(0) != SEGMENT_MAGIC) {
+                log.warn("Skipping {}: bad header", p.getFileName());
+                return 0;
+            }
+            checkVersion(p, buf.getInt(4));
+            checkGrid(p, buf.getInt(8), buf.getInt(12), buf.getInt(16));
+            if (buf.getInt(20) != DepartmentConfig.DEPARTMENTS.size() || buf.getInt(24) != crc(DEPARTMENT_NAMES)) {
+                throw new IllegalStateException(p.getFileName() + " was written with a different department list ("
+                        + buf.getInt(20) + " departments); refusing to reinterpret it");
+            }
+            CRC32C crc = new CRC32C();
+            int records = (int) (ch.size() / RECORD_SIZE);
+            for (int r = 1; r < records; r++) {
+                int off = r * RECORD_SIZE;
+                byte op = buf.get(off);
+                if (op == 0) break; // preallocated tail
+                crc.reset();
+                crc.update(buf.slice(off, 24));
+                if ((int) crc.getValue() != buf.getInt(off + 24)) {
+                    log.warn("Stopping replay of {} at record {}: checksum mismatch", p.getFileName(), r);
+                    break;
+                }
+                if (op == OP_BOOK) {
+                    calendar.restore(buf.get(off + 1), buf.getInt(off + 4), buf.getShort(off + 2));
+                }
+                seq = Math.max(seq, buf.getLong(off + 8));
+                count++;
+            }
+        }
+        appendedSeq = durableSeq = seq;
+        return count;
+    }
+
+    private static void writeRecord(ByteBuffer buf, int off, byte op, int dept, int slot, int epochDay,
+                                    long seq, long timestamp) {
+        buf.put(off, op);
+        buf.put(off + 1, (byte) dept);
+        buf.putShort(off + 2, (short) slot);
+        buf.putInt(off + 4, epochDay);
+        buf.putLong(off + 8, seq);
+        buf.putLong(off + 16, timestamp);
+        CRC32C crc = new CRC32C();
+        crc.update(buf.slice(off, 24));
+        buf.putInt(off + 24, (int) crc.getValue());
+    }
+
+    // -------- Snapshots --------
+
+    private void writeSnapshot(long coveredBefore) throws IOException {
+        List<long[]> days = new ArrayList<>();
+        calendar.forEachDay((dept, epochDay, bitmap) -> {
+            long[] entry = new long[2 + bitmap.wordCount()];
+            entry[0] = dept;
+            entry[1] = epochDay;
+            for (int w = 0; w < bitmap.wordCount(); w++) entry[2 + w] = bitmap.word(w);
+            days.add(entry);
+        });
+
+        int words = (calendar.getSlotsPerDay() + 63) >>> 6;
+        int entryBytes = 1 + 4 + words * 8;
+        ByteBuffer buf = ByteBuffer.allocate(40 + DEPARTMENT_NAMES.length + days.size() * entryBytes + 4);
+        buf.putInt(SNAPSHOT_MAGIC).putInt(FORMAT_VERSION).putLong(coveredBefore)
+                .putInt(calendar.getSlotMinutes()).putInt(calendar.getDayStartMinute())
+                .putInt(calendar.getSlotsPerDay())
+                .putInt(DEPARTMENT_NAMES.length).put(DEPARTMENT_NAMES)
+                .putLong(days.size());
+        for (long[] e : days) {
+            buf.put((byte) e[0]).putInt((int) e[1]);
+            for (int w = 0; w < words; w++) buf.putLong(e[2 + w]);
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(buf.array(), 0, buf.position());
+        buf.putInt((int) crc.getValue());
+        buf.flip();
+
+        Path target = dir.resolve(name("snapshot-", coveredBefore, ".bin"));
+        Path tmp = dir.resolve(target.getFileName() + ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buf.hasRemaining()) ch.write(buf);
+            ch.force(true);
+        }
+        Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Loads the newest readable snapshot.
+     * @return the first segment number not covered by it (0 when there is none)
+     */
+    private long loadLatestSnapshot() throws IOException {
+        List<Long> numbers = listNumbers("snapshot-", ".bin");
+        for (int i = numbers.size() - 1; i >= 0; i--) {
+            Path p = dir.resolve(name("snapshot-", numbers.get(i), ".bin"));
+            byte[] bytes = Files.readAllBytes(p);
+            if (bytes.length < 40) continue;
+            CRC32C crc = new CRC32C();
+            crc.update(bytes, 0, bytes.length - 4);
+            ByteBuffer buf = ByteBuffer.wrap(bytes);
+            if (buf.getInt(bytes.length - 4) != (int) crc.getValue() || buf.getInt() != SNAPSHOT_MAGIC) {
+                log.warn("Ignoring corrupt snapshot {}", p.getFileName());
+                continue;
+            }
+            checkVersion(p, buf.getInt());
+            long coveredBefore = buf.getLong();
+            checkGrid(p, buf.getInt(), buf.getInt(), buf.getInt());
+            byte[] departments = new byte[buf.getInt()];
+            buf.get(departments);
+            if (!Arrays.equals(departments, DEPARTMENT_NAMES)) {
+                throw new IllegalStateException(p.getFileName() + " was written with a different department list ("
+                        + new String(departments, StandardCharsets.UTF_8).replace('\n', ',') + "); refusing to reinterpret it");
+            }
+            long count = buf.getLong();
+            int words = (calendar.getSlotsPerDay() + 63) >>> 6;
+            for (long n = 0; n < count; n++) {
+                int dept = buf.get();
+                int epochDay = buf.getInt();
+                SlotBitmap bitmap = calendar.dayBitmap(dept, epochDay);
+                for (int w = 0; w < words; w++) bitmap.orWord(w, buf.getLong());
+            }
+            return coveredBefore;
+        }
+        return 0;
+    }
+
+    private void deleteOlderThan(long segmentNoExclusive) throws IOException {
+        for (long no : listNumbers("journal-", ".log")) {
+            if (no < segmentNoExclusive) Files.deleteIfExists(dir.resolve(name("journal-", no, ".log")));
+        }
+        for (long no : listNumbers("snapshot-", ".bin")) {
+            if (no < segmentNoExclusive) Files.deleteIfExists(dir.resolve(name("snapshot-", no, ".bin")));
+        }
+    }
+
+    // -------- Helpers --------
+
+    private static void checkVersion(Path p, int version) {
+        if (version != FORMAT_VERSION) {
+            throw new IllegalStateException(p.getFileName() + " has journal format version " + version
+                    + "; this build reads version " + FORMAT_VERSION);
+        }
+    }
+
+    private void checkGrid(Path p, int slotMinutes, int dayStartMinute, int slotsPerDay) {
+        if (slotMinutes != calendar.getSlotMinutes() || dayStartMinute != calendar.getDayStartMinute()
+                || slotsPerDay != calendar.getSlotsPerDay()) {
+            throw new IllegalStateException(p.getFileName() + " was written with a different slot grid ("
+                    + slotMinutes + " min slots, " + slotsPerDay + " per day); refusing to reinterpret it");
+        }
+    }
+
+    private List<Long> listNumbers(String prefix, String suffix) throws IOException {
+        List<Long> out = new ArrayList<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            files.map(f -> f.getFileName().toString())
+                    .filter(n -> n.startsWith(prefix) && n.endsWith(suffix))
+                    .forEach(n -> {
+                        try {
+                            out.add(Long.parseLong(n.substring(prefix.length(), n.length() - suffix.length())));
+                        } catch (NumberFormatException ignored) {}
+                    });
+        }
+        out.sort(null);
+        return out;
+    }
+
+    private static int crc(byte[] data) {
+        CRC32C crc = new CRC32C();
+        crc.update(data);
+        return (int) crc.getValue();
+    }
+
+    private static String name(String prefix, long no, String suffix) {
+        return String.format("%s%010d%s", prefix, no, suffix);
+    }
+}
@@ -0,0 +1,103 @@
+package com.healthcare.ai_appointmentscheduler.service;
+
+import com.healthcare.ai_appointmentscheduler.dto.ParseOptions;
+import com.healthcare.ai_appointmentscheduler.dto.ParseResponse;
+import com.healthcare.ai_appointmentscheduler.util.Deadline;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ClarificationSessionService
+ *
+ * Keeps the partial result of a parse that ended in needs_clarification, so the client can
+ * answer with just the missing piece ("3pm please") instead of resending the text or image:
+ *  - {@link #open} stores the response (entities, normalized values, the OCR read behind it)
+ *    under a random token that goes back to the client as "session_token".
+ *  - {@link #take} hands the stored turn to exactly one follow-up; a follow-up that is still
+ *    ambiguous opens a new session, up to max-turns per conversation. A follow-up that fails
+ *    {@link #restore}s the session, so the client can retry it.
+ *
+ * Sessions expire after the TTL. The store is bounded: past max-sessions expired entries are
+ * swept and, if that is not enough, the session closest to expiry is evicted.
+ */
+@Service
+public class ClarificationSessionService {
+
+    /** One stored turn: its response, the options it was parsed with and its turn number. */
+    public record Session(ParseResponse previous, ParseOptions options, int turn, long expiresAt) {}
+
+    private final boolean enabled;
+    private final long ttlNanos;
+    private final int maxSessions;
+    private final int maxTurns;
+    private final SecureRandom random = new SecureRandom();
+    private final ConcurrentHashMap<String, Session> sessions = new ConcurrentHashMap<>();
+    private volatile long nextSweep;
+
+    public ClarificationSessionService(@Value("${clarification.enabled:true}") boolean enabled,
+                                       @Value("${clarification.ttl-seconds:300}") long ttlSeconds,
+                                       @Value("${clarification.max-sessions:10000}") int maxSessions,
+                                       @Value("${clarification.max-turns:3}") int maxTurns) {
+        this.enabled = enabled;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.maxSessions = maxSessions;
+        this.maxTurns = maxTurns;
+    }
+
+    /**
+     * Stores an ambiguous response for a follow-up.
+     * @param turn 1 for a fresh request, previous turn + 1 for a follow-up
+     * @return the token, or null when sessions are disabled or the conversation used all its turns
+     */
+    public String open(ParseResponse response, ParseOptions options, int turn) {
+        if (!enabled || turn > maxTurns) return null;
+        long now = System.nanoTime();
+        sweepIfDue(now);
+
+        byte[] bytes = new byte[18];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        // The deadline belonged to the earlier request; the follow-up gets its own.
+        sessions.put(token, new Session(response, options.withDeadline(Deadline.none()), turn, now + ttlNanos));
+        return token;
+    }
+
+    /** Removes and returns the session for a token; null when unknown or expired. */
+    public Session take(String token) {
+        if (token == null || token.isBlank()) return null;
+        Session s = sessions.remove(token.trim());
+        return s == null || System.nanoTime() - s.expiresAt() > 0 ? null : s;
+    }
+
+    /** Puts back a session taken by a follow-up that failed; it keeps its original expiry. */
+    public void restore(String token, Session session) {
+        if (token == null || session == null || System.nanoTime() - session.expiresAt() > 0) return;
+        sessions.putIfAbsent(token.trim(), session);
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    // -------- Helpers --------
+
+    private void sweepIfDue(long now) {
+        if (now - nextSweep < 0 && sessions.size() < maxSessions) return;
+        nextSweep = now + ttlNanos;
+        sessions.entrySet().removeIf(e -> now - e.getValue().expiresAt() > 0);
+        while (sessions.size() >= maxSessions) {
+            Map.Entry<String, Session> oldest = null;
+            for (Map.Entry<String, Session> e : sessions.entrySet()) {
+                if (oldest == null || e.getValue().expiresAt() - oldest.getValue().expiresAt() < 0) oldest = e;
+            }
+            if (oldest == null) break;
+            sessions.remove(oldest.getKey(), oldest.getValue());
+        }
+    }
+}
@@ -1,11 +1,15 @@
 package com.healthcare.ai_appointmentscheduler.service;
 
+import com.healthcare.ai_appointmentscheduler.dto.ParseOptions;
 import com.healthcare.ai_appointmentscheduler.dto.ParseResponse;
 import com.healthcare.ai_appointmentscheduler.entity.AppointmentEntity;
 import com.healthcare.ai_appointmentscheduler.entity.ExtractedEntities;
 import com.healthcare.ai_appointmentscheduler.entity.NormalizedEntity;
+import com.healthcare.ai_appointmentscheduler.entity.OcrResult;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
@@ -18,11 +22,45 @@ public class DefaultGuardrailService {
     // score above this minimum floor to be considered valid.
     private static final double MIN_DEPT_CONFIDENCE_FLOOR = 0.70; // 70%
 
+    // On OCR input, a date or time read from words Tesseract is less sure of than this is not trusted.
+    private static final double MIN_OCR_WORD_CONFIDENCE = 0.40;
+
+    private final SlotCalendarService slotCalendar;
+
+    public DefaultGuardrailService(SlotCalendarService slotCalendar) {
+        this.slotCalendar = slotCalendar;
+    }
+
     public ParseResponse buildResponse(String rawText,
                                        ExtractedEntities entities,
                                        NormalizedEntity normalized,
                                        double entitiesConf,
                                        double normalizationConf) {
+        return buildResponse(rawText, entities, normalized, entitiesConf, normalizationConf, null);
+    }
+
+    /**
+     * As above; with an OCR result, entities are weighted by the confidence of the words they came from.
+     */
+    public ParseResponse buildResponse(String rawText,
+                                       ExtractedEntities entities,
+                                       NormalizedEntity normalized,
+                                       double entitiesConf,
+                                       double normalizationConf,
+                                       OcrResult ocr) {
+        return buildResponse(rawText, entities, normalized, entitiesConf, normalizationConf, ocr, ParseOptions.defaults());
+    }
+
+    /**
+     * As above; slot suggestions start at the request's "now" in its zone ({@code options}).
+     */
+    public ParseResponse buildResponse(String rawText,
+                                       ExtractedEntities entities,
+                                       NormalizedEntity normalized,
+                                       double entitiesConf,
+                                       double normalizationConf,
+                                       OcrResult ocr,
+                                       ParseOptions options) {
 
         ParseResponse resp = new ParseResponse();
         resp.setRawText(rawText == null ? "" : rawText);
@@ -38,7 +76,16 @@ public class DefaultGuardrailService {
         boolean hasTime = normalized != null && normalized.getTime() != null;
 
         // A department is considered "valid" if it was found AND its confidence is above our floor.
-        boolean departmentIsValid = hasDept && entities.getDepartmentConfidence() >= MIN_DEPT_CONFIDENCE_FLOOR;
+        double deptConfidence = hasDept ? entities.getDepartmentConfidence() : 0.0;
+        if (ocr != null && !ocr.getWords().isEmpty()) {
+            resp.setOcrConfidence(ocr.getMeanConfidence());
+            if (hasDept) {
+                deptConfidence *= 0.5 + 0.5 * SimpleConfidenceScorer.wordConfidence(ocr, entities.getDepartment());
+            }
+            if (hasDatePhrase && isShakyRead(ocr, entities.getDatePhrase())) hasDatePhrase = false;
+            if (hasTime && entities.getTimePhrase() != null && isShakyRead(ocr, entities.getTimePhrase())) hasTime = false;
+        }
+        boolean departmentIsValid = hasDept && deptConfidence >= MIN_DEPT_CONFIDENCE_FLOOR;
 
         // The final confidence score calculation remains the same.
         double overallConfidence = 0.7 * entitiesConf + 0.3 * normalizationConf;
@@ -59,16 +106,38 @@ public class DefaultGuardrailService {
             if (!hasTime) missing.add("time");
             resp.setMessage("Ambiguous " + String.join(", ", missing) + ".");
             resp.setAppointment(null);
+
+            // Only the time is missing: offer the nearest free slots on the requested day.
+            if (departmentIsValid && !hasTime && normalized != null && normalized.getDate() != null) {
+                resp.setSuggestions(suggestSlots(entities.getDepartment(), normalized.getDate(), options));
+            }
         }
 
         return resp;
     }
 
+    // Located in the OCR words, but read with low confidence.
+    private static boolean isShakyRead(OcrResult ocr, String phrase) {
+        double c = ocr.confidenceOf(phrase);
+        return c >= 0 && c < MIN_OCR_WORD_CONFIDENCE;
+    }
+
+    private List<AppointmentEntity> suggestSlots(String department, String date, ParseOptions options) {
+        try {
+            return slotCalendar.suggestNearest(department, LocalDate.parse(date), null, options);
+        } catch (DateTimeParseException ex) {
+            return null;
+        }
+    }
+
     private AppointmentEntity assembleAppointment(ExtractedEntities entities, NormalizedEntity normalized) {
         AppointmentEntity appointment = new AppointmentEntity();
         if (entities != null && entities.getDepartment() != null) {
             appointment.setDepartment(capitalize(entities.getDepartment()));
         }
+        if (entities != null) {
+            appointment.setDoctor(entities.getDoctor());
+        }
         if (normalized != null) {
             appointment.setDate(normalized.getDate());
             appointment.setTime(normalized.getTime());
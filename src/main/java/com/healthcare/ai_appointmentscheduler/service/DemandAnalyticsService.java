@@ -0,0 +1,295 @@
+package com.healthcare.ai_appointmentscheduler.service;
+
+import com.healthcare.ai_appointmentscheduler.config.DepartmentConfig;
+import com.healthcare.ai_appointmentscheduler.dto.ParseResponse;
+import com.healthcare.ai_appointmentscheduler.dto.ParsedAppointment;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * DemandAnalyticsService
+ *
+ * Live parse volume for capacity planning, by department, requested weekday, requested hour
+ * and outcome status (ok vs needs_clarification).
+ *
+ * Counts are kept in three rings of time buckets (minutes, hours, clinic-local days). A bucket
+ * is a flat array of {@link LongAdder}s, one per (dimension value, status) pair, so recording a
+ * parse is a handful of uncontended adds and never takes a lock. A ring slot is reused when its
+ * period comes round again: the first recorder to notice swaps in a fresh bucket with one CAS.
+ *
+ * Queries read at most one ring, whose size is fixed by configuration, so they cost the same
+ * however much traffic was recorded.
+ */
+@Service
+public class DemandAnalyticsService {
+
+    public static final List<String> STATUSES = List.of("ok", "needs_clarification");
+    public static final String UNKNOWN = "unknown";
+
+    public enum Granularity {
+        MINUTE(60_000L), HOUR(3_600_000L), DAY(86_400_000L);
+
+        final long millis;
+
+        Granularity(long millis) {
+            this.millis = millis;
+        }
+
+        public static Granularity parse(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException | NullPointerException ex) {
+                throw new IllegalArgumentException("granularity must be minute, hour or day: " + value);
+            }
+        }
+    }
+
+    public enum Dimension {
+        STATUS, DEPARTMENT, WEEKDAY, HOUR;
+
+        public static Dimension parse(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException | NullPointerException ex) {
+                throw new IllegalArgumentException("dimension must be status, department, weekday or hour: " + value);
+            }
+        }
+    }
+
+    /** One bucket of a time series: its start and the counts per dimension value. */
+    public record Point(Instant start, long total, Map<String, Long> counts) {}
+
+    /** One entry of a top-N answer. */
+    public record Rank(String value, long count) {}
+
+    // Counter layout inside a bucket: each dimension value owns one adder per status.
+    private static final List<String> DEPARTMENTS = withUnknown(DepartmentConfig.DEPARTMENTS);
+    private static final List<String> WEEKDAYS = withUnknown(Arrays.stream(DayOfWeek.values()).map(Enum::name).toList());
+    private static final List<String> HOURS = withUnknown(hours());
+    private static final int S = STATUSES.size();
+    private static final int DEPT_BASE = 0;
+    private static final int WEEKDAY_BASE = DEPT_BASE + DEPARTMENTS.size() * S;
+    private static final int HOUR_BASE = WEEKDAY_BASE + WEEKDAYS.size() * S;
+    private static final int COUNTERS = HOUR_BASE + HOURS.size() * S;
+
+    private static final class Bucket {
+        final long period;
+        final LongAdder[] counters = new LongAdder[COUNTERS];
+
+        Bucket(long period) {
+            this.period = period;
+            for (int i = 0; i < COUNTERS; i++) counters[i] = new LongAdder();
+        }
+    }
+
+    private final boolean enabled;
+    private final ZoneClock clock;
+    private final ZoneId zone;
+    private final EnumMap<Granularity, AtomicReferenceArray<Bucket>> rings = new EnumMap<>(Granularity.class);
+
+    public DemandAnalyticsService(ZoneClock clock,
+                                  @Value("${analytics.enabled:true}") boolean enabled,
+                                  @Value("${scheduler.default-zone:Asia/Kolkata}") String zone,
+                                  @Value("${analytics.minutes:120}") int minutes,
+                                  @Value("${analytics.hours:72}") int hours,
+                                  @Value("${analytics.days:90}") int days) {
+        this.clock = clock;
+        this.enabled = enabled;
+        this.zone = ZoneId.of(zone);
+        rings.put(Granularity.MINUTE, new AtomicReferenceArray<>(minutes));
+        rings.put(Granularity.HOUR, new AtomicReferenceArray<>(hours));
+        rings.put(Granularity.DAY, new AtomicReferenceArray<>(days));
+    }
+
+    // -------- Recording --------
+
+    /** Counts one guardrail outcome; called once per served request. */
+    public void record(ParseResponse resp) {
+        if (resp != null) record(ParsedAppointment.from(resp));
+    }
+
+    /** Counts the guardrail outcome of one clause; a multi-appointment request counts each. */
+    public void record(ParsedAppointment a) {
+        if (!enabled || a == null) return;
+        int status = STATUSES.indexOf(a.getStatus());
+        if (status < 0) return;
+
+        String dept = a.getEntities() == null ? null : a.getEntities().getDepartment();
+        String date = a.getNormalized() == null ? null : a.getNormalized().getDate();
+        String time = a.getNormalized() == null ? null : a.getNormalized().getTime();
+        int d = DEPT_BASE + departmentIndex(dept) * S + status;
+        int w = WEEKDAY_BASE + weekdayIndex(date) * S + status;
+        int h = HOUR_BASE + hourIndex(time) * S + status;
+
+        long now = clock.now().toEpochMilli();
+        for (Granularity g : Granularity.values()) {
+            LongAdder[] c = bucket(g, period(g, now)).counters;
+            c[d].increment();
+            c[w].increment();
+            c[h].increment();
+        }
+    }
+
+    private Bucket bucket(Granularity g, long period) {
+        AtomicReferenceArray<Bucket> ring = rings.get(g);
+        int slot = (int) Math.floorMod(period, (long) ring.length());
+        while (true) {
+            Bucket b = ring.get(slot);
+            if (b != null && b.period == period) return b;
+            if (b != null && b.period > period) return new Bucket(period); // clock stepped back: count nowhere
+            Bucket fresh = new Bucket(period);
+            if (ring.compareAndSet(slot, b, fresh)) return fresh;
+        }
+    }
+
+    // -------- Queries --------
+
+    /** The last {@code points} buckets (oldest first), each broken down by {@code by}. */
+    public List<Point> series(Granularity g, int points, Dimension by) {
+        AtomicReferenceArray<Bucket> ring = rings.get(g);
+        int n = Math.min(points, ring.length());
+        long current = period(g, clock.now().toEpochMilli());
+
+        List<Point> out = new ArrayList<>(n);
+        for (long p = current - n + 1; p <= current; p++) {
+            Bucket b = ring.get((int) Math.floorMod(p, (long) ring.length()));
+            long[] byValue = totals(b != null && b.period == p ? b : null, by, -1);
+            Map<String, Long> counts = new LinkedHashMap<>();
+            long total = 0;
+            List<String> values = values(by);
+            for (int i = 0; i < byValue.length; i++) {
+                total += byValue[i];
+                if (byValue[i] > 0) counts.put(values.get(i), byValue[i]);
+            }
+            out.add(new Point(start(g, p), total, counts));
+        }
+        return out;
+    }
+
+    /**
+     * The {@code limit} most frequent values of {@code by} over the last {@code points} buckets,
+     * optionally restricted to one status.
+     */
+    public List<Rank> top(Dimension by, Granularity g, int points, int limit, String status) {
+        int s = status == null ? -1 : STATUSES.indexOf(status);
+        if (status != null && s < 0) throw new IllegalArgumentException("status must be one of " + STATUSES);
+
+        AtomicReferenceArray<Bucket> ring = rings.get(g);
+        int n = Math.min(points, ring.length());
+        long current = period(g, clock.now().toEpochMilli());
+        long[] sum = new long[values(by).size()];
+        for (long p = current - n + 1; p <= current; p++) {
+            Bucket b = ring.get((int) Math.floorMod(p, (long) ring.length()));
+            if (b == null || b.period != p) continue;
+            long[] t = totals(b, by, s);
+            for (int i = 0; i < sum.length; i++) sum[i] += t[i];
+        }
+
+        List<Rank> ranks = new ArrayList<>();
+        for (int i = 0; i < sum.length; i++) {
+            if (sum[i] > 0) ranks.add(new Rank(values(by).get(i), sum[i]));
+        }
+        ranks.sort(Comparator.comparingLong(Rank::count).reversed());
+        return ranks.size() > limit ? ranks.subList(0, limit) : ranks;
+    }
+
+    /** Number of buckets kept per granularity. */
+    public int capacity(Granularity g) {
+        return rings.get(g).length();
+    }
+
+    // -------- Helpers --------
+
+    // Per-value counts of one dimension in a bucket; status < 0 sums both statuses.
+    private static long[] totals(Bucket b, Dimension by, int status) {
+        List<String> values = values(by);
+        long[] out = new long[values.size()];
+        if (b == null) return out;
+        if (by == Dimension.STATUS) {
+            // Every parse lands in exactly one department row, so those rows give the status totals.
+            for (int d = 0; d < DEPARTMENTS.size(); d++) {
+                for (int s = 0; s < S; s++) out[s] += b.counters[DEPT_BASE + d * S + s].sum();
+            }
+            if (status >= 0) {
+                for (int s = 0; s < S; s++) if (s != status) out[s] = 0;
+            }
+            return out;
+        }
+        int base = switch (by) {
+            case DEPARTMENT -> DEPT_BASE;
+            case WEEKDAY -> WEEKDAY_BASE;
+            default -> HOUR_BASE;
+        };
+        for (int i = 0; i < out.length; i++) {
+            for (int s = 0; s < S; s++) {
+                if (status < 0 || s == status) out[i] += b.counters[base + i * S + s].sum();
+            }
+        }
+        return out;
+    }
+
+    private static List<String> values(Dimension by) {
+        return switch (by) {
+            case STATUS -> STATUSES;
+            case DEPARTMENT -> DEPARTMENTS;
+            case WEEKDAY -> WEEKDAYS;
+            case HOUR -> HOURS;
+        };
+    }
+
+    private long period(Granularity g, long epochMilli) {
+        // Days follow the clinic calendar; minutes and hours are plain epoch periods.
+        if (g == Granularity.DAY) return clock.today(zone, Instant.ofEpochMilli(epochMilli)).toEpochDay();
+        return Math.floorDiv(epochMilli, g.millis);
+    }
+
+    private Instant start(Granularity g, long period) {
+        if (g == Granularity.DAY) return LocalDate.ofEpochDay(period).atStartOfDay(zone).toInstant();
+        return Instant.ofEpochMilli(period * g.millis);
+    }
+
+    private static int departmentIndex(String dept) {
+        if (dept == null) return DEPARTMENTS.size() - 1;
+        int i = DepartmentConfig.DEPARTMENTS.indexOf(dept.toLowerCase(Locale.ROOT));
+        return i < 0 ? DEPARTMENTS.size() - 1 : i;
+    }
+
+    private static int weekdayIndex(String isoDate) {
+        if (isoDate == null) return WEEKDAYS.size() - 1;
+        try {
+            return LocalDate.parse(isoDate).getDayOfWeek().ordinal();
+        } catch (DateTimeParseException ex) {
+            return WEEKDAYS.size() - 1;
+        }
+    }
+
+    // "HH:mm" -> hour of day, without a parser on the hot path.
+    private static int hourIndex(String time) {
+        if (time == null || time.length() < 2) return HOURS.size() - 1;
+        int tens = time.charAt(0) - '0', ones = time.charAt(1) - '0';
+        if (tens < 0 || tens > 2 || ones < 0 || ones > 9) return HOURS.size() - 1;
+        int hour = tens * 10 + ones;
+        return hour < 24 ? hour : HOURS.size() - 1;
+    }
+
+    private static List<String> hours() {
+        List<String> out = new ArrayList<>(24);
+        for (int h = 0; h < 24; h++) out.add(String.format("%02d", h));
+        return out;
+    }
+
+    private static List<String> withUnknown(List<String> values) {
+        List<String> out = new ArrayList<>(values);
+        out.add(UNKNOWN);
+        return List.copyOf(out);
+    }
+}
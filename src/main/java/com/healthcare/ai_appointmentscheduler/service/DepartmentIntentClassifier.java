@@ -0,0 +1,95 @@
+package com.healthcare.ai_appointmentscheduler.service;
+
+import com.healthcare.ai_appointmentscheduler.config.DepartmentConfig;
+import com.healthcare.ai_appointmentscheduler.util.HashedNgramModel;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * DepartmentIntentClassifier
+ *
+ * Maps what the patient describes ("chest pain", "tooth ache", "rash") to a department when no
+ * department name is in the text. Backed by a {@link HashedNgramModel} trained offline with
+ * {@link com.healthcare.ai_appointmentscheduler.util.IntentModelTrainer}; its labels are the
+ * departments plus "none" for text that names no complaint at all.
+ *
+ * A prediction costs a few microseconds and reuses one score buffer per thread.
+ */
+@Service
+public class DepartmentIntentClassifier {
+
+    private static final Logger log = LoggerFactory.getLogger(DepartmentIntentClassifier.class);
+    private static final String NONE = "none";
+
+    /** The predicted department (null when none) and its probability. */
+    public record Prediction(String department, double confidence) {
+        static final Prediction NONE = new Prediction(null, 0.0);
+    }
+
+    private final ResourceLoader resourceLoader;
+    private final boolean enabled;
+    private final String modelLocation;
+    private final double minConfidence;
+
+    private volatile HashedNgramModel model;
+    private volatile ThreadLocal<float[]> scores;
+
+    public DepartmentIntentClassifier(ResourceLoader resourceLoader,
+                                      @Value("${intent.enabled:true}") boolean enabled,
+                                      @Value("${intent.model:classpath:models/department-intent.bin}") String modelLocation,
+                                      @Value("${intent.min-confidence:0.5}") double minConfidence) {
+        this.resourceLoader = resourceLoader;
+        this.enabled = enabled;
+        this.modelLocation = modelLocation;
+        this.minConfidence = minConfidence;
+    }
+
+    @PostConstruct
+    void load() {
+        if (!enabled) return;
+        Resource resource = resourceLoader.getResource(modelLocation);
+        if (!resource.exists()) {
+            log.warn("Department intent model {} not found; symptom matching disabled", modelLocation);
+            return;
+        }
+        HashedNgramModel m;
+        try (InputStream in = resource.getInputStream()) {
+            m = HashedNgramModel.read(in);
+        } catch (IOException ex) {
+            log.warn("Department intent model could not be loaded; symptom matching disabled", ex);
+            return;
+        }
+        for (int c = 0; c < m.classes(); c++) {
+            if (!NONE.equals(m.label(c)) && !DepartmentConfig.DEPARTMENTS.contains(m.label(c))) {
+                throw new IllegalStateException("Intent model label " + m.label(c) + " is not a department");
+            }
+        }
+        int k = m.classes();
+        scores = ThreadLocal.withInitial(() -> new float[k]);
+        model = m;
+        log.info("Department intent model loaded from {} ({} classes, {} buckets)", modelLocation, k, m.dims());
+    }
+
+    public boolean isEnabled() {
+        return model != null;
+    }
+
+    /** The department {@code text} most likely asks for, or none below intent.min-confidence. */
+    public Prediction classify(String text) {
+        HashedNgramModel m = model;
+        if (m == null || text == null || text.isBlank()) return Prediction.NONE;
+        float[] p = scores.get();
+        int best = m.predict(text, p);
+        String label = m.label(best);
+        if (NONE.equals(label) || p[best] < minConfidence) return Prediction.NONE;
+        return new Prediction(label, p[best]);
+    }
+}
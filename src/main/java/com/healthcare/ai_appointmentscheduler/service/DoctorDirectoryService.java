@@ -0,0 +1,151 @@
+package com.healthcare.ai_appointmentscheduler.service;
+
+import com.healthcare.ai_appointmentscheduler.config.DepartmentConfig;
+import com.healthcare.ai_appointmentscheduler.util.TrigramNameIndex;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32C;
+
+/**
+ * DoctorDirectoryService
+ *
+ * Resolves "Dr Sharma" style mentions against the practitioner directory.
+ *  - The directory is a CSV of "name,department" rows (doctors.directory).
+ *  - It is compiled into a {@link TrigramNameIndex} file (doctors.index-file) that is memory-mapped,
+ *    so a 100k+ name directory costs a few heap objects rather than an object per name.
+ *  - The index file is rebuilt when the CSV checksum no longer matches the one stored in it.
+ */
+@Service
+public class DoctorDirectoryService {
+
+    private static final Logger log = LoggerFactory.getLogger(DoctorDirectoryService.class);
+
+    // "dr sharma", "doctor priya sharma" (input is already lower-cased and stripped of punctuation)
+    private static final Pattern MENTION = Pattern.compile("\\b(?:dr|doctor)\\s+([a-z]+)(?:\\s+([a-z]+))?");
+
+    private final ResourceLoader resourceLoader;
+    private final boolean enabled;
+    private final String directoryLocation;
+    private final String indexFile;
+    private final double minScore;
+
+    private volatile TrigramNameIndex index;
+
+    public record DoctorMatch(String name, String department, double confidence) {}
+
+    public DoctorDirectoryService(ResourceLoader resourceLoader,
+                                  @Value("${doctors.enabled:true}") boolean enabled,
+                                  @Value("${doctors.directory:classpath:doctors/directory.csv}") String directoryLocation,
+                                  @Value("${doctors.index-file:./data/doctors.idx}") String indexFile,
+                                  @Value("${doctors.min-score:0.75}") double minScore) {
+        this.resourceLoader = resourceLoader;
+        this.enabled = enabled;
+        this.directoryLocation = directoryLocation;
+        this.indexFile = indexFile;
+        this.minScore = minScore;
+    }
+
+    @PostConstruct
+    void load() {
+        if (!enabled) return;
+        try {
+            Resource csv = resourceLoader.getResource(directoryLocation);
+            if (!csv.exists()) {
+                log.warn("Doctor directory {} not found; doctor lookup disabled", directoryLocation);
+                return;
+            }
+            byte[] source;
+            try (InputStream in = csv.getInputStream()) {
+                source = in.readAllBytes();
+            }
+            int checksum = checksum(source);
+
+            Path file = indexFile == null || indexFile.isBlank() ? null : Path.of(indexFile);
+            if (file != null && Files.isRegularFile(file)) {
+                TrigramNameIndex mapped = TrigramNameIndex.open(file);
+                if (mapped.sourceChecksum() == checksum) {
+                    index = mapped;
+                    log.info("Doctor index mapped from {} ({} names)", file, mapped.size());
+                    return;
+                }
+            }
+            TrigramNameIndex built = compile(source, checksum);
+            if (file != null) {
+                built.write(file);
+                built = TrigramNameIndex.open(file);
+            }
+            index = built;
+            log.info("Doctor index built from {} ({} names, {} KB)", directoryLocation, built.size(), built.byteSize() / 1024);
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Doctor directory could not be loaded; doctor lookup disabled", ex);
+        }
+    }
+
+    /**
+     * Finds a doctor mentioned in cleaned text, trying "dr first last" before "dr last".
+     * Only an unambiguous match is returned; two equally good names yield null.
+     */
+    public DoctorMatch find(String clean) {
+        TrigramNameIndex idx = index;
+        if (idx == null || clean == null || clean.isBlank()) return null;
+
+        Matcher m = MENTION.matcher(clean);
+        while (m.find()) {
+            TrigramNameIndex.Match match = null;
+            if (m.group(2) != null) match = idx.lookup(m.group(1) + " " + m.group(2), minScore);
+            if (match == null) match = idx.lookup(m.group(1), minScore);
+            if (match != null && match.unique()) {
+                int dept = idx.tag(match.id());
+                String department = dept >= 0 && dept < DepartmentConfig.DEPARTMENTS.size()
+                        ? DepartmentConfig.DEPARTMENTS.get(dept) : null;
+                return new DoctorMatch(idx.name(match.id()), department, match.score());
+            }
+        }
+        return null;
+    }
+
+    public int size() {
+        TrigramNameIndex idx = index;
+        return idx == null ? 0 : idx.size();
+    }
+
+    // -------- Helpers --------
+
+    // CSV: "name,department" with an optional header line; unknown departments are skipped.
+    static TrigramNameIndex compile(byte[] csv, int checksum) {
+        List<String> names = new ArrayList<>();
+        List<Integer> tags = new ArrayList<>();
+        for (String line : new String(csv, StandardCharsets.UTF_8).split("\\R")) {
+            int comma = line.lastIndexOf(',');
+            if (line.isBlank() || line.startsWith("#") || comma <= 0) continue;
+            String name = line.substring(0, comma).trim();
+            int dept = DepartmentConfig.DEPARTMENTS.indexOf(line.substring(comma + 1).trim().toLowerCase(Locale.ROOT));
+            if (dept < 0 || name.isEmpty()) continue;
+            names.add(name);
+            tags.add(dept);
+        }
+        return TrigramNameIndex.build(names, tags.stream().mapToInt(Integer::intValue).toArray(), checksum);
+    }
+
+    private static int checksum(byte[] data) {
+        CRC32C crc = new CRC32C();
+        crc.update(data);
+        return (int) crc.getValue();
+    }
+}
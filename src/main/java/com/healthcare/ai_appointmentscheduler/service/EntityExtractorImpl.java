@@ -22,19 +22,128 @@ public class EntityExtractorImpl {
             "monday", "tuesday", "wednesday", "thursday", "friday", "saturday", "sunday"
     );
 
+    private final DoctorDirectoryService doctorDirectory;
+    private final DepartmentIntentClassifier intentClassifier;
+    private final SpellingCorrector spelling;
+
+    public EntityExtractorImpl(DoctorDirectoryService doctorDirectory, DepartmentIntentClassifier intentClassifier,
+                               SpellingCorrector spelling) {
+        this.doctorDirectory = doctorDirectory;
+        this.intentClassifier = intentClassifier;
+        this.spelling = spelling;
+    }
+
     public ExtractedEntities extract(String raw) {
         ExtractedEntities out = new ExtractedEntities();
         if (raw == null) return out;
         String clean = normalizeOcrText(raw);
-        DeptMatchResult deptMatch = findDepartment(clean);
+        return assemble(findDepartment(clean), doctorDirectory.find(clean), findTimePhrase(clean), findDatePhrase(clean));
+    }
+
+    // -------- Per-field extraction (live parsing re-runs only the fields an edit can change) --------
+
+    /** The independent extractors behind {@link #extract}. */
+    public enum Field { DEPARTMENT, DOCTOR, TIME, DATE }
+
+    String clean(String raw) {
+        return normalizeOcrText(raw);
+    }
+
+    DeptMatchResult department(String clean) {
+        return findDepartment(clean);
+    }
+
+    DoctorDirectoryService.DoctorMatch doctor(String clean) {
+        return doctorDirectory.find(clean);
+    }
+
+    String timePhrase(String clean) {
+        return findTimePhrase(clean);
+    }
+
+    String datePhrase(String clean) {
+        return findDatePhrase(clean);
+    }
+
+    ExtractedEntities assemble(DeptMatchResult deptMatch, DoctorDirectoryService.DoctorMatch doctor,
+                               String timePhrase, String datePhrase) {
+        ExtractedEntities out = new ExtractedEntities();
         out.setDepartment(deptMatch.department());
         out.setDepartmentConfidence(deptMatch.confidence());
-        out.setTimePhrase(findTimePhrase(clean));
-        out.setDatePhrase(findDatePhrase(clean));
+
+        if (doctor != null) {
+            out.setDoctor(doctor.name());
+            out.setDoctorConfidence(doctor.confidence());
+            // A named doctor implies their department when the text names none, and outranks a guess.
+            if ((out.getDepartment() == null || deptMatch.inferred()) && doctor.department() != null) {
+                out.setDepartment(doctor.department());
+                out.setDepartmentConfidence(doctor.confidence());
+            }
+        }
+        out.setTimePhrase(timePhrase);
+        out.setDatePhrase(datePhrase);
         return out;
     }
 
-    private record DeptMatchResult(String department, double confidence) {}
+    /**
+     * Whether replacing tokens {@code [from, to)} of {@code tokens} (cleaned text split on whitespace
+     * by the caller; elements may still hold inner spaces) can change what {@code field} extracts.
+     * Call it on the old tokens and the new ones: the answer is "no" only when neither the removed
+     * nor the inserted tokens, nor the neighbours a phrase could join them with, can be part of a match.
+     */
+    boolean mayAffect(Field field, List<String> tokens, int from, int to) {
+        int reach = field == Field.DOCTOR ? 2 : 1;
+        List<String> words = new ArrayList<>();
+        for (int i = Math.max(0, from - reach); i < Math.min(tokens.size(), to + reach); i++) {
+            for (String w : tokens.get(i).split("\\s+")) {
+                if (!w.isEmpty()) words.add(w);
+            }
+        }
+        switch (field) {
+            case DEPARTMENT:
+                // The intent model reads the whole text, so any edit may change its answer.
+                if (intentClassifier.isEnabled()) return true;
+                // Same windows as findDepartment: only one reaching the threshold can be chosen.
+                for (int window = 1; window <= 2; window++) {
+                    for (int i = 0; i + window <= words.size(); i++) {
+                        String candidate = String.join(" ", words.subList(i, i + window));
+                        if (DepartmentConfig.DEPARTMENTS.contains(candidate)) return true;
+                        if (!FuzzyMatcher.isPlausibleWord(candidate)) continue;
+                        for (String dept : DepartmentConfig.DEPARTMENTS) {
+                            if (FuzzyMatcher.similarity(candidate, dept) >= DEPT_SIM_THRESHOLD) return true;
+                        }
+                    }
+                }
+                return false;
+            case DOCTOR:
+                return words.contains("dr") || words.contains("doctor");
+            case TIME:
+                for (String w : words) {
+                    if (w.chars().anyMatch(Character::isDigit) || w.matches("[apm:]+|(am|pm).*")) return true;
+                }
+                return false;
+            default:
+                for (String w : words) {
+                    String letters = w.replaceAll("[^a-z]", "");
+                    if (letters.isEmpty()) continue;
+                    if (letters.equals("day") || letters.equals("after")) return true;
+                    if (FuzzyMatcher.similarity(letters, "next") > 0.75) return true;
+                    for (String dateWord : SINGLE_DATE_WORDS) {
+                        if (letters.contains(dateWord) || FuzzyMatcher.similarity(letters, dateWord) >= DATE_SIM_THRESHOLD) {
+                            return true;
+                        }
+                    }
+                }
+                return false;
+        }
+    }
+
+    /** {@code inferred}: guessed from the complaint by the intent model rather than named in the text. */
+    record DeptMatchResult(String department, double confidence, boolean inferred) {
+        DeptMatchResult(String department, double confidence) {
+            this(department, confidence, false);
+        }
+    }
 
     private DeptMatchResult findDepartment(String clean) {
         if (clean == null || clean.isBlank()) return new DeptMatchResult(null, 0.0);
@@ -59,7 +168,10 @@ public class EntityExtractorImpl {
             }
         }
         if (bestSim >= DEPT_SIM_THRESHOLD) return new DeptMatchResult(bestDept, bestSim);
-        return new DeptMatchResult(null, 0.0);
+
+        // No department named: fall back to what the complaint suggests ("chest pain" -> cardiologist).
+        DepartmentIntentClassifier.Prediction intent = intentClassifier.classify(clean);
+        return new DeptMatchResult(intent.department(), intent.confidence(), intent.department() != null);
     }
 
     /**
@@ -128,12 +240,9 @@ public class EntityExtractorImpl {
     private String normalizeOcrText(String raw) {
         if (raw == null) return "";
         String s = raw.toLowerCase(Locale.ROOT);
-        s = s.replaceAll("\\btomorw\\b", "tomorrow");
-        s = s.replaceAll("tomm?or?ow", "tomorrow");
-        s = s.replaceAll("\\bnxt\\b", "next");
         s = s.replaceAll("[^a-z0-9:\\s]", " ");
         s = s.replaceAll("\\s+", " ").trim();
-        return s;
+        return spelling.correct(s);
     }
 }
 
@@ -0,0 +1,162 @@
+package com.healthcare.ai_appointmentscheduler.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * IdempotencyService
+ *
+ * Single-flight execution of parse requests:
+ *  - The first request for a key runs the work; concurrent duplicates wait on the same future.
+ *  - Completed non-5xx responses are replayed for a short TTL, marked with "Idempotent-Replayed: true".
+ *  - Keys come from the Idempotency-Key header or, when absent, from a hash of the request content,
+ *    and are scoped to the calling client: one client's key or content never matches another's.
+ *  - A booking is only coalesced under an Idempotency-Key. Without one, two identical bookings
+ *    may be meant as two, so each runs (the slot calendar refuses the second with 409).
+ *
+ * A header key that is reused with different content is rejected with 422 rather than replayed.
+ * The store holds at most max-entries keys; past that the oldest is forgotten, which only means
+ * a late duplicate of it runs again.
+ */
+@Service
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    // Keys in insertion order; slots whose entry was replaced or removed are dropped at the head.
+    private final ConcurrentLinkedQueue<Slot> order = new ConcurrentLinkedQueue<>();
+
+    public IdempotencyService(@Value("${idempotency.ttl-seconds:10}") long ttlSeconds,
+                              @Value("${idempotency.max-entries:10000}") int maxEntries) {
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.maxEntries = maxEntries;
+    }
+
+    private static final class Entry {
+        final String fingerprint;
+        final CompletableFuture<ResponseEntity<?>> result = new CompletableFuture<>();
+        volatile boolean done;
+        volatile long expiresAt;
+
+        Entry(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+
+        boolean expired(long now) {
+            return done && now - expiresAt > 0;
+        }
+    }
+
+    private record Slot(String key, Entry entry) {}
+
+    /**
+     * Runs {@code work} once per key; duplicates share its response.
+     *
+     * @param client      identity of the caller, see {@link com.healthcare.ai_appointmentscheduler.config.ClientIdentity}
+     * @param headerKey   client-supplied Idempotency-Key (may be null)
+     * @param fingerprint content hash of the request, see {@link #fingerprint}
+     * @param book        whether the request books a slot
+     */
+    public ResponseEntity<?> execute(String client, String headerKey, String fingerprint, boolean book,
+                                     Supplier<ResponseEntity<?>> work) {
+        boolean keyed = headerKey != null && !headerKey.isBlank();
+        if (!keyed && book) return work.get();
+        String key = client + (keyed ? "|key:" + headerKey.trim() : "|content:" + fingerprint);
+        long now = System.nanoTime();
+
+        Entry mine = new Entry(fingerprint);
+        Entry existing = entries.compute(key, (k, cur) ->
+                cur == null || cur.expired(now) ? mine : cur);
+        if (existing == mine) {
+            order.add(new Slot(key, mine));
+            trim(now);
+        }
+
+        if (existing != mine) {
+            if (!existing.fingerprint.equals(fingerprint)) {
+                return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+                        .body(Map.of("error", HEADER + " was already used for a different request"));
+            }
+            ResponseEntity<?> shared = await(existing);
+            return ResponseEntity.status(shared.getStatusCode())
+                    .headers(shared.getHeaders())
+                    .header(REPLAYED_HEADER, "true")
+                    .body(shared.getBody());
+        }
+
+        try {
+            ResponseEntity<?> resp = work.get();
+            mine.result.complete(resp);
+            if (resp.getStatusCode().is5xxServerError()) {
+                entries.remove(key, mine); // let the client retry for real
+            } else {
+                mine.expiresAt = System.nanoTime() + ttlNanos;
+                mine.done = true;
+            }
+            return resp;
+        } catch (RuntimeException | Error ex) {
+            mine.result.completeExceptionally(ex);
+            entries.remove(key, mine);
+            throw ex;
+        }
+    }
+
+    /**
+     * Stable hash of everything that determines the response of a request.
+     */
+    public static String fingerprint(String endpoint, boolean book, String options, byte[] content) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            md.update(endpoint.getBytes(StandardCharsets.UTF_8));
+            md.update((byte) (book ? 1 : 0));
+            md.update(options.getBytes(StandardCharsets.UTF_8));
+            md.update((byte) 0);
+            md.update(content);
+            return HexFormat.of().formatHex(md.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    // -------- Helpers --------
+
+    private static ResponseEntity<?> await(Entry entry) {
+        try {
+            return entry.result.join();
+        } catch (CompletionException ce) {
+            if (ce.getCause() instanceof RuntimeException re) throw re;
+            throw ce;
+        }
+    }
+
+    // Drops the oldest slots while they are stale, expired or over max-entries; O(1) per request amortised.
+    private void trim(long now) {
+        for (Slot head; (head = order.peek()) != null; ) {
+            boolean live = entries.get(head.key()) == head.entry();
+            if (live && !head.entry().expired(now) && entries.size() <= maxEntries) return;
+            if (order.remove(head)) entries.remove(head.key(), head.entry());
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.healthcare.ai_appointmentscheduler.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * ImageMemoryBudget
+ *
+ * One node-wide budget for the memory image decoding and preprocessing may hold at once, so a
+ * single huge upload cannot push the heap over the edge the way a concurrency limit would let it.
+ *  - Each image reserves its estimated working set (from the header dimensions) before decoding
+ *    and releases it when done.
+ *  - A reservation that does not fit waits up to max-wait-ms (first come, first served, so large
+ *    images are not starved by small ones), then is rejected as busy: 503 + Retry-After.
+ *  - An image whose working set exceeds the whole budget can never fit and is rejected at once: 413.
+ *
+ * Accounting is in KiB so a multi-gigabyte budget fits the semaphore's int permits.
+ * Exposed as ocr.memory.* metrics.
+ */
+@Service
+public class ImageMemoryBudget {
+
+    /** Why an image was refused; {@code tooLarge} means it will never fit, otherwise retry later. */
+    public static final class Rejected extends RuntimeException {
+        private final boolean tooLarge;
+
+        Rejected(String message, boolean tooLarge) {
+            super(message);
+            this.tooLarge = tooLarge;
+        }
+
+        public boolean isTooLarge() {
+            return tooLarge;
+        }
+    }
+
+    /** Held while an image is decoded and processed; close releases it (once). */
+    public final class Reservation implements AutoCloseable {
+        private final int kib;
+        private final AtomicBoolean open = new AtomicBoolean(true);
+
+        private Reservation(int kib) {
+            this.kib = kib;
+        }
+
+        public long bytes() {
+            return kib * 1024L;
+        }
+
+        @Override
+        public void close() {
+            if (open.compareAndSet(true, false)) permits.release(kib);
+        }
+    }
+
+    private final int budgetKib;
+    private final long maxWaitMs;
+    private final Semaphore permits;
+    private final Counter tooLarge;
+    private final Counter busy;
+
+    public ImageMemoryBudget(@Value("${ocr.memory.budget-mb:0}") long budgetMb,
+                             @Value("${ocr.memory.max-wait-ms:500}") long maxWaitMs,
+                             MeterRegistry registry) {
+        // 0 = a quarter of the maximum heap
+        long bytes = budgetMb > 0 ? budgetMb * 1024 * 1024 : Runtime.getRuntime().maxMemory() / 4;
+        this.budgetKib = (int) Math.min(Integer.MAX_VALUE, bytes / 1024);
+        this.maxWaitMs = maxWaitMs;
+        this.permits = new Semaphore(budgetKib, true);
+
+        Gauge.builder("ocr.memory.budget.bytes", this, ImageMemoryBudget::budgetBytes).register(registry);
+        Gauge.builder("ocr.memory.reserved.bytes", this, ImageMemoryBudget::reservedBytes).register(registry);
+        Gauge.builder("ocr.memory.utilization", this, ImageMemoryBudget::utilization).register(registry);
+        Gauge.builder("ocr.memory.waiting", permits, Semaphore::getQueueLength).register(registry);
+        this.tooLarge = Counter.builder("ocr.memory.rejected").tag("reason", "too_large").register(registry);
+        this.busy = Counter.builder("ocr.memory.rejected").tag("reason", "busy").register(registry);
+    }
+
+    /**
+     * Reserves {@code bytes}, waiting at most max-wait-ms and never past {@code waitLimitMs}.
+     * @throws Rejected when the image can never fit, or did not fit in time
+     */
+    public Reservation reserve(long bytes, long waitLimitMs) {
+        long kib = Math.max(1, (bytes + 1023) / 1024);
+        if (kib > budgetKib) {
+            tooLarge.increment();
+            throw new Rejected("Image needs about " + (bytes >> 20) + " MB to process; the limit is "
+                    + (budgetBytes() >> 20) + " MB", true);
+        }
+        long wait = Math.max(0, Math.min(maxWaitMs, waitLimitMs));
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire((int) kib, wait, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            busy.increment();
+            throw new Rejected("Image processing memory is in use; retry shortly", false);
+        }
+        return new Reservation((int) kib);
+    }
+
+    public long budgetBytes() {
+        return budgetKib * 1024L;
+    }
+
+    public long reservedBytes() {
+        return (budgetKib - (long) permits.availablePermits()) * 1024L;
+    }
+
+    public double utilization() {
+        return budgetKib == 0 ? 0 : (budgetKib - (double) permits.availablePermits()) / budgetKib;
+    }
+}
@@ -0,0 +1,99 @@
+package com.healthcare.ai_appointmentscheduler.service;
+
+import com.healthcare.ai_appointmentscheduler.dto.ParseOptions;
+import com.healthcare.ai_appointmentscheduler.dto.ParseResponse;
+import com.healthcare.ai_appointmentscheduler.entity.ExtractedEntities;
+import com.healthcare.ai_appointmentscheduler.service.EntityExtractorImpl.Field;
+import com.healthcare.ai_appointmentscheduler.util.Deadline;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * LiveParseService
+ *
+ * Entity highlighting while the user types. Each connection owns a {@link LiveParseSession};
+ * {@link #evaluate} brings its result up to date with the edits received so far:
+ *  - only the extractors the edits could affect are re-run (the rest keep their cached value),
+ *  - normalization re-runs when the date or time phrase changed, or when there is no date phrase
+ *    and it has to read the whole text,
+ *  - scoring and the guardrail are cheap and always re-run, so confidence and status stay exact.
+ *
+ * Nothing here is booked, audited or counted in analytics: a live result is a preview, and the
+ * client submits the final text through /ai_task/parse/text as before.
+ */
+@Service
+public class LiveParseService {
+
+    /** One pushed update: the revision it reflects, the preview and what had to be recomputed. */
+    public record Update(long revision, ParseResponse response, List<String> reran) {}
+
+    private final TextPreprocessorImpl preprocessor;
+    private final EntityExtractorImpl extractor;
+    private final NattyNormalizer normalizer;
+    private final SimpleConfidenceScorer scorer;
+    private final DefaultGuardrailService guardrail;
+    private final int maxChars;
+    private final long deadlineMs;
+
+    public LiveParseService(TextPreprocessorImpl preprocessor,
+                            EntityExtractorImpl extractor,
+                            NattyNormalizer normalizer,
+                            SimpleConfidenceScorer scorer,
+                            DefaultGuardrailService guardrail,
+                            @Value("${live.max-chars:2000}") int maxChars,
+                            @Value("${deadline.text-ms:1000}") long deadlineMs) {
+        this.preprocessor = preprocessor;
+        this.extractor = extractor;
+        this.normalizer = normalizer;
+        this.scorer = scorer;
+        this.guardrail = guardrail;
+        this.maxChars = maxChars;
+        this.deadlineMs = deadlineMs;
+    }
+
+    public LiveParseSession open(ParseOptions options) {
+        return new LiveParseSession(extractor, preprocessor, options, maxChars);
+    }
+
+    /**
+     * Recomputes the preview for everything received so far. One evaluator per session at a time;
+     * edits may keep arriving meanwhile and are picked up by the next call.
+     */
+    public Update evaluate(LiveParseSession session) {
+        LiveParseSession.Snapshot snap = session.take();
+        String clean = preprocessor.preprocess(snap.text());
+        String extractInput = extractor.clean(clean);
+        List<String> reran = new ArrayList<>();
+
+        String oldTime = session.timePhrase, oldDate = session.datePhrase;
+        for (Field f : snap.dirty()) {
+            switch (f) {
+                case DEPARTMENT -> session.department = extractor.department(extractInput);
+                case DOCTOR -> session.doctor = extractor.doctor(extractInput);
+                case TIME -> session.timePhrase = extractor.timePhrase(extractInput);
+                case DATE -> session.datePhrase = extractor.datePhrase(extractInput);
+            }
+            reran.add(f.name().toLowerCase(Locale.ROOT));
+        }
+        ExtractedEntities entities = extractor.assemble(session.department, session.doctor,
+                session.timePhrase, session.datePhrase);
+
+        boolean phrasesChanged = !Objects.equals(oldTime, session.timePhrase) || !Objects.equals(oldDate, session.datePhrase);
+        if (session.normalized == null || phrasesChanged || session.datePhrase == null) {
+            ParseOptions options = session.options().withDeadline(Deadline.after(deadlineMs));
+            session.normalized = normalizer.normalizeWithin(clean, entities, options).normalized();
+            reran.add("normalize");
+        }
+
+        double entityConf = scorer.scoreEntities(entities, clean, null);
+        double normConf = scorer.scoreNormalization(session.normalized, clean);
+        ParseResponse resp = guardrail.buildResponse(snap.text(), entities, session.normalized, entityConf, normConf, null,
+                session.options());
+        return new Update(snap.revision(), resp, reran);
+    }
+}
@@ -0,0 +1,164 @@
+package com.healthcare.ai_appointmentscheduler.service;
+
+import com.healthcare.ai_appointmentscheduler.dto.ParseOptions;
+import com.healthcare.ai_appointmentscheduler.entity.NormalizedEntity;
+import com.healthcare.ai_appointmentscheduler.service.EntityExtractorImpl.Field;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+/**
+ * State of one live-parsing connection: the text as the user has typed it so far, its tokens, and
+ * the last value of every extractor.
+ *
+ * An edit replaces a character range. Only the tokens touching that range are re-lexed; the rest
+ * keep their text and are shifted. The extractors that could see a difference are marked dirty,
+ * and {@link LiveParseService#evaluate} re-runs just those. Edits are applied by the connection's
+ * receiving thread and evaluation happens on a worker, so the mutable text is guarded by this
+ * object's monitor while the cached results belong to the (single) evaluator.
+ */
+public final class LiveParseSession {
+
+    /** Whitespace-separated run of the text; {@code clean} is what the extractors see of it. */
+    private record Token(int start, int end, String clean) {}
+
+    private final EntityExtractorImpl extractor;
+    private final TextPreprocessorImpl preprocessor;
+    private final ParseOptions options;
+    private final int maxChars;
+
+    private final StringBuilder text = new StringBuilder();
+    private final List<Token> tokens = new ArrayList<>();
+    private final EnumSet<Field> dirty = EnumSet.noneOf(Field.class);
+    private long revision;
+    private boolean pending;
+
+    // -------- Evaluator-owned cache --------
+    EntityExtractorImpl.DeptMatchResult department = new EntityExtractorImpl.DeptMatchResult(null, 0.0);
+    DoctorDirectoryService.DoctorMatch doctor;
+    String timePhrase;
+    String datePhrase;
+    NormalizedEntity normalized;
+
+    LiveParseSession(EntityExtractorImpl extractor, TextPreprocessorImpl preprocessor, ParseOptions options, int maxChars) {
+        this.extractor = extractor;
+        this.preprocessor = preprocessor;
+        this.options = options;
+        this.maxChars = maxChars;
+    }
+
+    public ParseOptions options() {
+        return options;
+    }
+
+    /** Replaces the whole text (first message, or a resync after a rejected edit). */
+    public synchronized void replace(String newText, long rev) {
+        String t = newText == null ? "" : newText;
+        if (t.length() > maxChars) throw new IllegalArgumentException("text longer than " + maxChars + " characters");
+        text.setLength(0);
+        text.append(t);
+        tokens.clear();
+        lex(0, text.length(), tokens);
+        dirty.addAll(EnumSet.allOf(Field.class));
+        revision = rev;
+        pending = true;
+    }
+
+    /**
+     * Replaces characters {@code [from, to)} with {@code insert}.
+     * @throws IllegalArgumentException when the range is outside the current text or the result is too long
+     */
+    public synchronized void edit(int from, int to, String insert, long rev) {
+        String ins = insert == null ? "" : insert;
+        if (from < 0 || to < from || to > text.length()) {
+            throw new IllegalArgumentException("edit [" + from + ", " + to + ") outside text of length " + text.length());
+        }
+        if (text.length() - (to - from) + ins.length() > maxChars) {
+            throw new IllegalArgumentException("text longer than " + maxChars + " characters");
+        }
+
+        // Tokens touching the range (adjacent ones too: typing onto a word's end changes that word).
+        int a = 0;
+        while (a < tokens.size() && tokens.get(a).end() < from) a++;
+        int b = a;
+        while (b < tokens.size() && tokens.get(b).start() <= to) b++;
+        int regionStart = a < b ? Math.min(from, tokens.get(a).start()) : from;
+        int regionEnd = a < b ? Math.max(to, tokens.get(b - 1).end()) : to;
+
+        List<String> before = cleanView();
+        for (Field f : Field.values()) {
+            if (!dirty.contains(f) && extractor.mayAffect(f, before, a, b)) dirty.add(f);
+        }
+
+        int delta = ins.length() - (to - from);
+        text.replace(from, to, ins);
+        List<Token> relexed = new ArrayList<>();
+        lex(regionStart, regionEnd + delta, relexed);
+        tokens.subList(a, b).clear();
+        tokens.addAll(a, relexed);
+        for (int i = a + relexed.size(); i < tokens.size(); i++) {
+            Token t = tokens.get(i);
+            tokens.set(i, new Token(t.start() + delta, t.end() + delta, t.clean()));
+        }
+
+        List<String> after = cleanView();
+        for (Field f : Field.values()) {
+            if (!dirty.contains(f) && extractor.mayAffect(f, after, a, a + relexed.size())) dirty.add(f);
+        }
+        revision = rev;
+        pending = true;
+    }
+
+    public synchronized String text() {
+        return text.toString();
+    }
+
+    public synchronized int tokenCount() {
+        return tokens.size();
+    }
+
+    /** Whether edits arrived since the last {@link #take}. */
+    public synchronized boolean hasPending() {
+        return pending;
+    }
+
+    /** What the evaluator needs: the text at a revision and the fields dirtied since last time. */
+    record Snapshot(String text, long revision, EnumSet<Field> dirty) {}
+
+    synchronized Snapshot take() {
+        Snapshot s = new Snapshot(text.toString(), revision, EnumSet.copyOf(dirty));
+        dirty.clear();
+        pending = false;
+        return s;
+    }
+
+    // -------- Helpers --------
+
+    private void lex(int from, int to, List<Token> out) {
+        int i = from;
+        while (i < to) {
+            while (i < to && Character.isWhitespace(text.charAt(i))) i++;
+            int start = i;
+            while (i < to && !Character.isWhitespace(text.charAt(i))) i++;
+            if (i > start) {
+                out.add(new Token(start, i, extractor.clean(preprocessor.preprocess(text.substring(start, i)))));
+            }
+        }
+    }
+
+    private List<String> cleanView() {
+        return new AbstractList<>() {
+            @Override
+            public String get(int index) {
+                return tokens.get(index).clean();
+            }
+
+            @Override
+            public int size() {
+                return tokens.size();
+            }
+        };
+    }
+}
@@ -1,9 +1,12 @@
 package com.healthcare.ai_appointmentscheduler.service;
 
+import com.healthcare.ai_appointmentscheduler.dto.ParseOptions;
 import com.healthcare.ai_appointmentscheduler.entity.ExtractedEntities;
 import com.healthcare.ai_appointmentscheduler.entity.NormalizedEntity;
 import com.joestelmach.natty.DateGroup;
 import com.joestelmach.natty.Parser;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.time.*;
@@ -11,7 +14,8 @@ import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Locale;
-import java.util.TimeZone;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -22,20 +26,76 @@ import java.util.regex.Pattern;
  *  - Try Natty parser first on a combined phrase (datePhrase + timePhrase or referenceText).
  *  - If Natty fails, use deterministic heuristics to resolve:
  *      * today / tomorrow / day after tomorrow
- *      * next <weekday>  (explicitly next week)
+ *      * next <weekday>  (that day in the following week, as Natty reads it)
  *      * weekday name (maps to upcoming weekday, prefer this week unless 'next' used)
  *  - Parse time phrases robustly to HH:mm.
+ *  - Keep only what the text states: a date or time Natty fills in from the reference clock
+ *    ("dentist tomorrow" has no time) is left empty, so the guardrail can ask for it. A bare
+ *    period ("next week", "this month") names no day and is treated the same way.
+ *  - Resolve everything in the request's zone against the request's reference "now"
+ *    (defaults: scheduler.default-zone and the current time).
+ *  - Bound Natty by a deadline: it runs on a small worker pool and is abandoned when it takes
+ *    longer than deadline.normalize-ms (or the request's remaining time); the heuristics then
+ *    answer and the outcome is marked degraded.
  *
  * Usage:
- *   NormalizedEntity normalized = nattyNormalizer.normalize(cleanText, extractedEntities);
+ *   NormalizedEntity normalized = nattyNormalizer.normalize(cleanText, extractedEntities, options);
  */
 @Component
 public class NattyNormalizer {
 
-    private static final ZoneId TARGET_ZONE = ZoneId.of("Asia/Kolkata");
     private static final DateTimeFormatter DATE_FMT = DateTimeFormatter.ISO_LOCAL_DATE;
     private static final DateTimeFormatter TIME_FMT = DateTimeFormatter.ofPattern("HH:mm");
 
+    // A whole period names no day; Natty still answers it with "now" shifted by the period.
+    private static final Pattern VAGUE_PERIOD = Pattern.compile(
+            "(?:this|next|coming|following)\\s+(?:week|month|year)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern IN_N_DAYS = Pattern.compile("in\\s+(\\d{1,2})\\s+days");
+    private static final Pattern TIME_STRICT = Pattern.compile("^(\\d{1,2})([:\\.]?(\\d{2}))?(am|pm)?$");
+    private static final Pattern TIME_LOOSE = Pattern.compile("(\\d{1,2})([:\\.]?(\\d{2}))?\\s*(am|pm)?", Pattern.CASE_INSENSITIVE);
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern OCR_PN = Pattern.compile("p\\s*n");
+    private static final Pattern OCR_PM = Pattern.compile("p\\s*m");
+    private static final Pattern OCR_OM = Pattern.compile("o\\s*m");
+
+    /** Normalized date/time, and whether Natty ran out of time so only the heuristics answered. */
+    public record Outcome(NormalizedEntity normalized, boolean degraded) {}
+
+    private final ZoneClock zoneClock;
+    private final ZoneId defaultZone;
+    private final long budgetMillis;
+    // Natty's Parser only holds its zone, so one instance per zone is shared across requests.
+    private final ConcurrentHashMap<ZoneId, Parser> parsers = new ConcurrentHashMap<>();
+    // Natty cannot be interrupted; a parse that overruns keeps its worker until it returns,
+    // so the pool size also caps how much CPU runaway parses can hold.
+    private final ThreadPoolExecutor nattyPool;
+
+    public NattyNormalizer(ZoneClock zoneClock,
+                           @Value("${scheduler.default-zone:Asia/Kolkata}") String defaultZone,
+                           @Value("${deadline.normalize-ms:250}") long budgetMillis,
+                           @Value("${deadline.natty-threads:0}") int nattyThreads) {
+        this.zoneClock = zoneClock;
+        this.defaultZone = ZoneId.of(defaultZone);
+        this.budgetMillis = budgetMillis;
+        int threads = nattyThreads > 0 ? nattyThreads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger n = new AtomicInteger();
+        this.nattyPool = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads * 16), r -> {
+                    Thread t = new Thread(r, "natty-" + n.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        nattyPool.shutdownNow();
+    }
+
+    public ZoneId getDefaultZone() {
+        return defaultZone;
+    }
+
     /**
      * Normalize entities into a NormalizedEntity.
      *
@@ -44,10 +104,27 @@ public class NattyNormalizer {
      * @return NormalizedEntity with date/time/tz set when possible
      */
     public NormalizedEntity normalize(String referenceText, ExtractedEntities entities) {
+        return normalize(referenceText, entities, ParseOptions.defaults());
+    }
+
+    /**
+     * Normalize in the zone and against the reference time carried by {@code options}.
+     */
+    public NormalizedEntity normalize(String referenceText, ExtractedEntities entities, ParseOptions options) {
+        return normalizeWithin(referenceText, entities, options).normalized();
+    }
+
+    /**
+     * As {@link #normalize(String, ExtractedEntities, ParseOptions)}, reporting whether Natty
+     * was cut off by its deadline.
+     */
+    public Outcome normalizeWithin(String referenceText, ExtractedEntities entities, ParseOptions options) {
         NormalizedEntity out = new NormalizedEntity();
+        ZoneId zone = options.getZone() != null ? options.getZone() : defaultZone;
+        Instant reference = options.getReferenceTime();
 
         if (entities == null && (referenceText == null || referenceText.isBlank())) {
-            return out;
+            return new Outcome(out, false);
         }
 
         // Prefer explicit entity phrases for natty input, otherwise use reference text
@@ -62,36 +139,56 @@ public class NattyNormalizer {
         }
 
         // Try Natty first (with timezone)
+        boolean degraded = false;
         if (nattyInput != null && !nattyInput.isBlank()) {
             try {
-                Parser parser = new Parser(TimeZone.getTimeZone(TARGET_ZONE));
-                List<DateGroup> groups = parser.parse(nattyInput);
-                if (!groups.isEmpty()) {
-                    DateGroup dg = groups.get(0);
-                    List<java.util.Date> dates = dg.getDates();
-                    if (!dates.isEmpty()) {
-                        java.util.Date parsed = dates.get(0);
-                        Instant inst = parsed.toInstant();
-                        ZonedDateTime zdt = inst.atZone(TARGET_ZONE);
-
-                        // Natty may include time or only date; preserve both if present
-                        out.setDate(zdt.toLocalDate().format(DATE_FMT));
+                Parser parser = parsers.computeIfAbsent(zone, z -> new Parser(zoneClock.timeZone(z)));
+                NattyDate parsed = parseWithNatty(parser, nattyInput, reference,
+                        options.getDeadline().budgetMillis(budgetMillis));
+                if (parsed != null) {
+                    ZonedDateTime zdt = parsed.date().toInstant().atZone(zone);
+
+                    // Natty fills a missing date or time in from "now"; keep only the stated parts
+                    if (!parsed.dateInferred()) out.setDate(zdt.toLocalDate().format(DATE_FMT));
+                    if (!parsed.timeInferred()) {
                         out.setTime(zdt.toLocalTime().truncatedTo(ChronoUnit.MINUTES).format(TIME_FMT));
-                        out.setTz(TARGET_ZONE.toString());
-                        return out;
+                    } else if (entities != null) {
+                        out.setTime(parseTimeToHHmm(entities.getTimePhrase()));
+                    }
+                    if (out.getDate() != null || out.getTime() != null) {
+                        out.setTz(zone.toString());
+                        return new Outcome(out, false);
                     }
                 }
+            } catch (TimeoutException ex) {
+                degraded = true;
             } catch (Exception ex) {
                 // swallow and fall back to deterministic heuristics below
             }
         }
 
+        return new Outcome(heuristics(referenceText, entities, zone, reference), degraded);
+    }
+
+    /**
+     * Only the deterministic rules, without Natty: for callers that need a cheap best effort
+     * (e.g. when the response will be needs_clarification whatever the date resolves to).
+     */
+    public NormalizedEntity normalizeHeuristic(String referenceText, ExtractedEntities entities, ParseOptions options) {
+        ZoneId zone = options.getZone() != null ? options.getZone() : defaultZone;
+        if (entities == null && (referenceText == null || referenceText.isBlank())) return new NormalizedEntity();
+        return heuristics(referenceText, entities, zone, options.getReferenceTime());
+    }
+
+    private NormalizedEntity heuristics(String referenceText, ExtractedEntities entities, ZoneId zone, Instant reference) {
         // Deterministic fallback logic
+        NormalizedEntity out = new NormalizedEntity();
+
         // Resolve date phrase first (if any)
         String datePhrase = entities == null ? null : entities.getDatePhrase();
         String timePhrase = entities == null ? null : entities.getTimePhrase();
 
-        LocalDate today = LocalDate.now(TARGET_ZONE);
+        LocalDate today = zoneClock.today(zone, reference);
         LocalDate resolvedDate = null;
 
         if (datePhrase != null && !datePhrase.isBlank()) {
@@ -99,10 +196,10 @@ public class NattyNormalizer {
 
             if (dp.contains("today")) {
                 resolvedDate = today;
-            } else if (dp.contains("tomorrow")) {
-                resolvedDate = today.plusDays(1);
             } else if (dp.contains("day after tomorrow")) {
                 resolvedDate = today.plusDays(2);
+            } else if (dp.contains("tomorrow")) {
+                resolvedDate = today.plusDays(1);
             } else {
                 // detect explicit "next <weekday>"
                 for (DayOfWeek dow : DayOfWeek.values()) {
@@ -129,7 +226,7 @@ public class NattyNormalizer {
 
                 // handle "in N days"
                 if (resolvedDate == null) {
-                    Matcher m = Pattern.compile("in\\s+(\\d{1,2})\\s+days").matcher(dp);
+                    Matcher m = IN_N_DAYS.matcher(dp);
                     if (m.find()) {
                         try {
                             int n = Integer.parseInt(m.group(1));
@@ -144,8 +241,8 @@ public class NattyNormalizer {
         if (resolvedDate == null && (referenceText != null && !referenceText.isBlank())) {
             String lowRef = referenceText.toLowerCase(Locale.ROOT);
             if (lowRef.contains("today")) resolvedDate = today;
-            else if (lowRef.contains("tomorrow")) resolvedDate = today.plusDays(1);
             else if (lowRef.contains("day after tomorrow")) resolvedDate = today.plusDays(2);
+            else if (lowRef.contains("tomorrow")) resolvedDate = today.plusDays(1);
             else {
                 for (DayOfWeek dow : DayOfWeek.values()) {
                     String dowName = dow.toString().toLowerCase(Locale.ROOT);
@@ -172,33 +269,70 @@ public class NattyNormalizer {
 
         if (resolvedDate != null) out.setDate(resolvedDate.format(DATE_FMT));
         if (normalizedTime != null) out.setTime(normalizedTime);
-        if (out.getDate() != null || out.getTime() != null) out.setTz(TARGET_ZONE.toString());
+        if (out.getDate() != null || out.getTime() != null) out.setTz(zone.toString());
 
         return out;
     }
 
+    private record NattyDate(java.util.Date date, boolean dateInferred, boolean timeInferred) {}
+
+    /**
+     * First date Natty finds, or null. Runs on the Natty pool and gives up after {@code budgetMs}
+     * (inline when there is no budget at all).
+     * @throws TimeoutException when the budget ran out or the pool is saturated
+     */
+    private NattyDate parseWithNatty(Parser parser, String input, Instant reference, long budgetMs)
+            throws Exception {
+        Callable<NattyDate> parse = () -> {
+            List<DateGroup> groups = reference == null
+                    ? parser.parse(input)
+                    : parser.parse(input, java.util.Date.from(reference));
+            if (groups.isEmpty() || groups.get(0).getDates().isEmpty()) return null;
+            DateGroup g = groups.get(0);
+            boolean vague = g.getText() != null && VAGUE_PERIOD.matcher(g.getText().trim()).matches();
+            return new NattyDate(g.getDates().get(0), g.isDateInferred() || vague, g.isTimeInferred());
+        };
+        if (budgetMs == Long.MAX_VALUE) return parse.call();
+        if (budgetMs <= 0) throw new TimeoutException("no time left for Natty");
+
+        Future<NattyDate> future;
+        try {
+            future = nattyPool.submit(parse);
+        } catch (RejectedExecutionException busy) {
+            throw new TimeoutException("Natty pool saturated");
+        }
+        try {
+            return future.get(budgetMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            future.cancel(true);
+            throw ex;
+        } catch (InterruptedException ex) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new TimeoutException("interrupted");
+        } catch (ExecutionException ex) {
+            return null;
+        }
+    }
+
     // Helper to compute days until the target weekday.
-    // If forceNextWeek is true, we always return a positive number > 0 representing the next week's weekday.
+    // If forceNextWeek is true, we return the target day in the following (Monday-based) week,
+    // as Natty does: on a Wednesday "next friday" is nine days away, not two.
     // If false, we return the days until this week's upcoming weekday (0 allowed meaning today).
     private int daysUntilNextWeekday(LocalDate today, DayOfWeek target, boolean forceNextWeek) {
         int todayVal = today.getDayOfWeek().getValue(); // Monday=1..Sunday=7
         int targetVal = target.getValue();
-        int diff = (targetVal - todayVal + 7) % 7;
-        if (forceNextWeek) {
-            if (diff == 0) diff = 7;
-            else diff = diff; // diff already days to this week's occurrence; if 0 -> next week
-        }
-        return diff;
+        if (forceNextWeek) return 7 - todayVal + targetVal;
+        return (targetVal - todayVal + 7) % 7;
     }
 
     // Parse time phrases like '3pm', '3:30pm', '15:00', '3 pm' into HH:mm
     private String parseTimeToHHmm(String timePhrase) {
         if (timePhrase == null || timePhrase.isBlank()) return null;
         String s = timePhrase.toLowerCase(Locale.ROOT).trim();
-        s = s.replaceAll("\\s+", "");
+        s = WHITESPACE.matcher(s).replaceAll("");
         // allow "3pm", "3:30pm", "15:00"
-        Pattern p = Pattern.compile("^(\\d{1,2})([:\\.]?(\\d{2}))?(am|pm)?$");
-        Matcher m = p.matcher(s);
+        Matcher m = TIME_STRICT.matcher(s);
         if (m.find()) {
             int hour = Integer.parseInt(m.group(1));
             String minPart = m.group(3);
@@ -221,12 +355,11 @@ public class NattyNormalizer {
         if (txt == null || txt.isBlank()) return null;
         String s = txt.toLowerCase(Locale.ROOT);
         // small cleanups of common OCR mistakes
-        s = s.replaceAll("p\\s*n", "pm");
-        s = s.replaceAll("p\\s*m", "pm");
-        s = s.replaceAll("o\\s*m", "pm"); // occasional o->p OCR error
+        s = OCR_PN.matcher(s).replaceAll("pm");
+        s = OCR_PM.matcher(s).replaceAll("pm");
+        s = OCR_OM.matcher(s).replaceAll("pm"); // occasional o->p OCR error
         // tolerant regex
-        Pattern p = Pattern.compile("(\\d{1,2})([:\\.]?(\\d{2}))?\\s*(am|pm)?", Pattern.CASE_INSENSITIVE);
-        Matcher m = p.matcher(s);
+        Matcher m = TIME_LOOSE.matcher(s);
         if (m.find()) {
             String hh = m.group(1);
             String mm = m.group(3);
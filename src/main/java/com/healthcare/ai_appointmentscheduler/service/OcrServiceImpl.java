@@ -1,89 +1,480 @@
 package com.healthcare.ai_appointmentscheduler.service;
 
+import com.healthcare.ai_appointmentscheduler.dto.ParseOptions;
 import com.healthcare.ai_appointmentscheduler.dto.ParseResponse;
-import net.sourceforge.tess4j.ITesseract;
-import net.sourceforge.tess4j.Tesseract;
+import com.healthcare.ai_appointmentscheduler.util.Binarizer;
+import com.healthcare.ai_appointmentscheduler.entity.ExtractedEntities;
+import com.healthcare.ai_appointmentscheduler.entity.OcrResult;
+import com.healthcare.ai_appointmentscheduler.entity.OcrWord;
+import jakarta.annotation.PreDestroy;
+import com.healthcare.ai_appointmentscheduler.util.Deadline;
+import com.healthcare.ai_appointmentscheduler.util.Deskew;
+import com.sun.jna.Pointer;
+import net.sourceforge.tess4j.ITessAPI;
+import net.sourceforge.tess4j.TessAPI;
 import net.sourceforge.tess4j.TesseractException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
 
 import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.stream.ImageInputStream;
 import java.awt.*;
 import java.awt.image.*;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
+// Lazy: text-only traffic never creates this bean or loads the Tesseract native library.
+@Lazy
 @Service
 public class OcrServiceImpl {
 
+    private static final Logger log = LoggerFactory.getLogger(OcrServiceImpl.class);
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final String CHAR_WHITELIST =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789:. ";
+
     @Value("${ocr.tessdata.path:/opt/homebrew/share/tessdata}")
     private String tessdataPath;
 
     @Value("${ocr.language:eng}")
     private String tessLanguage;
 
+    // otsu | sauvola | niblack | auto; a request may override it.
+    @Value("${ocr.binarization.mode:auto}")
+    private String defaultBinarization;
+
+    // Window side in pixels of the 2x upscaled image, roughly two text line heights.
+    @Value("${ocr.binarization.window:41}")
+    private int binarizationWindow;
+
+    @Value("${ocr.binarization.k:0.34}")
+    private double binarizationK;
+
+    // "auto" keeps the global Otsu threshold when the histogram is at least this bimodal (0..1).
+    @Value("${ocr.binarization.bimodal-above:0.85}")
+    private double bimodalAbove;
+
+    // --- Skew / orientation correction, applied as one rotation before thresholding ---
+    @Value("${ocr.deskew.enabled:true}")
+    private boolean deskewEnabled;
+
+    // Longest side of the downsampled copy the angle is estimated on.
+    @Value("${ocr.deskew.sample-side:640}")
+    private int deskewSampleSide;
+
+    // Largest tilt searched either way of level and of sideways.
+    @Value("${ocr.deskew.max-degrees:15}")
+    private double deskewMaxDegrees;
+
+    // Smaller tilts are left to Tesseract, which reads them fine; quarter turns are always applied.
+    @Value("${ocr.deskew.min-degrees:0.5}")
+    private double deskewMinDegrees;
+
+    // single | multi; a request may override it with "ocr_strategy".
+    @Value("${ocr.strategy:single}")
+    private String defaultStrategy;
+
+    // --- Multi-strategy OCR ---
+    // Variants as binarization:psm, tried in this order; "gray" skips binarization.
+    @Value("${ocr.multi.variants:otsu:6,sauvola:6,gray:6,sauvola:11,otsu:7}")
+    private String multiVariants;
+
+    // Variants running at once for one request.
+    @Value("${ocr.multi.max-parallel:3}")
+    private int multiMaxParallel;
+
+    // CPU time one request may spend on variants; no new variant starts once it is used up.
+    @Value("${ocr.multi.cpu-budget-ms:3000}")
+    private long multiCpuBudgetMs;
+
+    // A candidate at or above this score wins immediately and the rest are cancelled.
+    @Value("${ocr.multi.accept-score:0.85}")
+    private double multiAcceptScore;
+
+    // Longest one recognition pass may run (further capped by the request deadline).
+    @Value("${deadline.ocr-ms:8000}")
+    private long ocrBudgetMs;
+
     private final PipelineService pipelineService;
+    private final ImageMemoryBudget memoryBudget;
+    private final ExecutorService variantPool;
+
+    private record Variant(String name, Binarizer.Mode binarization, int psm) {}
+
+    private record Candidate(Variant variant, ParseResponse response, double score, long cpuNanos, boolean timedOut) {}
+
+    /** What the image header says, read before any pixel is decoded. */
+    record ImageHeader(int width, int height, int bytesPerPixel) {}
 
-    public OcrServiceImpl(PipelineService pipelineService) {
+    public OcrServiceImpl(PipelineService pipelineService, ImageMemoryBudget memoryBudget) {
         this.pipelineService = pipelineService;
+        this.memoryBudget = memoryBudget;
+        // Tesseract work is CPU-bound native code: a small platform-thread pool shared by all requests.
+        AtomicInteger n = new AtomicInteger();
+        this.variantPool = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), r -> {
+            Thread t = new Thread(r, "ocr-variant-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
     }
 
-    /**
-     * High-level entry for OCR + pipeline
-     */
-    public ParseResponse parseImageAndRunPipeline(MultipartFile file) throws IOException, TesseractException {
-        String extracted = extractText(file);
-        return pipelineService.parseText(extracted);
+    @PreDestroy
+    void shutdown() {
+        variantPool.shutdownNow();
     }
 
     /**
-     * OCR with preprocessing improvements (rotation, scale, grayscale, binarization)
+     * OCR + pipeline on an image already held in memory (gRPC, de-duplicated uploads).
      */
-    public String extractText(MultipartFile file) throws IOException, TesseractException {
-        if (file == null || file.isEmpty()) {
+    public ParseResponse parseImageAndRunPipeline(byte[] imageBytes, ParseOptions options)
+            throws IOException, TesseractException {
+        if (imageBytes == null || imageBytes.length == 0) {
             throw new IllegalArgumentException("Uploaded file is empty");
         }
+        ParseOptions.OcrStrategy strategy = options.getOcrStrategy() != null ? options.getOcrStrategy()
+                : ParseOptions.OcrStrategy.valueOf(defaultStrategy.trim().toUpperCase(Locale.ROOT));
+        ImageHeader header = readHeader(new ByteArrayInputStream(imageBytes));
+        if (header == null) {
+            throw new IOException("Invalid image file");
+        }
 
-        // Save file temporarily
-        String original = file.getOriginalFilename() == null ? "upload.png" : file.getOriginalFilename();
-        String suffix = original.contains(".") ? original.substring(original.lastIndexOf('.')) : ".png";
-        File tempFile = File.createTempFile("ocr-input-", suffix);
-        file.transferTo(tempFile);
-
-        try {
-            BufferedImage img = ImageIO.read(tempFile);
+        long tr = System.nanoTime();
+        ParseResponse resp;
+        long t0, t1, td, t2;
+        try (ImageMemoryBudget.Reservation ignored = memoryBudget.reserve(
+                workingSetBytes(header, strategy == ParseOptions.OcrStrategy.MULTI, options.getBinarization()),
+                waitLimitMillis(options))) {
+            t0 = System.nanoTime();
+            BufferedImage img = ImageIO.read(new ByteArrayInputStream(imageBytes));
             if (img == null) {
                 throw new IOException("Invalid image file");
             }
+            t1 = System.nanoTime();
+            double rotation = deskewDegrees(img);
+            td = System.nanoTime();
+            if (strategy == ParseOptions.OcrStrategy.MULTI) {
+                resp = runVariants(img, rotation, options);
+                t2 = System.nanoTime();
+            } else {
+                OcrResult ocr = recognize(img, rotation, options.getBinarization(), options.getDeadline());
+                t2 = System.nanoTime();
+                resp = pipelineService.parseOcr(ocr, options);
+                if (ocr.isTimedOut()) resp.markDegraded("ocr");
+            }
+        }
+        // Image stages go first so timings read in execution order.
+        Map<String, Double> timings = new LinkedHashMap<>();
+        timings.put("reserve", (t0 - tr) / 1_000_000.0);
+        timings.put("decode", (t1 - t0) / 1_000_000.0);
+        timings.put("deskew", (td - t1) / 1_000_000.0);
+        timings.put("ocr", (t2 - td) / 1_000_000.0);
+        timings.putAll(resp.getTimings());
+        resp.setTimings(timings);
+        return resp;
+    }
 
-            // Preprocess: scale up → grayscale → binarize
-            img = resize(img, img.getWidth() * 2, img.getHeight() * 2);
-            img = toGrayscale(img);
-            img = otsuThreshold(img);
+    /**
+     * OCR on an already decoded image (also used by the startup warm-up).
+     */
+    public String extractText(BufferedImage img) throws TesseractException {
+        return extractText(img, null);
+    }
+
+    /**
+     * OCR with an explicit binarization mode (null = ocr.binarization.mode).
+     */
+    public String extractText(BufferedImage img, Binarizer.Mode binarization) throws TesseractException {
+        return recognize(img, binarization).getText();
+    }
+
+    /**
+     * One OCR pass returning words with confidences and boxes; the text is rebuilt from them.
+     */
+    public OcrResult recognize(BufferedImage img, Binarizer.Mode binarization) throws TesseractException {
+        return recognize(img, binarization, Deadline.none());
+    }
+
+    /**
+     * As above, stopping recognition at deadline.ocr-ms or the request deadline, whichever is first.
+     * A stopped pass returns the words read so far and is marked {@link OcrResult#isTimedOut()}.
+     */
+    public OcrResult recognize(BufferedImage img, Binarizer.Mode binarization, Deadline deadline)
+            throws TesseractException {
+        return recognize(img, deskewDegrees(img), binarization, deadline);
+    }
 
-            File processed = File.createTempFile("ocr-processed-", ".png");
-            ImageIO.write(img, "png", processed);
+    private OcrResult recognize(BufferedImage img, double rotation, Binarizer.Mode binarization, Deadline deadline)
+            throws TesseractException {
+        // Preprocess: rotate + scale up → grayscale → binarize
+        img = toGrayscale(upscale(img, rotation));
+        img = binarize(img, binarization != null ? binarization : Binarizer.Mode.parse(defaultBinarization));
 
-            ITesseract tesseract = new Tesseract();
-            tesseract.setDatapath(resolveTessdataPath());
-            tesseract.setLanguage(tessLanguage);
+        // OCR straight from memory; no need to round-trip the processed image through a temp file.
+        return readWords(img, 6, deadline.budgetMillis(ocrBudgetMs)); // PSM 6: assume single block of text
+    }
 
+    /**
+     * Word-level iteration over a single recognition pass on an 8-bit gray image.
+     *
+     * Drives the Tesseract C API directly so the pass can be stopped: the progress monitor carries
+     * a deadline, and a cancel callback aborts when the calling thread is interrupted (a losing
+     * multi-strategy variant). Every pass gets its own engine handle, ended and freed in finally,
+     * so a stopped pass never leaves state behind for the next one.
+     */
+    private OcrResult readWords(BufferedImage img, int psm, long budgetMs) throws TesseractException {
+        if (budgetMs <= 0) return new OcrResult(List.of(), true);
+        int w = img.getWidth(), h = img.getHeight();
+        byte[] pixels = ((DataBufferByte) img.getRaster().getDataBuffer()).getData();
+        ByteBuffer buf = ByteBuffer.allocateDirect(pixels.length).put(pixels).flip();
+
+        TessAPI api;
+        ITessAPI.TessBaseAPI handle;
+        try {
+            api = TessAPI.INSTANCE;
+            handle = api.TessBaseAPICreate();
+        } catch (RuntimeException ex) {
+            throw new TesseractException(ex);
+        }
+        ITessAPI.ETEXT_DESC monitor = api.TessMonitorCreate();
+        Thread caller = Thread.currentThread();
+        ITessAPI.TessCancelFunc cancel = (cancelThis, words) -> caller.isInterrupted();
+        long started = System.nanoTime();
+        try {
+            if (api.TessBaseAPIInit2(handle, resolveTessdataPath(), tessLanguage,
+                    ITessAPI.TessOcrEngineMode.OEM_LSTM_ONLY) != 0) {
+                throw new TesseractException("Could not initialise Tesseract for language " + tessLanguage);
+            }
             // 🔑 Improve OCR for structured handwritten/typed text
-            tesseract.setPageSegMode(6); // assume single block of text
-            tesseract.setOcrEngineMode(1); // LSTM only
-            tesseract.setVariable("tessedit_char_whitelist",
-                    "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789:. ");
+            api.TessBaseAPISetPageSegMode(handle, psm);
+            api.TessBaseAPISetVariable(handle, "tessedit_char_whitelist", CHAR_WHITELIST);
+            api.TessBaseAPISetImage(handle, buf, w, h, 1, w);
+            api.TessMonitorSetCancelFunc(monitor, cancel);
+            if (budgetMs < Integer.MAX_VALUE) api.TessMonitorSetDeadlineMSecs(monitor, (int) budgetMs);
+
+            boolean complete = api.TessBaseAPIRecognize(handle, monitor) == 0;
+            if (caller.isInterrupted()) throw new CancellationException();
+            boolean timedOut = !complete && System.nanoTime() - started >= TimeUnit.MILLISECONDS.toNanos(budgetMs);
+            if (!complete && !timedOut) throw new TesseractException("Tesseract recognition failed");
+            return new OcrResult(collectWords(api, handle), timedOut);
+        } finally {
+            api.TessBaseAPIEnd(handle);
+            api.TessBaseAPIDelete(handle);
+            api.TessMonitorDelete(monitor);
+            java.lang.ref.Reference.reachabilityFence(cancel);
+        }
+    }
 
-            String raw = tesseract.doOCR(processed);
-            return raw == null ? "" : raw.trim();
+    // Words of the last recognition (possibly partial); words not reached yet have no text.
+    private static List<OcrWord> collectWords(TessAPI api, ITessAPI.TessBaseAPI handle) {
+        List<OcrWord> out = new ArrayList<>();
+        ITessAPI.TessResultIterator ri = api.TessBaseAPIGetIterator(handle);
+        if (ri == null) return out;
+        int level = ITessAPI.TessPageIteratorLevel.RIL_WORD;
+        IntBuffer left = IntBuffer.allocate(1), top = IntBuffer.allocate(1);
+        IntBuffer right = IntBuffer.allocate(1), bottom = IntBuffer.allocate(1);
+        try {
+            ITessAPI.TessPageIterator pi = api.TessResultIteratorGetPageIterator(ri);
+            do {
+                Pointer p = api.TessResultIteratorGetUTF8Text(ri, level);
+                if (p == null) continue;
+                String t = p.getString(0, "UTF-8").trim();
+                api.TessDeleteText(p);
+                if (t.isEmpty()) continue;
+                float conf = api.TessResultIteratorConfidence(ri, level);
+                api.TessPageIteratorBoundingBox(pi, level, left, top, right, bottom);
+                out.add(new OcrWord(t, conf / 100.0, left.get(0), top.get(0),
+                        right.get(0) - left.get(0), bottom.get(0) - top.get(0)));
+            } while (api.TessResultIteratorNext(ri, level) == ITessAPI.TRUE);
+        } finally {
+            api.TessResultIteratorDelete(ri);
+        }
+        return out;
+    }
+
+    // -------- Multi-strategy OCR --------
+
+    /**
+     * Races OCR variants (binarization x page segmentation mode) over one upscaled grayscale image.
+     * Each candidate is scored by mean Tesseract word confidence and by how much of department /
+     * date / time the pipeline could extract from it. The first candidate reaching accept-score
+     * wins and cancels the others; otherwise the best one is returned once all variants ran,
+     * the request's CPU budget is spent or its deadline passes. Cancelled variants stop inside
+     * Tesseract at its next progress check. With no candidate by the deadline the answer is built
+     * from an empty read and marked degraded.
+     */
+    private ParseResponse runVariants(BufferedImage img, double rotation, ParseOptions options)
+            throws TesseractException {
+        BufferedImage gray = toGrayscale(upscale(img, rotation));
+        List<Variant> variants = parseVariants(multiVariants);
+        CompletionService<Candidate> done = new ExecutorCompletionService<>(variantPool);
+        List<Future<Candidate>> running = new ArrayList<>();
+
+        long budgetNanos = TimeUnit.MILLISECONDS.toNanos(multiCpuBudgetMs);
+        long cpuSpent = 0;
+        int next = 0, pending = 0;
+        Candidate best = null;
+        TesseractException lastError = null;
+        boolean outOfTime = false;
+        try {
+            while (next < variants.size() || pending > 0) {
+                while (pending < Math.max(1, multiMaxParallel) && next < variants.size() && cpuSpent < budgetNanos) {
+                    Variant v = variants.get(next++);
+                    running.add(done.submit(() -> runVariant(gray, v, options)));
+                    pending++;
+                }
+                if (pending == 0) break;
 
+                Candidate c;
+                try {
+                    Future<Candidate> f = options.getDeadline().isNone() ? done.take()
+                            : done.poll(options.getDeadline().remainingNanos(), TimeUnit.NANOSECONDS);
+                    if (f == null) {
+                        outOfTime = true;
+                        break;
+                    }
+                    c = f.get();
+                } catch (ExecutionException ex) {
+                    pending--;
+                    if (ex.getCause() instanceof TesseractException te) lastError = te;
+                    else log.warn("OCR variant failed", ex.getCause());
+                    continue;
+                }
+                pending--;
+                cpuSpent += c.cpuNanos();
+                if (best == null || c.score() > best.score()) best = c;
+                if (c.score() >= multiAcceptScore) break;
+            }
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
         } finally {
-            if (tempFile.exists()) tempFile.delete();
+            running.forEach(f -> f.cancel(true));
+        }
+
+        if (best == null) {
+            if (outOfTime) {
+                ParseResponse resp = pipelineService.parseOcr(new OcrResult(List.of(), true), options);
+                resp.markDegraded("ocr");
+                return resp;
+            }
+            if (lastError != null) throw lastError;
+            throw new TesseractException("No OCR variant produced a result");
+        }
+        log.debug("OCR variant {} won with score {} ({} ms CPU spent)",
+                best.variant().name(), best.score(), TimeUnit.NANOSECONDS.toMillis(cpuSpent));
+        if (outOfTime || best.timedOut()) best.response().markDegraded("ocr");
+        return best.response();
+    }
+
+    private Candidate runVariant(BufferedImage gray, Variant v, ParseOptions options) throws TesseractException {
+        long cpu0 = THREADS.getCurrentThreadCpuTime();
+        BufferedImage input = v.binarization() == null ? gray : binarize(gray, v.binarization());
+        if (Thread.currentThread().isInterrupted()) throw new CancellationException();
+
+        OcrResult ocr = readWords(input, v.psm(), options.getDeadline().budgetMillis(ocrBudgetMs));
+        ParseResponse resp = pipelineService.parseOcr(ocr, options);
+        double score = 0.5 * ocr.getMeanConfidence() + 0.5 * extractionScore(resp.getEntities());
+        return new Candidate(v, resp, score, THREADS.getCurrentThreadCpuTime() - cpu0, ocr.isTimedOut());
+    }
+
+    // Share of department, date and time the pipeline found in the candidate text.
+    private static double extractionScore(ExtractedEntities e) {
+        if (e == null) return 0;
+        int found = 0;
+        if (e.getDepartment() != null) found++;
+        if (e.getDatePhrase() != null) found++;
+        if (e.getTimePhrase() != null) found++;
+        return found / 3.0;
+    }
+
+    private static List<Variant> parseVariants(String spec) {
+        List<Variant> out = new ArrayList<>();
+        for (String part : spec.split(",")) {
+            String p = part.trim();
+            if (p.isEmpty()) continue;
+            String[] kv = p.split(":");
+            Binarizer.Mode mode = kv[0].equalsIgnoreCase("gray") ? null : Binarizer.Mode.parse(kv[0]);
+            out.add(new Variant(p, mode, kv.length > 1 ? Integer.parseInt(kv[1].trim()) : 6));
+        }
+        return out;
+    }
+
+    // -------- Memory accounting --------
+
+    // Dimensions and decoded pixel size from the header only; null when no reader understands it.
+    static ImageHeader readHeader(Object source) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(source)) {
+            if (in == null) return null;
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) return null;
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                ImageTypeSpecifier raw = reader.getRawImageType(0);
+                int bytesPerPixel = raw == null ? 4 : Math.max(1, (raw.getColorModel().getPixelSize() + 7) / 8);
+                return new ImageHeader(reader.getWidth(0), reader.getHeight(0), bytesPerPixel);
+            } finally {
+                reader.dispose();
+            }
         }
     }
 
+    /**
+     * Heap and direct memory one request holds for an image: the decoded image, its 2x RGB upscale
+     * (4 bytes per pixel), the grayscale copy, and for each variant running at once a binary copy
+     * plus the direct buffer handed to Tesseract. Tesseract's own native allocations are not counted.
+     * A deskewed upscale is the bounding box of the rotated image, up to (cos + sin)^2 of max-degrees
+     * larger; the small deskew sample is not counted.
+     * Sauvola and Niblack also build two long[] integral tables over the upscale, 16 bytes per pixel,
+     * for every local-threshold variant that can run at once ("auto" may pick Sauvola).
+     *
+     * @param binarization single-strategy mode; null means ocr.binarization.mode
+     */
+    long workingSetBytes(ImageHeader h, boolean multi, Binarizer.Mode binarization) {
+        long pixels = (long) h.width() * h.height();
+        double r = deskewEnabled ? Math.toRadians(Math.min(45, deskewMaxDegrees)) : 0;
+        long scaled = (long) Math.ceil(pixels * 4 * Math.pow(Math.cos(r) + Math.sin(r), 2));
+        int variants, local;
+        if (multi) {
+            List<Variant> all = parseVariants(multiVariants);
+            int parallel = Math.max(1, Math.min(multiMaxParallel, all.size()));
+            variants = parallel;
+            local = (int) Math.min(parallel, all.stream().filter(v -> isLocal(v.binarization())).count());
+        } else {
+            variants = 1;
+            local = isLocal(binarization != null ? binarization : Binarizer.Mode.parse(defaultBinarization)) ? 1 : 0;
+        }
+        return pixels * h.bytesPerPixel() + scaled * 4 + scaled + variants * 2 * scaled + local * 16 * scaled;
+    }
+
+    // Whether a mode may threshold locally and so allocate the integral tables.
+    private static boolean isLocal(Binarizer.Mode mode) {
+        return mode != null && mode != Binarizer.Mode.OTSU;
+    }
+
+    // Waiting for memory may not outlast the request's own deadline.
+    private static long waitLimitMillis(ParseOptions options) {
+        Deadline d = options.getDeadline();
+        return d.isNone() ? Long.MAX_VALUE : TimeUnit.NANOSECONDS.toMillis(d.remainingNanos());
+    }
+
     // -------- Helper methods for preprocessing --------
 
     private String resolveTessdataPath() {
@@ -92,6 +483,40 @@ public class OcrServiceImpl {
         return "/opt/homebrew/share/tessdata"; // fallback for Mac Homebrew
     }
 
+    /**
+     * Clockwise rotation that levels and uprights the text, or 0 to leave the image as is.
+     * Tilts under min-degrees are dropped, keeping any quarter turn.
+     */
+    private double deskewDegrees(BufferedImage img) {
+        if (!deskewEnabled) return 0;
+        Deskew.Estimate e = Deskew.estimate(img, deskewSampleSide, deskewMaxDegrees);
+        double quarter = Math.round(e.degrees() / 90) * 90.0;
+        double rotation = Math.abs(e.degrees() - quarter) < deskewMinDegrees ? quarter : e.degrees();
+        if (rotation != 0) log.debug("Deskew: rotating {} degrees (profile gain {})", rotation, e.gain());
+        return rotation;
+    }
+
+    // The 2x upscale, rotated clockwise by degrees in the same draw so the image is resampled once.
+    private BufferedImage upscale(BufferedImage src, double degrees) {
+        int w = src.getWidth() * 2, h = src.getHeight() * 2;
+        if (degrees == 0) return resize(src, w, h);
+
+        double r = Math.toRadians(degrees);
+        double sin = Math.abs(Math.sin(r)), cos = Math.abs(Math.cos(r));
+        int nw = (int) Math.round(w * cos + h * sin), nh = (int) Math.round(w * sin + h * cos);
+        BufferedImage out = new BufferedImage(nw, nh, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = out.createGraphics();
+        g2d.setColor(Color.WHITE);
+        g2d.fillRect(0, 0, nw, nh);
+        g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+        g2d.translate(nw / 2.0, nh / 2.0);
+        g2d.rotate(r);
+        g2d.translate(-w / 2.0, -h / 2.0);
+        g2d.drawImage(src, 0, 0, w, h, null);
+        g2d.dispose();
+        return out;
+    }
+
     private BufferedImage resize(BufferedImage src, int newW, int newH) {
         Image tmp = src.getScaledInstance(newW, newH, Image.SCALE_SMOOTH);
         BufferedImage resized = new BufferedImage(newW, newH, BufferedImage.TYPE_INT_RGB);
@@ -111,48 +536,14 @@ public class OcrServiceImpl {
         return gray;
     }
 
-    private BufferedImage otsuThreshold(BufferedImage gray) {
+    private BufferedImage binarize(BufferedImage gray, Binarizer.Mode mode) {
         int w = gray.getWidth();
         int h = gray.getHeight();
-        Raster raster = gray.getData();
-        int[] hist = new int[256];
-        for (int y = 0; y < h; y++) {
-            for (int x = 0; x < w; x++) {
-                hist[raster.getSample(x, y, 0)]++;
-            }
-        }
-
-        int total = w * h;
-        float sum = 0;
-        for (int i = 0; i < 256; i++) sum += i * hist[i];
-
-        float sumB = 0;
-        int wB = 0, wF;
-        float varMax = 0;
-        int threshold = 0;
-
-        for (int t = 0; t < 256; t++) {
-            wB += hist[t];
-            if (wB == 0) continue;
-            wF = total - wB;
-            if (wF == 0) break;
-            sumB += (float) (t * hist[t]);
-            float mB = sumB / wB;
-            float mF = (sum - sumB) / wF;
-            float varBetween = (float) wB * wF * (mB - mF) * (mB - mF);
-            if (varBetween > varMax) {
-                varMax = varBetween;
-                threshold = t;
-            }
-        }
-
-        BufferedImage binary = new BufferedImage(w, h, BufferedImage.TYPE_BYTE_BINARY);
-        WritableRaster wr = binary.getRaster();
-        for (int y = 0; y < h; y++) {
-            for (int x = 0; x < w; x++) {
-                wr.setSample(x, y, 0, raster.getSample(x, y, 0) > threshold ? 255 : 0);
-            }
-        }
+        // toGrayscale creates the image, so its raster is one packed w * h byte array.
+        byte[] pixels = ((DataBufferByte) gray.getRaster().getDataBuffer()).getData();
+        BufferedImage binary = new BufferedImage(w, h, BufferedImage.TYPE_BYTE_GRAY);
+        byte[] out = ((DataBufferByte) binary.getRaster().getDataBuffer()).getData();
+        Binarizer.binarize(pixels, out, w, h, mode, binarizationWindow, binarizationK, bimodalAbove);
         return binary;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,115 @@
+package com.healthcare.ai_appointmentscheduler.service;
+
+import com.healthcare.ai_appointmentscheduler.dto.ParseOptions;
+import com.healthcare.ai_appointmentscheduler.dto.ParseResponse;
+import com.healthcare.ai_appointmentscheduler.entity.ExtractedEntities;
+import com.healthcare.ai_appointmentscheduler.entity.NormalizedEntity;
+import com.healthcare.ai_appointmentscheduler.entity.OcrResult;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Values flowing through one run of the {@link StageGraph}, addressed by typed {@link Key}s.
+ *
+ * Every key is written by exactly one stage (or by the caller, for the inputs), and stages of the
+ * same wave write different keys, so concurrent stages never contend on a value. Absent and null
+ * are the same thing to readers.
+ */
+public final class ParseContext {
+
+    /** A named, typed slot. Identity is the name. */
+    public record Key<T>(String name) {
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    // -------- Inputs (set by the caller) --------
+    public static final Key<String> TEXT = new Key<>("text");
+    public static final Key<OcrResult> OCR = new Key<>("ocr");
+    public static final Key<ParseOptions> OPTIONS = new Key<>("options");
+    public static final Key<ParseResponse> PREVIOUS = new Key<>("previous");
+    public static final List<Key<?>> INPUTS = List.of(TEXT, OCR, OPTIONS, PREVIOUS);
+
+    // -------- Stage outputs --------
+    public static final Key<String> CLEAN = new Key<>("clean");
+    public static final Key<String> EXTRACT_INPUT = new Key<>("extract_input");
+    static final Key<EntityExtractorImpl.DeptMatchResult> DEPARTMENT = new Key<>("department");
+    public static final Key<DoctorDirectoryService.DoctorMatch> DOCTOR = new Key<>("doctor");
+    public static final Key<String> DATE_PHRASE = new Key<>("date_phrase");
+    public static final Key<String> TIME_PHRASE = new Key<>("time_phrase");
+    public static final Key<ExtractedEntities> ENTITIES = new Key<>("entities");
+    public static final Key<NormalizedEntity> NORMALIZED = new Key<>("normalized");
+    public static final Key<Double> ENTITY_CONFIDENCE = new Key<>("entity_confidence");
+    public static final Key<Double> NORMALIZATION_CONFIDENCE = new Key<>("normalization_confidence");
+    public static final Key<ParseResponse> RESPONSE = new Key<>("response");
+
+    private static final Object NULL = new Object();
+
+    private final ConcurrentHashMap<Key<?>, Object> values = new ConcurrentHashMap<>();
+    private final Map<String, Long> timings = Collections.synchronizedMap(new LinkedHashMap<>());
+    private final List<String> degraded = Collections.synchronizedList(new ArrayList<>(2));
+    private final List<String> skipped = Collections.synchronizedList(new ArrayList<>(2));
+    private volatile String decidedBy;
+
+    public <T> ParseContext put(Key<T> key, T value) {
+        values.put(key, value == null ? NULL : value);
+        return this;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(Key<T> key) {
+        Object v = values.get(key);
+        return v == null || v == NULL ? null : (T) v;
+    }
+
+    // -------- Outcome --------
+
+    /**
+     * Records that the outcome (needs_clarification) is settled whatever later stages produce;
+     * the graph then skips stages marked {@link PipelineStage#skipWhenDecided()}.
+     */
+    public void decide(String reason) {
+        if (decidedBy == null) decidedBy = reason;
+    }
+
+    public boolean isDecided() {
+        return decidedBy != null;
+    }
+
+    public String decidedBy() {
+        return decidedBy;
+    }
+
+    public void markDegraded(String stage) {
+        if (!degraded.contains(stage)) degraded.add(stage);
+    }
+
+    public List<String> degraded() {
+        return degraded;
+    }
+
+    void markSkipped(String stage) {
+        skipped.add(stage);
+    }
+
+    /** Stages the graph did not run because the outcome was already decided. */
+    public List<String> skipped() {
+        return skipped;
+    }
+
+    void addTiming(String group, long nanos) {
+        timings.merge(group, nanos, Long::sum);
+    }
+
+    /** Nanoseconds per timing group, in the order groups first ran. */
+    public Map<String, Long> timings() {
+        return timings;
+    }
+}
@@ -0,0 +1,162 @@
+package com.healthcare.ai_appointmentscheduler.service;
+
+import com.healthcare.ai_appointmentscheduler.dto.ParseOptions;
+import com.healthcare.ai_appointmentscheduler.dto.ParseResponse;
+import com.healthcare.ai_appointmentscheduler.dto.ParsedAppointment;
+import com.healthcare.ai_appointmentscheduler.entity.BookingEntity;
+import com.healthcare.ai_appointmentscheduler.util.Deadline;
+import net.sourceforge.tess4j.TesseractException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Transport-independent parse flow shared by the REST controller and the gRPC service:
+ * run the pipeline (text or OCR), optionally book, and decide the resulting status.
+ * Every run, including failures, is handed to the {@link AuditLogService} on the way out, and
+ * every guardrail outcome is counted by the {@link DemandAnalyticsService}. An ambiguous answer
+ * opens a clarification session so the client can follow up with just the missing details.
+ */
+@Service
+public class ParseWorkflowService {
+
+    /** Pipeline output plus the HTTP status the REST endpoint answers with. */
+    public record Result(HttpStatus status, ParseResponse response) {}
+
+    private final PipelineService pipelineService;
+    private final OcrServiceImpl ocrService;
+    private final SlotCalendarService slotCalendar;
+    private final AuditLogService audit;
+    private final DemandAnalyticsService analytics;
+    private final ClarificationSessionService sessions;
+    private final long textDeadlineMs;
+    private final long imageDeadlineMs;
+
+    public ParseWorkflowService(PipelineService pipelineService, @Lazy OcrServiceImpl ocrService,
+                                SlotCalendarService slotCalendar, AuditLogService audit,
+                                DemandAnalyticsService analytics, ClarificationSessionService sessions,
+                                @Value("${deadline.text-ms:1000}") long textDeadlineMs,
+                                @Value("${deadline.image-ms:10000}") long imageDeadlineMs) {
+        this.pipelineService = pipelineService;
+        this.ocrService = ocrService;
+        this.slotCalendar = slotCalendar;
+        this.audit = audit;
+        this.analytics = analytics;
+        this.sessions = sessions;
+        this.textDeadlineMs = textDeadlineMs;
+        this.imageDeadlineMs = imageDeadlineMs;
+    }
+
+    public Result parseText(String text, boolean book, ParseOptions options) {
+        long started = System.nanoTime();
+        options = withDeadline(options, textDeadlineMs);
+        try {
+            Result result = finish(pipelineService.parseText(text, options), book, options);
+            clarify(result.response(), options, 1);
+            audit.text(text, result.status().value(), result.response(), started, null);
+            return result;
+        } catch (RuntimeException ex) {
+            audit.text(text, HttpStatus.INTERNAL_SERVER_ERROR.value(), null, started, String.valueOf(ex.getMessage()));
+            throw ex;
+        }
+    }
+
+    public Result parseImage(byte[] imageBytes, boolean book, ParseOptions options)
+            throws IOException, TesseractException {
+        long started = System.nanoTime();
+        options = withDeadline(options, imageDeadlineMs);
+        try {
+            Result result = finish(ocrService.parseImageAndRunPipeline(imageBytes, options), book, options);
+            clarify(result.response(), options, 1);
+            audit.image(imageBytes, result.status().value(), result.response(), started, null);
+            return result;
+        } catch (ImageMemoryBudget.Rejected ex) {
+            HttpStatus status = ex.isTooLarge() ? HttpStatus.PAYLOAD_TOO_LARGE : HttpStatus.SERVICE_UNAVAILABLE;
+            audit.image(imageBytes, status.value(), null, started, ex.getMessage());
+            throw ex;
+        } catch (IOException | TesseractException | RuntimeException ex) {
+            audit.image(imageBytes, HttpStatus.INTERNAL_SERVER_ERROR.value(), null, started, String.valueOf(ex.getMessage()));
+            throw ex;
+        }
+    }
+
+    /**
+     * Completes an earlier needs_clarification response with follow-up text; no OCR runs again.
+     * Relative dates keep resolving against the first turn's zone and "now" unless the
+     * follow-up passes its own. The session is used up only when the follow-up completes; one
+     * that throws leaves it in place for a retry.
+     * @throws NoSuchElementException when the session token is unknown, used or expired
+     */
+    public Result parseFollowUp(String sessionToken, String text, boolean book, ParseOptions options) {
+        ClarificationSessionService.Session session = sessions.take(sessionToken);
+        if (session == null) throw new NoSuchElementException("Unknown or expired session_token");
+
+        long started = System.nanoTime();
+        if (options.getZone() == null && options.getReferenceTime() == null) options = session.options();
+        options = withDeadline(options, textDeadlineMs);
+        try {
+            Result result = finish(pipelineService.parseFollowUp(text, session.previous(), options), book, options);
+            clarify(result.response(), options, session.turn() + 1);
+            audit.text(text, result.status().value(), result.response(), started, null);
+            return result;
+        } catch (RuntimeException ex) {
+            sessions.restore(sessionToken, session);
+            audit.text(text, HttpStatus.INTERNAL_SERVER_ERROR.value(), null, started, String.valueOf(ex.getMessage()));
+            throw ex;
+        }
+    }
+
+    /**
+     * Optionally books every parsed appointment and maps the outcome to a status.
+     *  - 422 when any clause could not form a complete appointment; nothing is booked then
+     *  - with booking, each clause is booked in turn and carries its own booking (and, on a
+     *    conflict, suggestions starting at the request's "now" ({@code options})); the answer is
+     *    422 when any clause cannot be booked, else 409 when any slot is already taken
+     *  - the top-level booking and suggestions describe the first clause, like the other top-level fields
+     */
+    public Result finish(ParseResponse resp, boolean book, ParseOptions options) {
+        List<ParsedAppointment> clauses = resp.getAppointments() == null || resp.getAppointments().isEmpty()
+                ? List.of(ParsedAppointment.from(resp)) : resp.getAppointments();
+
+        // Counted here rather than in the guardrail itself, so warm-up runs and the
+        // candidate reads of a multi-variant OCR race do not show up as demand.
+        clauses.forEach(analytics::record);
+
+        // If any clause could not form a complete appointment, return a 422 status.
+        for (ParsedAppointment a : clauses) {
+            if ("needs_clarification".equals(a.getStatus())) return new Result(HttpStatus.UNPROCESSABLE_ENTITY, resp);
+        }
+        if (!book) return new Result(HttpStatus.OK, resp);
+
+        HttpStatus status = HttpStatus.OK;
+        for (ParsedAppointment a : clauses) {
+            BookingEntity booking = slotCalendar.book(a.getAppointment());
+            a.setBooking(booking);
+            if ("conflict".equals(booking.getStatus())) {
+                a.setSuggestions(slotCalendar.suggestAround(a.getAppointment(), options));
+                if (status == HttpStatus.OK) status = HttpStatus.CONFLICT;
+            } else if (!"booked".equals(booking.getStatus())) {
+                status = HttpStatus.UNPROCESSABLE_ENTITY;
+            }
+        }
+
+        ParsedAppointment first = clauses.get(0);
+        resp.setBooking(first.getBooking());
+        if ("conflict".equals(first.getBooking().getStatus())) resp.setSuggestions(first.getSuggestions());
+        return new Result(status, resp);
+    }
+
+    private void clarify(ParseResponse resp, ParseOptions options, int turn) {
+        if ("needs_clarification".equals(resp.getStatus())) resp.setSessionToken(sessions.open(resp, options, turn));
+    }
+
+    // The request's clock starts when its work starts, not when it was queued for admission.
+    private static ParseOptions withDeadline(ParseOptions options, long millis) {
+        return options.getDeadline().isNone() ? options.withDeadline(Deadline.after(millis)) : options;
+    }
+}
@@ -1,7 +1,20 @@
 package com.healthcare.ai_appointmentscheduler.service;
 
+import com.healthcare.ai_appointmentscheduler.dto.ParseOptions;
 import com.healthcare.ai_appointmentscheduler.dto.ParseResponse;
+import com.healthcare.ai_appointmentscheduler.entity.OcrResult;
 
 public interface PipelineService {
     ParseResponse parseText(String text);
+
+    ParseResponse parseText(String text, ParseOptions options);
+
+    /** Parses an OCR read; word confidences feed the scorer and guardrail. */
+    ParseResponse parseOcr(OcrResult ocr, ParseOptions options);
+
+    /**
+     * Parses a clarification follow-up ("3pm please") on top of an earlier ambiguous response:
+     * whatever the follow-up names replaces the earlier value, the rest is carried over.
+     */
+    ParseResponse parseFollowUp(String text, ParseResponse previous, ParseOptions options);
 }
\ No newline at end of file
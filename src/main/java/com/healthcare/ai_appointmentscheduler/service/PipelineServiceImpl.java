@@ -1,42 +1,127 @@
 package com.healthcare.ai_appointmentscheduler.service;
 
+import com.healthcare.ai_appointmentscheduler.dto.ParseOptions;
 import com.healthcare.ai_appointmentscheduler.dto.ParseResponse;
-import com.healthcare.ai_appointmentscheduler.entity.ExtractedEntities;
-import com.healthcare.ai_appointmentscheduler.entity.NormalizedEntity;
+import com.healthcare.ai_appointmentscheduler.dto.ParsedAppointment;
+import com.healthcare.ai_appointmentscheduler.entity.OcrResult;
+import jakarta.annotation.PreDestroy;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Entry points of the parse pipeline. The stages themselves, and the order and concurrency they
+ * run with, live in {@link PipelineStages} and {@link StageGraph}.
+ *
+ * The segment step runs first: a message asking for several appointments is split into clauses by
+ * {@link AppointmentSegmenter} and the stage graph runs once per clause, the first on the calling
+ * thread and the others alongside it on virtual threads. Follow-ups answer one clarification and
+ * are never split.
+ */
 @Service
 public class PipelineServiceImpl implements PipelineService {
 
-    private final TextPreprocessorImpl preprocessor;
-    private final EntityExtractorImpl extractor;
-    private final NattyNormalizer normalizer;
-    private final SimpleConfidenceScorer scorer;
-    private final DefaultGuardrailService guardrail;
+    private final StageGraph graph;
+    private final AppointmentSegmenter segmenter;
+    private final ExecutorService clauses = Executors.newVirtualThreadPerTaskExecutor();
+
+    public PipelineServiceImpl(StageGraph graph, AppointmentSegmenter segmenter) {
+        this.graph = graph;
+        this.segmenter = segmenter;
+    }
 
-    public PipelineServiceImpl(TextPreprocessorImpl preprocessor,
-                               EntityExtractorImpl extractor,
-                               NattyNormalizer normalizer,
-                               SimpleConfidenceScorer scorer,
-                               DefaultGuardrailService guardrail) {
-        this.preprocessor = preprocessor;
-        this.extractor = extractor;
-        this.normalizer = normalizer;
-        this.scorer = scorer;
-        this.guardrail = guardrail;
+    @PreDestroy
+    public void shutdown() {
+        clauses.shutdownNow();
     }
 
     @Override
     public ParseResponse parseText(String text) {
-        String clean = preprocessor.preprocess(text);
-        ExtractedEntities extracted = extractor.extract(clean);
-        NormalizedEntity normalized = normalizer.normalize(clean, extracted);
+        return parseText(text, ParseOptions.defaults());
+    }
+
+    @Override
+    public ParseResponse parseText(String text, ParseOptions options) {
+        return run(text, null, options, null);
+    }
+
+    @Override
+    public ParseResponse parseOcr(OcrResult ocr, ParseOptions options) {
+        return run(ocr.getText(), ocr, options, null);
+    }
 
-        // --- FIX APPLIED HERE ---
-        // Pass the 'clean' text to the scorer so it can analyze the text quality.
-        double entityConf = scorer.scoreEntities(extracted, clean);
-        double normConf = scorer.scoreNormalization(normalized, clean);
+    @Override
+    public ParseResponse parseFollowUp(String text, ParseResponse previous, ParseOptions options) {
+        return run(text, previous.getOcr(), options, previous);
+    }
+
+    private ParseResponse run(String text, OcrResult ocr, ParseOptions options, ParseResponse previous) {
+        long t0 = System.nanoTime();
+        List<String> parts = previous == null ? segmenter.split(text) : List.of(text);
+        long t1 = System.nanoTime();
+
+        ParseResponse resp;
+        List<ParsedAppointment> appointments = new ArrayList<>(parts.size());
+        if (parts.size() == 1) {
+            resp = runGraph(text, ocr, options, previous);
+            appointments.add(ParsedAppointment.from(resp));
+        } else {
+            List<Future<ParseResponse>> rest = new ArrayList<>(parts.size() - 1);
+            for (String part : parts.subList(1, parts.size())) {
+                rest.add(clauses.submit(() -> runGraph(part, ocr, options, null)));
+            }
+            resp = runGraph(parts.get(0), ocr, options, null);
+            appointments.add(ParsedAppointment.from(resp));
+            for (Future<ParseResponse> f : rest) {
+                ParseResponse r = join(f);
+                appointments.add(ParsedAppointment.from(r));
+                if (r.getDegradedStages() != null) r.getDegradedStages().forEach(resp::markDegraded);
+            }
+            resp.setRawText(text);
+            resp.recordTiming("clauses", System.nanoTime() - t1);
+        }
+        resp.setAppointments(appointments);
+
+        // The segment step ran first, so it leads the timings.
+        Map<String, Double> timings = new LinkedHashMap<>();
+        timings.put("segment", (t1 - t0) / 1_000_000.0);
+        timings.putAll(resp.getTimings());
+        resp.setTimings(timings);
+        return resp;
+    }
+
+    private ParseResponse runGraph(String text, OcrResult ocr, ParseOptions options, ParseResponse previous) {
+        ParseContext ctx = new ParseContext()
+                .put(ParseContext.TEXT, text)
+                .put(ParseContext.OCR, ocr)
+                .put(ParseContext.OPTIONS, options)
+                .put(ParseContext.PREVIOUS, previous);
+        graph.run(ctx);
+
+        ParseResponse resp = ctx.get(ParseContext.RESPONSE);
+        resp.setOcr(ocr);
+        ctx.degraded().forEach(resp::markDegraded);
+        ctx.timings().forEach(resp::recordTiming);
+        return resp;
+    }
 
-        return guardrail.buildResponse(text, extracted, normalized, entityConf, normConf);
+    private static ParseResponse join(Future<ParseResponse> f) {
+        try {
+            return f.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while parsing an appointment clause", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            if (e.getCause() instanceof Error err) throw err;
+            throw new IllegalStateException(e.getCause());
+        }
     }
 }
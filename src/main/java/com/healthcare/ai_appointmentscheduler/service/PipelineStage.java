@@ -0,0 +1,108 @@
+package com.healthcare.ai_appointmentscheduler.service;
+
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * One step of the parse pipeline. Every Spring bean of this type is wired into the
+ * {@link StageGraph} by what it reads and writes, so adding an extractor means adding a bean,
+ * not editing the orchestrator.
+ */
+public interface PipelineStage {
+
+    String name();
+
+    /** Context keys this stage reads; it runs once all of them are written. */
+    Set<ParseContext.Key<?>> reads();
+
+    /** Context keys this stage writes; each key has exactly one writer. */
+    Set<ParseContext.Key<?>> writes();
+
+    void run(ParseContext ctx);
+
+    /** Timing bucket in the response's timings_ms; stages of one bucket add up. */
+    default String timing() {
+        return name();
+    }
+
+    /** Worth running on another thread next to its siblings when the input is long. */
+    default boolean parallel() {
+        return false;
+    }
+
+    /** Output cannot change a decided outcome, so the stage is skipped once one is. */
+    default boolean skipWhenDecided() {
+        return false;
+    }
+
+    /** Runs instead of {@link #run} when the stage is skipped; must stay cheap. */
+    default void fallback(ParseContext ctx) {
+    }
+
+    // -------- Factory --------
+
+    /** A stage from its parts; for stages that need no state of their own. */
+    static Builder named(String name) {
+        return new Builder(name);
+    }
+
+    final class Builder {
+        private final String name;
+        private String timing;
+        private Set<ParseContext.Key<?>> reads = Set.of();
+        private Set<ParseContext.Key<?>> writes = Set.of();
+        private boolean parallel;
+        private boolean skipWhenDecided;
+        private Consumer<ParseContext> fallback = ctx -> {};
+
+        private Builder(String name) {
+            this.name = name;
+            this.timing = name;
+        }
+
+        public Builder reads(ParseContext.Key<?>... keys) {
+            this.reads = Set.copyOf(List.of(keys));
+            return this;
+        }
+
+        public Builder writes(ParseContext.Key<?>... keys) {
+            this.writes = Set.copyOf(List.of(keys));
+            return this;
+        }
+
+        public Builder timing(String timing) {
+            this.timing = timing;
+            return this;
+        }
+
+        public Builder parallel() {
+            this.parallel = true;
+            return this;
+        }
+
+        public Builder skipWhenDecided(Consumer<ParseContext> fallback) {
+            this.skipWhenDecided = true;
+            this.fallback = fallback;
+            return this;
+        }
+
+        public PipelineStage run(Consumer<ParseContext> body) {
+            String n = name, t = timing;
+            Set<ParseContext.Key<?>> r = reads, w = writes;
+            boolean p = parallel, s = skipWhenDecided;
+            Consumer<ParseContext> f = fallback;
+            return new PipelineStage() {
+                @Override public String name() { return n; }
+                @Override public Set<ParseContext.Key<?>> reads() { return r; }
+                @Override public Set<ParseContext.Key<?>> writes() { return w; }
+                @Override public void run(ParseContext ctx) { body.accept(ctx); }
+                @Override public String timing() { return t; }
+                @Override public boolean parallel() { return p; }
+                @Override public boolean skipWhenDecided() { return s; }
+                @Override public void fallback(ParseContext ctx) { f.accept(ctx); }
+                @Override public String toString() { return n; }
+            };
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.healthcare.ai_appointmentscheduler.service;
+
+import com.healthcare.ai_appointmentscheduler.dto.ParseOptions;
+import com.healthcare.ai_appointmentscheduler.dto.ParseResponse;
+import com.healthcare.ai_appointmentscheduler.entity.ExtractedEntities;
+import com.healthcare.ai_appointmentscheduler.entity.OcrResult;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+
+import static com.healthcare.ai_appointmentscheduler.service.ParseContext.*;
+
+/**
+ * The built-in parse stages. Order only breaks ties inside a wave; dependencies come from the
+ * keys each stage reads and writes (see {@link StageGraph}).
+ *
+ * <pre>
+ *   preprocess -> spell -> department | doctor | date | time -> entities -> normalize -> score -> guardrail
+ * </pre>
+ * The entities stage decides the outcome when no department was found: the response will be
+ * needs_clarification, so normalize skips Natty and keeps only its cheap deterministic rules
+ * (the date and time still inform the clarification message and the follow-up).
+ */
+@Configuration
+public class PipelineStages {
+
+    @Bean
+    @Order(0)
+    PipelineStage preprocessStage(TextPreprocessorImpl preprocessor) {
+        return PipelineStage.named("preprocess").reads(TEXT).writes(CLEAN)
+                .run(ctx -> ctx.put(CLEAN, preprocessor.preprocess(ctx.get(TEXT))));
+    }
+
+    @Bean
+    @Order(5)
+    PipelineStage spellStage(EntityExtractorImpl extractor) {
+        // Extractor input: punctuation stripped and misspelled words corrected (SpellingCorrector).
+        return PipelineStage.named("spell").reads(CLEAN).writes(EXTRACT_INPUT)
+                .run(ctx -> ctx.put(EXTRACT_INPUT, extractor.clean(ctx.get(CLEAN))));
+    }
+
+    @Bean
+    @Order(10)
+    PipelineStage departmentStage(EntityExtractorImpl extractor) {
+        return PipelineStage.named("department").timing("extract").parallel()
+                .reads(EXTRACT_INPUT).writes(DEPARTMENT)
+                .run(ctx -> ctx.put(DEPARTMENT, extractor.department(ctx.get(EXTRACT_INPUT))));
+    }
+
+    @Bean
+    @Order(11)
+    PipelineStage doctorStage(EntityExtractorImpl extractor) {
+        return PipelineStage.named("doctor").timing("extract").parallel()
+                .reads(EXTRACT_INPUT).writes(DOCTOR)
+                .run(ctx -> ctx.put(DOCTOR, extractor.doctor(ctx.get(EXTRACT_INPUT))));
+    }
+
+    @Bean
+    @Order(12)
+    PipelineStage dateStage(EntityExtractorImpl extractor) {
+        return PipelineStage.named("date").timing("extract").parallel()
+                .reads(EXTRACT_INPUT).writes(DATE_PHRASE)
+                .run(ctx -> ctx.put(DATE_PHRASE, extractor.datePhrase(ctx.get(EXTRACT_INPUT))));
+    }
+
+    @Bean
+    @Order(13)
+    PipelineStage timeStage(EntityExtractorImpl extractor) {
+        // One regex over the text: never worth a thread hop.
+        return PipelineStage.named("time").timing("extract")
+                .reads(EXTRACT_INPUT).writes(TIME_PHRASE)
+                .run(ctx -> ctx.put(TIME_PHRASE, extractor.timePhrase(ctx.get(EXTRACT_INPUT))));
+    }
+
+    @Bean
+    @Order(20)
+    PipelineStage entitiesStage(EntityExtractorImpl extractor) {
+        return PipelineStage.named("entities").timing("extract")
+                .reads(DEPARTMENT, DOCTOR, DATE_PHRASE, TIME_PHRASE, PREVIOUS).writes(ENTITIES)
+                .run(ctx -> {
+                    ExtractedEntities e = extractor.assemble(ctx.get(DEPARTMENT), ctx.get(DOCTOR),
+                            ctx.get(TIME_PHRASE), ctx.get(DATE_PHRASE));
+                    ParseResponse previous = ctx.get(PREVIOUS);
+                    if (previous != null) e = merge(previous.getEntities(), e);
+                    ctx.put(ENTITIES, e);
+                    if (e.getDepartment() == null) ctx.decide("department");
+                });
+    }
+
+    @Bean
+    @Order(30)
+    PipelineStage normalizeStage(NattyNormalizer normalizer) {
+        return PipelineStage.named("normalize")
+                .reads(CLEAN, ENTITIES, OPTIONS).writes(NORMALIZED)
+                .skipWhenDecided(ctx -> ctx.put(NORMALIZED,
+                        normalizer.normalizeHeuristic(ctx.get(CLEAN), ctx.get(ENTITIES), options(ctx))))
+                .run(ctx -> {
+                    NattyNormalizer.Outcome outcome = normalizer.normalizeWithin(ctx.get(CLEAN), ctx.get(ENTITIES), options(ctx));
+                    ctx.put(NORMALIZED, outcome.normalized());
+                    if (outcome.degraded()) ctx.markDegraded("normalize");
+                });
+    }
+
+    @Bean
+    @Order(40)
+    PipelineStage scoreStage(SimpleConfidenceScorer scorer) {
+        return PipelineStage.named("score")
+                .reads(CLEAN, ENTITIES, NORMALIZED, OCR).writes(ENTITY_CONFIDENCE, NORMALIZATION_CONFIDENCE)
+                .run(ctx -> {
+                    String clean = ctx.get(CLEAN);
+                    ctx.put(ENTITY_CONFIDENCE, scorer.scoreEntities(ctx.get(ENTITIES), clean, ctx.get(OCR)));
+                    ctx.put(NORMALIZATION_CONFIDENCE, scorer.scoreNormalization(ctx.get(NORMALIZED), clean));
+                });
+    }
+
+    @Bean
+    @Order(50)
+    PipelineStage guardrailStage(DefaultGuardrailService guardrail) {
+        return PipelineStage.named("guardrail")
+                .reads(TEXT, PREVIOUS, ENTITIES, NORMALIZED, ENTITY_CONFIDENCE, NORMALIZATION_CONFIDENCE, OCR, OPTIONS)
+                .writes(RESPONSE)
+                .run(ctx -> {
+                    String text = ctx.get(TEXT);
+                    ParseResponse previous = ctx.get(PREVIOUS);
+                    if (previous != null) text = previous.getRawText() + "\n" + text;
+                    OcrResult ocr = ctx.get(OCR);
+                    ctx.put(RESPONSE, guardrail.buildResponse(text, ctx.get(ENTITIES), ctx.get(NORMALIZED),
+                            ctx.get(ENTITY_CONFIDENCE), ctx.get(NORMALIZATION_CONFIDENCE), ocr, options(ctx)));
+                });
+    }
+
+    // -------- Helpers --------
+
+    private static ParseOptions options(ParseContext ctx) {
+        ParseOptions o = ctx.get(OPTIONS);
+        return o == null ? ParseOptions.defaults() : o;
+    }
+
+    // Follow-up values win; anything the follow-up does not mention comes from the earlier turn.
+    static ExtractedEntities merge(ExtractedEntities earlier, ExtractedEntities followUp) {
+        if (earlier == null) return followUp;
+        ExtractedEntities m = new ExtractedEntities();
+        boolean newDept = followUp.getDepartment() != null;
+        m.setDepartment(newDept ? followUp.getDepartment() : earlier.getDepartment());
+        m.setDepartmentConfidence(newDept ? followUp.getDepartmentConfidence() : earlier.getDepartmentConfidence());
+        boolean newDoctor = followUp.getDoctor() != null;
+        m.setDoctor(newDoctor ? followUp.getDoctor() : earlier.getDoctor());
+        m.setDoctorConfidence(newDoctor ? followUp.getDoctorConfidence() : earlier.getDoctorConfidence());
+        m.setDatePhrase(followUp.getDatePhrase() != null ? followUp.getDatePhrase() : earlier.getDatePhrase());
+        m.setTimePhrase(followUp.getTimePhrase() != null ? followUp.getTimePhrase() : earlier.getTimePhrase());
+        return m;
+    }
+}
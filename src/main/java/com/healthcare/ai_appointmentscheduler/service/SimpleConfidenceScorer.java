@@ -2,6 +2,7 @@ package com.healthcare.ai_appointmentscheduler.service;
 
 import com.healthcare.ai_appointmentscheduler.entity.ExtractedEntities;
 import com.healthcare.ai_appointmentscheduler.entity.NormalizedEntity;
+import com.healthcare.ai_appointmentscheduler.entity.OcrResult;
 import org.springframework.stereotype.Service;
 
 /**
@@ -15,7 +16,23 @@ public class SimpleConfidenceScorer {
      * The score is based on which entities were found and the overall quality of the raw text.
      */
     public double scoreEntities(ExtractedEntities e, String rawText) {
+        return scoreEntities(e, rawText, null);
+    }
+
+    /**
+     * Scores the entity extraction step of an OCR read.
+     * Each entity's weight is scaled by Tesseract's confidence in the words it was read from,
+     * instead of estimating quality from the character mix of the whole text.
+     */
+    public double scoreEntities(ExtractedEntities e, String rawText, OcrResult ocr) {
         if (e == null) return 0.0;
+        if (ocr != null && !ocr.getWords().isEmpty()) {
+            double conf = 0.0;
+            if (e.getDepartment() != null) conf += 0.5 * wordConfidence(ocr, e.getDepartment());
+            if (e.getDatePhrase() != null) conf += 0.3 * wordConfidence(ocr, e.getDatePhrase());
+            if (e.getTimePhrase() != null) conf += 0.2 * wordConfidence(ocr, e.getTimePhrase());
+            return Math.min(1.0, conf);
+        }
 
         // Base score is weighted based on the presence of key entities.
         double conf = 0.0;
@@ -46,6 +63,15 @@ public class SimpleConfidenceScorer {
         return Math.min(1.0, conf);
     }
 
+    /**
+     * Confidence of the words an entity came from; the page mean when they cannot be located
+     * (e.g. a department inferred from a doctor's name).
+     */
+    static double wordConfidence(OcrResult ocr, String phrase) {
+        double c = ocr.confidenceOf(phrase);
+        return c < 0 ? ocr.getMeanConfidence() : c;
+    }
+
     /**
      * Helper to compute a text quality score (0.0 for gibberish, 1.0 for clean text).
      * Based on the ratio of letters and numbers to all characters.
@@ -0,0 +1,317 @@
+package com.healthcare.ai_appointmentscheduler.service;
+
+import com.healthcare.ai_appointmentscheduler.config.DepartmentConfig;
+import com.healthcare.ai_appointmentscheduler.dto.ParseOptions;
+import com.healthcare.ai_appointmentscheduler.entity.AppointmentEntity;
+import com.healthcare.ai_appointmentscheduler.entity.BookingEntity;
+import com.healthcare.ai_appointmentscheduler.util.SlotBitmap;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory slot calendar.
+ *
+ * Responsibilities:
+ *  - Hold occupancy per (department, day) as a {@link SlotBitmap} over the opening-hours slot grid.
+ *  - Atomically check-and-book a slot for an assembled {@link AppointmentEntity}.
+ *  - Suggest the nearest free slots around a requested date/time, never one that has already
+ *    started in the request's zone at the request's "now".
+ *
+ * There is no global lock: days are created through {@link ConcurrentHashMap#computeIfAbsent}
+ * and a booking is a single CAS on the word that holds the slot bit.
+ * Successful bookings are appended to the {@link BookingJournal}, which restores them on startup.
+ */
+@Service
+public class SlotCalendarService {
+
+    private static final DateTimeFormatter TIME_FMT = DateTimeFormatter.ofPattern("HH:mm");
+
+    private final int slotMinutes;
+    private final int dayStartMinute;
+    private final int slotsPerDay;
+    private final int suggestLimit;
+    private final int suggestHorizonDays;
+    private final BookingJournal journal;
+    private final ZoneClock clock;
+    private final ZoneId defaultZone;
+
+    // key = (departmentIndex << 32) | epochDay
+    private final ConcurrentHashMap<Long, SlotBitmap> days = new ConcurrentHashMap<>();
+
+    public SlotCalendarService(BookingJournal journal, ZoneClock clock,
+                               @Value("${scheduler.default-zone:Asia/Kolkata}") String defaultZone,
+                               @Value("${booking.slot.minutes:15}") int slotMinutes,
+                               @Value("${booking.day.start:09:00}") String dayStart,
+                               @Value("${booking.day.end:18:00}") String dayEnd,
+                               @Value("${booking.suggest.limit:3}") int suggestLimit,
+                               @Value("${booking.suggest.horizon-days:14}") int suggestHorizonDays) {
+        if (slotMinutes <= 0) throw new IllegalArgumentException("booking.slot.minutes must be positive");
+        int start = LocalTime.parse(dayStart, TIME_FMT).toSecondOfDay() / 60;
+        int end = LocalTime.parse(dayEnd, TIME_FMT).toSecondOfDay() / 60;
+        if (end <= start) throw new IllegalArgumentException("booking.day.end must be after booking.day.start");
+        this.journal = journal;
+        this.clock = clock;
+        this.defaultZone = ZoneId.of(defaultZone);
+        this.slotMinutes = slotMinutes;
+        this.dayStartMinute = start;
+        this.slotsPerDay = (end - start) / slotMinutes;
+        this.suggestLimit = suggestLimit;
+        this.suggestHorizonDays = suggestHorizonDays;
+    }
+
+    @PostConstruct
+    void recover() {
+        journal.recover(this);
+    }
+
+    /**
+     * Books the slot containing the appointment's time.
+     * The returned booking always carries a status; only "booked" means the slot is now held.
+     */
+    public BookingEntity book(AppointmentEntity appointment) {
+        BookingEntity out = new BookingEntity();
+        out.setDurationMinutes(slotMinutes);
+        if (appointment == null) {
+            return reject(out, "invalid", "No appointment to book.");
+        }
+        out.setDepartment(appointment.getDepartment());
+
+        int dept = departmentIndex(appointment.getDepartment());
+        LocalDate date = parseDate(appointment.getDate());
+        LocalTime time = parseTime(appointment.getTime());
+        if (dept < 0 || date == null || time == null) {
+            return reject(out, "invalid", "Appointment is missing a known department, date or time.");
+        }
+
+        int slot = slotIndex(time);
+        if (slot < 0) {
+            out.setDate(date.toString());
+            out.setTime(appointment.getTime());
+            return reject(out, "outside_hours", "Requested time is outside opening hours.");
+        }
+
+        out.setDate(date.toString());
+        out.setTime(slotStart(slot).format(TIME_FMT));
+        if (dayBitmap(dept, date.toEpochDay()).tryMark(slot)) {
+            journal.appendBooking(dept, date.toEpochDay(), slot);
+            out.setStatus("booked");
+            out.setMessage("Slot booked.");
+        } else {
+            out.setStatus("conflict");
+            out.setMessage("Requested slot is already taken.");
+        }
+        return out;
+    }
+
+    /**
+     * Nearest free slots using the configured limit and horizon, from the request's "now" on.
+     */
+    public List<AppointmentEntity> suggestNearest(String department, LocalDate date, LocalTime time,
+                                                  ParseOptions options) {
+        return suggestNearest(department, date, time, suggestLimit, suggestHorizonDays, localNow(options));
+    }
+
+    /**
+     * Suggestions around an appointment whose slot could not be booked.
+     */
+    public List<AppointmentEntity> suggestAround(AppointmentEntity appointment, ParseOptions options) {
+        if (appointment == null) return List.of();
+        return suggestNearest(appointment.getDepartment(), parseDate(appointment.getDate()),
+                parseTime(appointment.getTime()), options);
+    }
+
+    /**
+     * As below, from the current time in the default zone on.
+     */
+    public List<AppointmentEntity> suggestNearest(String department, LocalDate date, LocalTime time,
+                                                  int limit, int horizonDays) {
+        return suggestNearest(department, date, time, limit, horizonDays, localNow(ParseOptions.defaults()));
+    }
+
+    /**
+     * Returns up to {@code limit} free slots closest to the requested date and time,
+     * searching that day and the following {@code horizonDays} days, skipping slots that start
+     * before {@code notBefore} (null = no bound).
+     * A missing time means "from opening". Results are ordered by distance from the request.
+     *
+     * Each day is scanned a 64-slot word at a time: free = ~occupied & valid, then
+     * set bits are walked with {@link Long#numberOfTrailingZeros}. The scan stops as soon as
+     * a whole later day can no longer beat the worst slot already collected.
+     */
+    public List<AppointmentEntity> suggestNearest(String department, LocalDate date, LocalTime time,
+                                                  int limit, int horizonDays, LocalDateTime notBefore) {
+        int dept = departmentIndex(department);
+        if (dept < 0 || date == null || limit <= 0) return List.of();
+
+        int target = 0;
+        if (time != null) {
+            int minute = time.toSecondOfDay() / 60 - dayStartMinute;
+            target = Math.max(0, Math.min(slotsPerDay - 1, minute / slotMinutes));
+        }
+        long earliest = firstSlotFrom(date, notBefore);
+
+        // Best candidates as global slot numbers (dayOffset * slotsPerDay + slot), sorted by distance.
+        long[] best = new long[limit];
+        long[] bestDist = new long[limit];
+        int found = 0;
+        int words = (slotsPerDay + 63) >>> 6;
+        long epochDay = date.toEpochDay();
+
+        for (int offset = (int) Math.max(0, earliest / slotsPerDay); offset <= horizonDays; offset++) {
+            long dayBase = (long) offset * slotsPerDay;
+            if (found == limit && dayBase - target > bestDist[limit - 1]) break;
+
+            SlotBitmap day = days.get(key(dept, epochDay + offset));
+            scan:
+            for (int w = 0; w < words; w++) {
+                long free = ~(day == null ? 0L : day.word(w)) & validMask(w);
+                while (free != 0) {
+                    int slot = (w << 6) + Long.numberOfTrailingZeros(free);
+                    free &= free - 1;
+                    long global = dayBase + slot;
+                    if (global < earliest) continue;
+                    long dist = Math.abs(global - target);
+                    if (found == limit && dist >= bestDist[limit - 1]) {
+                        // Later slots on this day only get further away once we are past the target.
+                        if (global > target) break scan;
+                        continue;
+                    }
+                    int i = found < limit ? found++ : limit - 1;
+                    while (i > 0 && bestDist[i - 1] > dist) {
+                        best[i] = best[i - 1];
+                        bestDist[i] = bestDist[i - 1];
+                        i--;
+                    }
+                    best[i] = global;
+                    bestDist[i] = dist;
+                }
+            }
+        }
+
+        String deptName = DepartmentConfig.DEPARTMENTS.get(dept);
+        List<AppointmentEntity> out = new ArrayList<>(found);
+        for (int i = 0; i < found; i++) {
+            AppointmentEntity a = new AppointmentEntity();
+            a.setDepartment(deptName.substring(0, 1).toUpperCase(Locale.ROOT) + deptName.substring(1));
+            a.setDate(date.plusDays(best[i] / slotsPerDay).toString());
+            a.setTime(slotStart((int) (best[i] % slotsPerDay)).format(TIME_FMT));
+            out.add(a);
+        }
+        return out;
+    }
+
+    public boolean isFree(String department, LocalDate date, LocalTime time) {
+        int dept = departmentIndex(department);
+        int slot = time == null ? -1 : slotIndex(time);
+        if (dept < 0 || date == null || slot < 0) return false;
+        SlotBitmap day = days.get(key(dept, date.toEpochDay()));
+        return day == null || !day.isMarked(slot);
+    }
+
+    public int getSlotMinutes() { return slotMinutes; }
+
+    public int getSlotsPerDay() { return slotsPerDay; }
+
+    public int getDayStartMinute() { return dayStartMinute; }
+
+    /** Visits every day bitmap currently held; used for snapshots. */
+    public void forEachDay(DayVisitor visitor) {
+        days.forEach((k, bitmap) -> visitor.visit((int) (k >>> 32), (int) (long) k, bitmap));
+    }
+
+    @FunctionalInterface
+    public interface DayVisitor {
+        void visit(int department, long epochDay, SlotBitmap bitmap);
+    }
+
+    // -------- Helpers --------
+
+    SlotBitmap dayBitmap(int dept, long epochDay) {
+        return days.computeIfAbsent(key(dept, epochDay), k -> new SlotBitmap(slotsPerDay));
+    }
+
+    // Replays a journaled booking without journaling it again.
+    void restore(int dept, long epochDay, int slot) {
+        if (dept < 0 || dept >= DepartmentConfig.DEPARTMENTS.size() || slot < 0 || slot >= slotsPerDay) return;
+        dayBitmap(dept, epochDay).tryMark(slot);
+    }
+
+    // Wall-clock time of the request in its zone: its reference "now", else the current time.
+    private LocalDateTime localNow(ParseOptions options) {
+        ZoneId zone = options.getZone() != null ? options.getZone() : defaultZone;
+        Instant now = options.getReferenceTime() != null ? options.getReferenceTime() : clock.now();
+        return LocalDateTime.ofInstant(now, zone);
+    }
+
+    // First global slot (days after {@code date} * slotsPerDay + slot) that starts at or after notBefore.
+    private long firstSlotFrom(LocalDate date, LocalDateTime notBefore) {
+        if (notBefore == null) return Long.MIN_VALUE;
+        long days = notBefore.toLocalDate().toEpochDay() - date.toEpochDay();
+        long seconds = notBefore.toLocalTime().toSecondOfDay() - dayStartMinute * 60L;
+        long slot = seconds <= 0 ? 0 : Math.min(slotsPerDay, (seconds + slotMinutes * 60L - 1) / (slotMinutes * 60L));
+        return days * slotsPerDay + slot;
+    }
+
+    // Bits of word w that map to real slots (the last word may be partial).
+    private long validMask(int w) {
+        int remaining = slotsPerDay - (w << 6);
+        return remaining >= 64 ? -1L : (1L << remaining) - 1;
+    }
+
+    int slotIndex(LocalTime time) {
+        int minute = time.toSecondOfDay() / 60 - dayStartMinute;
+        if (minute < 0) return -1;
+        int slot = minute / slotMinutes;
+        return slot < slotsPerDay ? slot : -1;
+    }
+
+    LocalTime slotStart(int slot) {
+        return LocalTime.ofSecondOfDay((long) (dayStartMinute + slot * slotMinutes) * 60);
+    }
+
+    static int departmentIndex(String department) {
+        if (department == null) return -1;
+        return DepartmentConfig.DEPARTMENTS.indexOf(department.toLowerCase(Locale.ROOT));
+    }
+
+    private static long key(int dept, long epochDay) {
+        return ((long) dept << 32) | (epochDay & 0xFFFFFFFFL);
+    }
+
+    private static LocalDate parseDate(String s) {
+        if (s == null) return null;
+        try {
+            return LocalDate.parse(s);
+        } catch (DateTimeParseException ex) {
+            return null;
+        }
+    }
+
+    private static LocalTime parseTime(String s) {
+        if (s == null) return null;
+        try {
+            return LocalTime.parse(s, TIME_FMT);
+        } catch (DateTimeParseException ex) {
+            return null;
+        }
+    }
+
+    private static BookingEntity reject(BookingEntity out, String status, String message) {
+        out.setStatus(status);
+        out.setMessage(message);
+        return out;
+    }
+}
@@ -0,0 +1,171 @@
+package com.healthcare.ai_appointmentscheduler.service;
+
+import com.healthcare.ai_appointmentscheduler.config.DepartmentConfig;
+import com.healthcare.ai_appointmentscheduler.util.SymSpell;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * SpellingCorrector
+ *
+ * Repairs misread and mistyped words ("tomorw", "nxt", "fridy", "dentst") in cleaned text before
+ * entities are extracted, using a {@link SymSpell} dictionary of the domain vocabulary
+ * (spelling.vocabulary plus the department names) built once at startup.
+ *  - Only words missing from a general English lexicon (spelling.lexicon, ~80k words) are
+ *    corrected, so correctly spelled words ("near", "sure", "ready") are never bent into a
+ *    nearby domain word. Without the lexicon, correction stays off.
+ *  - Words with digits or other non-letters (times, dates) and words of one or two letters are
+ *    left alone; up to five letters allow one edit, longer words spelling.max-distance. A
+ *    three-letter word is only repaired by a dropped or extra letter ("nxt"), never swapped for
+ *    another three-letter word.
+ *  - The two words after "dr" or "doctor" are a name: they are left for the doctor directory's
+ *    own fuzzy match.
+ *  - A word with nothing close in the dictionary is kept as written.
+ */
+@Service
+public class SpellingCorrector {
+
+    private static final Logger log = LoggerFactory.getLogger(SpellingCorrector.class);
+
+    // Frequency given to department names: they outrank every other candidate.
+    private static final int DEPARTMENT_FREQUENCY = 10_000;
+    // Words after "dr"/"doctor" taken as the name, as DoctorDirectoryService reads them.
+    private static final int NAME_WORDS = 2;
+
+    private final ResourceLoader resourceLoader;
+    private final boolean enabled;
+    private final String vocabularyLocation;
+    private final String lexiconLocation;
+    private final int maxDistance;
+
+    private volatile SymSpell dictionary;
+    private volatile Set<String> lexicon;
+
+    public SpellingCorrector(ResourceLoader resourceLoader,
+                             @Value("${spelling.enabled:true}") boolean enabled,
+                             @Value("${spelling.vocabulary:classpath:spelling/vocabulary.txt}") String vocabularyLocation,
+                             @Value("${spelling.lexicon:classpath:spelling/lexicon-en.txt.gz}") String lexiconLocation,
+                             @Value("${spelling.max-distance:2}") int maxDistance) {
+        this.resourceLoader = resourceLoader;
+        this.enabled = enabled;
+        this.vocabularyLocation = vocabularyLocation;
+        this.lexiconLocation = lexiconLocation;
+        this.maxDistance = maxDistance;
+    }
+
+    @PostConstruct
+    void load() {
+        if (!enabled) return;
+        Set<String> known = readLexicon();
+        if (known == null) return;
+
+        Map<String, Integer> words = new HashMap<>();
+        Resource resource = resourceLoader.getResource(vocabularyLocation);
+        if (resource.exists()) {
+            try (InputStream in = resource.getInputStream()) {
+                for (String line : new String(in.readAllBytes(), StandardCharsets.UTF_8).split("\\R")) {
+                    String l = line.strip();
+                    if (l.isEmpty() || l.startsWith("#")) continue;
+                    String[] parts = l.split("\\s+");
+                    words.merge(parts[0].toLowerCase(Locale.ROOT), parts.length > 1 ? Integer.parseInt(parts[1]) : 1, Math::max);
+                }
+            } catch (IOException | NumberFormatException ex) {
+                log.warn("Spelling vocabulary {} could not be read; using department names only", vocabularyLocation, ex);
+            }
+        } else {
+            log.warn("Spelling vocabulary {} not found; using department names only", vocabularyLocation);
+        }
+        for (String dept : DepartmentConfig.DEPARTMENTS) words.put(dept, DEPARTMENT_FREQUENCY);
+
+        long t0 = System.nanoTime();
+        lexicon = known;
+        dictionary = new SymSpell(words, maxDistance);
+        log.info("Spelling dictionary built: {} words, distance {}, {} lexicon words ({} ms)",
+                words.size(), maxDistance, known.size(), (System.nanoTime() - t0) / 1_000_000);
+    }
+
+    public boolean isEnabled() {
+        return dictionary != null;
+    }
+
+    /** {@code clean} (lower-case words separated by single spaces) with each misspelled word corrected. */
+    public String correct(String clean) {
+        SymSpell d = dictionary;
+        if (d == null || clean == null || clean.isEmpty()) return clean;
+
+        String[] words = clean.split(" ");
+        boolean changed = false;
+        int name = 0;
+        for (int i = 0; i < words.length; i++) {
+            if (name > 0) {
+                name--;
+                continue;
+            }
+            if (words[i].equals("dr") || words[i].equals("doctor")) {
+                name = NAME_WORDS;
+                continue;
+            }
+            String fixed = correctWord(d, words[i]);
+            if (fixed != words[i]) {
+                words[i] = fixed;
+                changed = true;
+            }
+        }
+        return changed ? String.join(" ", words) : clean;
+    }
+
+    // -------- Helpers --------
+
+    // Lower-case words, one per line, gzip-compressed when the name ends in .gz; null when unavailable.
+    private Set<String> readLexicon() {
+        Resource resource = resourceLoader.getResource(lexiconLocation);
+        if (!resource.exists()) {
+            log.warn("Spelling lexicon {} not found; spelling correction disabled", lexiconLocation);
+            return null;
+        }
+        Set<String> out = new HashSet<>(1 << 17);
+        try (InputStream raw = resource.getInputStream();
+             InputStream in = lexiconLocation.endsWith(".gz") ? new GZIPInputStream(raw) : raw;
+             BufferedReader r = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            for (String line; (line = r.readLine()) != null; ) {
+                String w = line.strip();
+                if (!w.isEmpty() && !w.startsWith("#")) out.add(w.toLowerCase(Locale.ROOT));
+            }
+        } catch (IOException ex) {
+            log.warn("Spelling lexicon {} could not be read; spelling correction disabled", lexiconLocation, ex);
+            return null;
+        }
+        return out;
+    }
+
+    private String correctWord(SymSpell d, String word) {
+        int n = word.length();
+        if (n < 3) return word;
+        for (int i = 0; i < n; i++) {
+            char c = word.charAt(i);
+            if (c < 'a' || c > 'z') return word;
+        }
+        if (lexicon.contains(word)) return word;
+        String fixed = d.lookup(word, n <= 5 ? 1 : maxDistance);
+        if (fixed == null || fixed.equals(word)) return word;
+        // Three letters are too few to tell a typo from another word ("end" is not "ent").
+        return n == 3 && fixed.length() == 3 ? word : fixed;
+    }
+}
@@ -0,0 +1,171 @@
+package com.healthcare.ai_appointmentscheduler.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * StageGraph
+ *
+ * Runs the {@link PipelineStage} beans in dependency order. At startup the stages are sorted into
+ * waves: a stage joins the first wave after every stage that writes a key it reads. A wave is a
+ * barrier, and within it:
+ *  - stages marked {@link PipelineStage#parallel()} are spread over the stage pool when the input
+ *    is at least pipeline.parallel-min-chars long (short texts are cheaper to run inline),
+ *  - once a stage has decided the outcome, stages marked {@link PipelineStage#skipWhenDecided()}
+ *    run their cheap fallback instead.
+ *
+ * A graph that cannot run (a key with two writers, a read nobody writes, a cycle) fails startup.
+ */
+@Component
+public class StageGraph {
+
+    private static final Logger log = LoggerFactory.getLogger(StageGraph.class);
+
+    private final List<List<PipelineStage>> waves;
+    private final int parallelMinChars;
+    private final ThreadPoolExecutor pool;
+
+    public StageGraph(List<PipelineStage> stages,
+                      @Value("${pipeline.parallel-min-chars:512}") int parallelMinChars,
+                      @Value("${pipeline.threads:0}") int threads) {
+        this.waves = plan(stages);
+        this.parallelMinChars = parallelMinChars;
+        int n = threads > 0 ? threads : Math.max(2, Runtime.getRuntime().availableProcessors());
+        AtomicInteger seq = new AtomicInteger();
+        // Saturated: the caller runs the stage itself rather than queueing behind other requests.
+        this.pool = new ThreadPoolExecutor(n, n, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(n * 4), r -> {
+            Thread t = new Thread(r, "stage-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }, new ThreadPoolExecutor.CallerRunsPolicy());
+        pool.allowCoreThreadTimeOut(true);
+        log.info("Parse pipeline: {}", describe());
+    }
+
+    /** Runs every stage over {@code ctx}, whose inputs the caller has set. */
+    public ParseContext run(ParseContext ctx) {
+        String text = ctx.get(ParseContext.TEXT);
+        boolean fanOut = text != null && text.length() >= parallelMinChars;
+
+        for (List<PipelineStage> wave : waves) {
+            List<Future<?>> forked = new ArrayList<>();
+            if (fanOut && wave.stream().filter(PipelineStage::parallel).count() > 1) {
+                for (PipelineStage stage : wave) {
+                    if (stage.parallel()) forked.add(pool.submit(() -> execute(stage, ctx)));
+                }
+            }
+            for (PipelineStage stage : wave) {
+                if (forked.isEmpty() || !stage.parallel()) execute(stage, ctx);
+            }
+            for (Future<?> f : forked) join(f);
+        }
+        return ctx;
+    }
+
+    /** Stage names per wave, e.g. for logs and tests. */
+    public List<List<String>> waves() {
+        return waves.stream().map(w -> w.stream().map(PipelineStage::name).toList()).toList();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    // -------- Helpers --------
+
+    private static void execute(PipelineStage stage, ParseContext ctx) {
+        long t0 = System.nanoTime();
+        if (stage.skipWhenDecided() && ctx.isDecided()) {
+            ctx.markSkipped(stage.name());
+            stage.fallback(ctx);
+        } else {
+            stage.run(ctx);
+        }
+        ctx.addTiming(stage.timing(), System.nanoTime() - t0);
+    }
+
+    private static void join(Future<?> f) {
+        try {
+            f.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a pipeline stage", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            if (e.getCause() instanceof Error err) throw err;
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    static List<List<PipelineStage>> plan(List<PipelineStage> stages) {
+        Map<ParseContext.Key<?>, PipelineStage> writer = new HashMap<>();
+        for (PipelineStage s : stages) {
+            for (ParseContext.Key<?> k : s.writes()) {
+                if (ParseContext.INPUTS.contains(k)) {
+                    throw new IllegalStateException("Stage " + s.name() + " writes input " + k);
+                }
+                PipelineStage other = writer.putIfAbsent(k, s);
+                if (other != null) {
+                    throw new IllegalStateException("Key " + k + " written by both " + other.name() + " and " + s.name());
+                }
+            }
+        }
+        for (PipelineStage s : stages) {
+            for (ParseContext.Key<?> k : s.reads()) {
+                if (!writer.containsKey(k) && !ParseContext.INPUTS.contains(k)) {
+                    throw new IllegalStateException("Stage " + s.name() + " reads " + k + ", which no stage writes");
+                }
+            }
+        }
+
+        Map<PipelineStage, Integer> level = new LinkedHashMap<>();
+        boolean progress = true;
+        while (level.size() < stages.size() && progress) {
+            progress = false;
+            for (PipelineStage s : stages) {
+                if (level.containsKey(s)) continue;
+                int wave = 0;
+                boolean ready = true;
+                for (ParseContext.Key<?> k : s.reads()) {
+                    PipelineStage w = writer.get(k);
+                    if (w == null) continue;
+                    Integer l = level.get(w);
+                    if (l == null) {
+                        ready = false;
+                        break;
+                    }
+                    wave = Math.max(wave, l + 1);
+                }
+                if (ready) {
+                    level.put(s, wave);
+                    progress = true;
+                }
+            }
+        }
+        if (level.size() < stages.size()) {
+            List<String> stuck = stages.stream().filter(s -> !level.containsKey(s)).map(PipelineStage::name).toList();
+            throw new IllegalStateException("Pipeline stages depend on each other in a cycle: " + stuck);
+        }
+
+        int depth = level.values().stream().mapToInt(Integer::intValue).max().orElse(-1) + 1;
+        List<List<PipelineStage>> out = new ArrayList<>(depth);
+        for (int i = 0; i < depth; i++) out.add(new ArrayList<>());
+        for (PipelineStage s : stages) out.get(level.get(s)).add(s);
+        return out.stream().map(List::copyOf).toList();
+    }
+
+    private String describe() {
+        return waves.stream()
+                .map(w -> w.stream().map(PipelineStage::name).collect(Collectors.joining(", ", "[", "]")))
+                .collect(Collectors.joining(" -> "));
+    }
+}
@@ -0,0 +1,201 @@
+package com.healthcare.ai_appointmentscheduler.service;
+
+import com.healthcare.ai_appointmentscheduler.dto.ParseOptions;
+import com.joestelmach.natty.Parser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TimeZone;
+
+/**
+ * WarmupService
+ *
+ * Runs once after startup, on a background thread:
+ *  - loads Natty's grammar and the Tesseract native library / language data,
+ *  - drives a small synthetic text corpus (and rendered images of it) through the pipeline,
+ *    round after round, until the median round latency stops improving.
+ *
+ * Readiness (GET /test/ready and the actuator "readiness" group) reports DOWN until this finishes,
+ * so a rolling deploy does not route real traffic to a cold node. Liveness is unaffected.
+ *
+ * With startup.mode=fast the node reports ready immediately: the text warm-up still runs in the
+ * background but does not gate readiness, and OCR is never touched until the first image request
+ * (OcrServiceImpl is a lazy bean). With ocr.enabled=false the OCR subsystem is never loaded at all.
+ */
+@Component("warmup")
+public class WarmupService implements HealthIndicator {
+
+    private static final Logger log = LoggerFactory.getLogger(WarmupService.class);
+
+    static final List<String> TEXT_CORPUS = List.of(
+            "Book dentist next Friday at 3pm",
+            "cardiologist tomorrow 10:30am",
+            "need a neurologist on monday 9am please",
+            "dermatologist day after tomorrow at 4 pm",
+            "ent appointment in 3 days 11am",
+            "orthopedic today 5pm",
+            "dentst nxt fridy 2pm",
+            "something soon"
+    );
+
+    private final PipelineService pipelineService;
+    private final OcrServiceImpl ocrService;
+
+    private final boolean enabled;
+    private final boolean fastStart;
+    private final boolean ocrEnabled;
+    private final int maxRounds;
+    private final double settleRatio;
+
+    private volatile boolean ready;
+    private volatile String phase = "pending";
+    private volatile int textRounds;
+    private volatile int ocrRounds;
+    private volatile String ocrError;
+    private volatile long readyAfterJvmStartMs = -1;
+
+    public WarmupService(PipelineService pipelineService,
+                         @Lazy OcrServiceImpl ocrService,
+                         @Value("${warmup.enabled:true}") boolean enabled,
+                         @Value("${startup.mode:full}") String startupMode,
+                         @Value("${ocr.enabled:true}") boolean ocrAvailable,
+                         @Value("${warmup.ocr:true}") boolean ocrEnabled,
+                         @Value("${warmup.max-rounds:20}") int maxRounds,
+                         @Value("${warmup.settle-ratio:0.10}") double settleRatio) {
+        this.pipelineService = pipelineService;
+        this.ocrService = ocrService;
+        this.enabled = enabled;
+        this.fastStart = "fast".equalsIgnoreCase(startupMode);
+        this.ocrEnabled = ocrAvailable && ocrEnabled && !fastStart;
+        this.maxRounds = maxRounds;
+        this.settleRatio = settleRatio;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!enabled || fastStart) {
+            markReady();
+            if (!enabled) return;
+        }
+        Thread t = new Thread(this::run, "warmup");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    public Health health() {
+        Health.Builder b = ready ? Health.up() : Health.outOfService();
+        b.withDetail("phase", phase)
+                .withDetail("textRounds", textRounds)
+                .withDetail("ocrRounds", ocrRounds);
+        if (ocrError != null) b.withDetail("ocrError", ocrError);
+        if (readyAfterJvmStartMs >= 0) b.withDetail("readyAfterJvmStartMs", readyAfterJvmStartMs);
+        return b.build();
+    }
+
+    // -------- Warm-up phases --------
+
+    private void run() {
+        long started = System.nanoTime();
+        try {
+            phase = "natty";
+            new Parser(TimeZone.getDefault()).parse("next friday 3pm");
+
+            phase = "text";
+            textRounds = untilSettled(() -> {
+                for (String text : TEXT_CORPUS) pipelineService.parseText(text);
+            });
+
+            if (ocrEnabled) {
+                phase = "ocr";
+                warmOcr();
+            }
+            phase = "done";
+        } catch (RuntimeException ex) {
+            log.warn("Warm-up failed in phase {}; marking ready anyway", phase, ex);
+        } finally {
+            if (!ready) markReady();
+            log.info("Warm-up finished in {} ms ({} text rounds, {} OCR rounds)",
+                    (System.nanoTime() - started) / 1_000_000, textRounds, ocrRounds);
+        }
+    }
+
+    private void warmOcr() {
+        List<BufferedImage> images = TEXT_CORPUS.subList(0, 3).stream().map(WarmupService::render).toList();
+        try {
+            ocrRounds = untilSettled(() -> {
+                for (BufferedImage img : images) {
+                    try {
+                        pipelineService.parseOcr(ocrService.recognize(img, null), ParseOptions.defaults());
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+            });
+        } catch (RuntimeException | LinkageError e) {
+            // Missing native library or tessdata: text traffic can still be served.
+            ocrError = e.getClass().getSimpleName() + ": " + e.getMessage();
+            log.warn("OCR warm-up skipped: {}", ocrError);
+        }
+    }
+
+    /**
+     * Repeats a round until its latency changes by less than settleRatio against the previous
+     * median, with at least three rounds and at most maxRounds.
+     * @return rounds executed
+     */
+    private int untilSettled(Runnable round) {
+        long[] samples = new long[maxRounds];
+        double previousMedian = -1;
+        for (int i = 0; i < maxRounds; i++) {
+            long t0 = System.nanoTime();
+            round.run();
+            samples[i] = System.nanoTime() - t0;
+            if (i >= 2) {
+                long[] window = Arrays.copyOfRange(samples, i - 2, i + 1);
+                Arrays.sort(window);
+                double median = window[1];
+                if (previousMedian > 0 && Math.abs(previousMedian - median) / previousMedian < settleRatio) {
+                    return i + 1;
+                }
+                previousMedian = median;
+            }
+        }
+        return maxRounds;
+    }
+
+    private void markReady() {
+        readyAfterJvmStartMs = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+        ready = true;
+        log.info("Ready {} ms after JVM start (startup.mode={})", readyAfterJvmStartMs, fastStart ? "fast" : "full");
+    }
+
+    static BufferedImage render(String text) {
+        BufferedImage img = new BufferedImage(640, 80, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = img.createGraphics();
+        g.setColor(Color.WHITE);
+        g.fillRect(0, 0, img.getWidth(), img.getHeight());
+        g.setColor(Color.BLACK);
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, 28));
+        g.drawString(text, 16, 50);
+        g.dispose();
+        return img;
+    }
+}
@@ -0,0 +1,75 @@
+package com.healthcare.ai_appointmentscheduler.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ZoneClock
+ *
+ * Caches "today" for every zone seen so far, together with the instant range it is valid for
+ * (local midnight to next local midnight, computed from the zone rules so DST days are right).
+ * Lookups within the range are a map get plus two comparisons; the entry is recomputed only
+ * when a day boundary is crossed. A reference instant (per-request "now") is served from the
+ * same cache when it falls into the cached day.
+ */
+@Component
+public class ZoneClock {
+
+    private record Day(LocalDate date, long fromEpochMilli, long untilEpochMilli) {
+        boolean covers(long epochMilli) {
+            return epochMilli >= fromEpochMilli && epochMilli < untilEpochMilli;
+        }
+    }
+
+    private final Clock clock;
+    private final ConcurrentHashMap<ZoneId, Day> days = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<ZoneId, TimeZone> timeZones = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ZoneClock() {
+        this(Clock.systemUTC());
+    }
+
+    public ZoneClock(Clock clock) {
+        this.clock = clock;
+    }
+
+    public Instant now() {
+        return clock.instant();
+    }
+
+    /** Current local date in the zone. */
+    public LocalDate today(ZoneId zone) {
+        return dayAt(zone, clock.millis());
+    }
+
+    /** Local date in the zone at the given reference instant (null = now). */
+    public LocalDate today(ZoneId zone, Instant reference) {
+        return dayAt(zone, reference == null ? clock.millis() : reference.toEpochMilli());
+    }
+
+    /** Shared legacy TimeZone per zone (for libraries such as Natty that still need one). */
+    public TimeZone timeZone(ZoneId zone) {
+        return timeZones.computeIfAbsent(zone, TimeZone::getTimeZone);
+    }
+
+    private LocalDate dayAt(ZoneId zone, long epochMilli) {
+        Day cached = days.get(zone);
+        if (cached != null && cached.covers(epochMilli)) return cached.date();
+
+        LocalDate date = Instant.ofEpochMilli(epochMilli).atZone(zone).toLocalDate();
+        Day day = new Day(date,
+                date.atStartOfDay(zone).toInstant().toEpochMilli(),
+                date.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli());
+        // Only move the cached day forward; an old reference instant must not evict "today".
+        if (cached == null || epochMilli >= cached.untilEpochMilli()) days.put(zone, day);
+        return date;
+    }
+}
@@ -0,0 +1,81 @@
+package com.healthcare.ai_appointmentscheduler.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Gradient-style adaptive concurrency limit.
+ *
+ * Tracks the best ("no-load") latency seen in the current window and a smoothed recent latency.
+ * After each sample:  newLimit = limit * clamp(tolerance * noLoad / recent, 0.5, 1) + sqrt(limit)
+ * so the limit grows slowly while latency stays near the floor and shrinks as soon as
+ * queueing shows up as rising latency. The floor is re-learned every {@code windowSamples}.
+ */
+public final class AdaptiveConcurrencyLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final int windowSamples;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+
+    // guarded by this
+    private volatile double smoothedNanos;
+    private long windowMinNanos = Long.MAX_VALUE;
+    private long noLoadNanos = Long.MAX_VALUE;
+    private int samplesInWindow;
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double tolerance, int windowSamples) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.windowSamples = windowSamples;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /** Non-blocking admission: true if the caller may proceed (and must later call {@link #release}). */
+    public boolean tryAcquire() {
+        while (true) {
+            int cur = inFlight.get();
+            if (cur >= (int) limit) return false;
+            if (inFlight.compareAndSet(cur, cur + 1)) return true;
+        }
+    }
+
+    /** Releases a permit and feeds its latency into the limit. */
+    public void release(long latencyNanos) {
+        inFlight.decrementAndGet();
+        if (latencyNanos > 0) onSample(latencyNanos);
+    }
+
+    private synchronized void onSample(long latencyNanos) {
+        smoothedNanos = smoothedNanos == 0 ? latencyNanos : smoothedNanos * 0.9 + latencyNanos * 0.1;
+        windowMinNanos = Math.min(windowMinNanos, latencyNanos);
+        if (noLoadNanos == Long.MAX_VALUE) noLoadNanos = latencyNanos;
+        if (++samplesInWindow >= windowSamples) {
+            noLoadNanos = windowMinNanos;
+            windowMinNanos = Long.MAX_VALUE;
+            samplesInWindow = 0;
+        }
+        noLoadNanos = Math.min(noLoadNanos, latencyNanos);
+
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * noLoadNanos / smoothedNanos));
+        double current = limit;
+        double next = current * gradient + Math.sqrt(current);
+        next = current * 0.8 + next * 0.2; // damp oscillation
+        limit = Math.max(minLimit, Math.min(maxLimit, next));
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public double getSmoothedLatencyMillis() {
+        return smoothedNanos / 1_000_000.0;
+    }
+}
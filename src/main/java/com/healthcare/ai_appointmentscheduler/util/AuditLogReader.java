@@ -0,0 +1,104 @@
+package com.healthcare.ai_appointmentscheduler.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Reads the JSON-lines files written by {@link com.healthcare.ai_appointmentscheduler.service.AuditLogService}.
+ *
+ * Files are visited in creation order and lines are parsed one at a time, so memory stays flat
+ * however large the log is. A torn last line (crash mid-write) is skipped.
+ *
+ * Command line:
+ * <pre>
+ *   java -cp app.jar com.healthcare.ai_appointmentscheduler.util.AuditLogReader &lt;dir&gt; [from] [to] [status]
+ * </pre>
+ * from / to are ISO instants (or "-"); matching records are printed as they are stored and a
+ * per-status summary goes to stderr.
+ */
+public final class AuditLogReader {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private AuditLogReader() {}
+
+    /** Feeds every record with from &lt;= ts &lt; to (either bound may be null) to {@code sink}. */
+    public static void read(Path dir, Instant from, Instant to, Consumer<JsonNode> sink) throws IOException {
+        List<Path> files;
+        try (Stream<Path> s = Files.list(dir)) {
+            files = s.filter(p -> {
+                String n = p.getFileName().toString();
+                return n.startsWith("audit-") && n.endsWith(".jsonl");
+            }).sorted().toList();
+        }
+        long fromMs = from == null ? Long.MIN_VALUE : from.toEpochMilli();
+        long toMs = to == null ? Long.MAX_VALUE : to.toEpochMilli();
+
+        for (int i = 0; i < files.size(); i++) {
+            // A file holds records from its creation up to the next file's creation.
+            if (openedAt(files.get(i)) >= toMs) break;
+            if (i + 1 < files.size() && openedAt(files.get(i + 1)) < fromMs) continue;
+            try (BufferedReader r = Files.newBufferedReader(files.get(i), StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = r.readLine()) != null) {
+                    if (line.isBlank()) continue;
+                    JsonNode node;
+                    try {
+                        node = MAPPER.readTree(line);
+                    } catch (JsonProcessingException torn) {
+                        continue;
+                    }
+                    long ts = node.path("ts").asLong();
+                    if (ts >= fromMs && ts < toMs) sink.accept(node);
+                }
+            }
+        }
+    }
+
+    private static long openedAt(Path file) {
+        String n = file.getFileName().toString();
+        try {
+            return Long.parseLong(n.substring("audit-".length(), n.length() - ".jsonl".length()));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("usage: AuditLogReader <dir> [from] [to] [status]");
+            System.exit(2);
+        }
+        Instant from = args.length > 1 && !args[1].equals("-") ? Instant.parse(args[1]) : null;
+        Instant to = args.length > 2 && !args[2].equals("-") ? Instant.parse(args[2]) : null;
+        String status = args.length > 3 ? args[3] : null;
+
+        Map<String, Long> summary = new TreeMap<>();
+        long[] gaps = new long[1];
+        read(Path.of(args[0]), from, to, node -> {
+            if (node.has("gap")) {
+                gaps[0] += node.get("gap").asLong();
+                return;
+            }
+            String s = node.path("status").asText(node.has("error") ? "error" : "unknown");
+            if (status != null && !status.equals(s)) return;
+            summary.merge(s, 1L, Long::sum);
+            System.out.println(node);
+        });
+        summary.forEach((s, n) -> System.err.printf("%-20s %d%n", s, n));
+        if (gaps[0] > 0) System.err.printf("%-20s %d%n", "dropped", gaps[0]);
+    }
+}
@@ -0,0 +1,194 @@
+package com.healthcare.ai_appointmentscheduler.util;
+
+import java.util.Locale;
+import java.util.stream.IntStream;
+
+/**
+ * Grayscale to black/white conversion for OCR.
+ *
+ *  - OTSU: one global threshold from the histogram. Fast and right for evenly lit scans.
+ *  - SAUVOLA / NIBLACK: a threshold per pixel from the mean and standard deviation of its window,
+ *    which survives shadows and uneven lighting on phone photos.
+ *  - AUTO: Otsu when the histogram is clearly bimodal, Sauvola otherwise.
+ *
+ * Window statistics come from integral images of the pixel values and their squares, so each
+ * pixel costs four lookups per table whatever the window size. The integral tables and the
+ * thresholding pass are both split into bands processed in parallel.
+ */
+public final class Binarizer {
+
+    public enum Mode {
+        AUTO, OTSU, SAUVOLA, NIBLACK;
+
+        /** Parses a request value; null or blank means AUTO. */
+        public static Mode parse(String value) {
+            if (value == null || value.isBlank()) return AUTO;
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException ex) {
+                throw new IllegalArgumentException("Unknown binarization mode: " + value);
+            }
+        }
+    }
+
+    // Below this many pixels the fork/join overhead outweighs the parallel speed-up.
+    private static final int PARALLEL_MIN_PIXELS = 256 * 256;
+    private static final int MIN_BAND_ROWS = 32;
+
+    private Binarizer() {}
+
+    /**
+     * Binarizes 8-bit gray pixels (row-major, w * h) into 0/255 values.
+     *
+     * @param window  side of the local window in pixels (SAUVOLA / NIBLACK)
+     * @param k       sensitivity: Sauvola typically 0.2..0.5, Niblack typically -0.2
+     * @param bimodalAbove AUTO picks Otsu when the bimodality score is at least this (0..1)
+     * @return the mode that was actually applied
+     */
+    public static Mode binarize(byte[] gray, byte[] out, int w, int h, Mode mode,
+                                int window, double k, double bimodalAbove) {
+        int[] hist = histogram(gray);
+        int otsu = otsuThreshold(hist, gray.length);
+        if (mode == Mode.AUTO) {
+            mode = bimodality(hist, gray.length, otsu) >= bimodalAbove ? Mode.OTSU : Mode.SAUVOLA;
+        }
+        if (mode == Mode.OTSU) {
+            global(gray, out, otsu);
+        } else {
+            local(gray, out, w, h, window, k, mode == Mode.SAUVOLA);
+        }
+        return mode;
+    }
+
+    public static int[] histogram(byte[] gray) {
+        int[] hist = new int[256];
+        for (byte b : gray) hist[b & 0xFF]++;
+        return hist;
+    }
+
+    /** Threshold maximising between-class variance; pixels above it are background. */
+    public static int otsuThreshold(int[] hist, int total) {
+        double sum = 0;
+        for (int i = 0; i < 256; i++) sum += (double) i * hist[i];
+
+        double sumB = 0, varMax = 0;
+        long wB = 0;
+        int threshold = 0;
+        for (int t = 0; t < 256; t++) {
+            wB += hist[t];
+            if (wB == 0) continue;
+            long wF = total - wB;
+            if (wF == 0) break;
+            sumB += (double) t * hist[t];
+            double mB = sumB / wB;
+            double mF = (sum - sumB) / wF;
+            double varBetween = (double) wB * wF * (mB - mF) * (mB - mF);
+            if (varBetween > varMax) {
+                varMax = varBetween;
+                threshold = t;
+            }
+        }
+        return threshold;
+    }
+
+    /**
+     * Otsu's separability measure: between-class variance over total variance at the threshold.
+     * Close to 1 for clean two-tone scans, noticeably lower when shadows smear the histogram.
+     */
+    public static double bimodality(int[] hist, int total, int threshold) {
+        double sum = 0, sumSq = 0, sumB = 0;
+        long wB = 0;
+        for (int i = 0; i < 256; i++) {
+            sum += (double) i * hist[i];
+            sumSq += (double) i * i * hist[i];
+            if (i <= threshold) {
+                wB += hist[i];
+                sumB += (double) i * hist[i];
+            }
+        }
+        double mean = sum / total;
+        double varTotal = sumSq / total - mean * mean;
+        long wF = total - wB;
+        if (varTotal <= 0 || wB == 0 || wF == 0) return 1.0;
+        double mB = sumB / wB;
+        double mF = (sum - sumB) / wF;
+        double varBetween = (double) wB * wF * (mB - mF) * (mB - mF) / ((double) total * total);
+        return varBetween / varTotal;
+    }
+
+    // -------- Helpers --------
+
+    private static void global(byte[] gray, byte[] out, int threshold) {
+        for (int i = 0; i < gray.length; i++) {
+            out[i] = (gray[i] & 0xFF) > threshold ? (byte) 255 : 0;
+        }
+    }
+
+    private static void local(byte[] gray, byte[] out, int w, int h, int window, double k, boolean sauvola) {
+        int stride = w + 1;
+        long[] sum = new long[stride * (h + 1)];
+        long[] sumSq = new long[stride * (h + 1)];
+
+        // Pass 1: prefix sums along each row. Pass 2: accumulate down each column.
+        bands(h, w, (from, to) -> {
+            for (int y = from; y < to; y++) {
+                long s = 0, sq = 0;
+                int src = y * w, dst = (y + 1) * stride + 1;
+                for (int x = 0; x < w; x++) {
+                    int v = gray[src + x] & 0xFF;
+                    s += v;
+                    sq += v * v;
+                    sum[dst + x] = s;
+                    sumSq[dst + x] = sq;
+                }
+            }
+        });
+        bands(w, h, (from, to) -> {
+            for (int y = 2; y <= h; y++) {
+                int row = y * stride, prev = row - stride;
+                for (int x = from + 1; x <= to; x++) {
+                    sum[row + x] += sum[prev + x];
+                    sumSq[row + x] += sumSq[prev + x];
+                }
+            }
+        });
+
+        int half = Math.max(1, window / 2);
+        bands(h, w, (from, to) -> {
+            for (int y = from; y < to; y++) {
+                int y0 = Math.max(0, y - half), y1 = Math.min(h, y + half + 1);
+                int top = y0 * stride, bottom = y1 * stride;
+                for (int x = 0; x < w; x++) {
+                    int x0 = Math.max(0, x - half), x1 = Math.min(w, x + half + 1);
+                    double n = (double) (x1 - x0) * (y1 - y0);
+                    long s = sum[bottom + x1] - sum[top + x1] - sum[bottom + x0] + sum[top + x0];
+                    long sq = sumSq[bottom + x1] - sumSq[top + x1] - sumSq[bottom + x0] + sumSq[top + x0];
+                    double mean = s / n;
+                    double sd = Math.sqrt(Math.max(0, sq / n - mean * mean));
+                    double t = sauvola ? mean * (1 + k * (sd / 128.0 - 1)) : mean + k * sd;
+                    out[y * w + x] = (gray[y * w + x] & 0xFF) > t ? (byte) 255 : 0;
+                }
+            }
+        });
+    }
+
+    @FunctionalInterface
+    private interface Band {
+        void run(int from, int to);
+    }
+
+    // Splits [0, length) into bands of at least MIN_BAND_ROWS and runs them on the common pool.
+    private static void bands(int length, int breadth, Band band) {
+        if ((long) length * breadth < PARALLEL_MIN_PIXELS) {
+            band.run(0, length);
+            return;
+        }
+        int count = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors() * 2, length / MIN_BAND_ROWS));
+        int size = (length + count - 1) / count;
+        IntStream.range(0, count).parallel().forEach(i -> {
+            int from = i * size;
+            int to = Math.min(length, from + size);
+            if (from < to) band.run(from, to);
+        });
+    }
+}
@@ -0,0 +1,50 @@
+package com.healthcare.ai_appointmentscheduler.util;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A point on the {@link System#nanoTime()} clock by which a request must be answered.
+ * Stages ask it for their budget: their own limit, shortened to whatever the request has left.
+ */
+public final class Deadline {
+
+    private static final Deadline NONE = new Deadline(Long.MAX_VALUE);
+
+    private final long atNanos;
+
+    private Deadline(long atNanos) {
+        this.atNanos = atNanos;
+    }
+
+    /** No request-wide limit; stage limits still apply. */
+    public static Deadline none() {
+        return NONE;
+    }
+
+    /** A deadline {@code millis} from now; zero or less means none. */
+    public static Deadline after(long millis) {
+        return millis <= 0 ? NONE : new Deadline(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    public boolean isNone() {
+        return this == NONE;
+    }
+
+    public long remainingNanos() {
+        return isNone() ? Long.MAX_VALUE : Math.max(0, atNanos - System.nanoTime());
+    }
+
+    public boolean expired() {
+        return remainingNanos() == 0;
+    }
+
+    /**
+     * Budget in milliseconds for a stage limited to {@code stageMillis} (zero or less = unlimited),
+     * never more than the time left; {@link Long#MAX_VALUE} when neither limit applies.
+     */
+    public long budgetMillis(long stageMillis) {
+        long stage = stageMillis <= 0 ? Long.MAX_VALUE : stageMillis;
+        long left = isNone() ? Long.MAX_VALUE : TimeUnit.NANOSECONDS.toMillis(remainingNanos());
+        return Math.min(stage, left);
+    }
+}
@@ -0,0 +1,163 @@
+package com.healthcare.ai_appointmentscheduler.util;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.util.Arrays;
+
+/**
+ * Skew and orientation estimate for photographed slips, so OCR gets level, upright text.
+ *
+ *  - The image is drawn into a small gray sample (longest side sample-side pixels) and split into
+ *    ink and paper with one Otsu threshold.
+ *  - Skew: the ink is projected onto the vertical axis at candidate angles. Level text lines give
+ *    the sharpest profile (largest sum of squared bin counts), so the best angle is the line angle.
+ *    Angles near 0 and near 90 degrees are both searched, which also catches sideways photos;
+ *    a coarse pass in whole degrees is refined in tenths around the winner.
+ *  - Upside down: once level, Latin text has more ink above its x-height band (ascenders, capitals)
+ *    than below it (descenders). A line profile heavier below means the text is rotated 180 degrees.
+ *
+ * The caller applies the result as a single rotation; the estimate itself only reads the sample.
+ */
+public final class Deskew {
+
+    /**
+     * Clockwise rotation in degrees (-180, 180] that levels the text, as Graphics2D.rotate applies it,
+     * and how much sharper the line profile is at the detected angle than as is (0 = no better).
+     */
+    public record Estimate(double degrees, double gain) {
+        public static final Estimate NONE = new Estimate(0, 0);
+
+        public boolean isNone() {
+            return degrees == 0;
+        }
+    }
+
+    // Too little ink to tell lines from noise.
+    private static final int MIN_INK = 64;
+    // The best angle must beat "as is" by this share, or the image is left alone.
+    private static final double MIN_GAIN = 0.10;
+    // Descender ink must outweigh ascender ink by this factor to flip the text.
+    private static final double FLIP_RATIO = 1.25;
+
+    private Deskew() {}
+
+    /**
+     * Estimates the correction for a decoded image from a sample whose longest side is at most
+     * {@code sampleSide} pixels, searching skews up to {@code maxSkewDegrees} either way.
+     */
+    public static Estimate estimate(BufferedImage img, int sampleSide, double maxSkewDegrees) {
+        int w = img.getWidth(), h = img.getHeight();
+        double f = Math.min(1.0, (double) sampleSide / Math.max(w, h));
+        int sw = Math.max(1, (int) Math.round(w * f)), sh = Math.max(1, (int) Math.round(h * f));
+
+        BufferedImage sample = new BufferedImage(sw, sh, BufferedImage.TYPE_BYTE_GRAY);
+        Graphics2D g = sample.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.drawImage(img, 0, 0, sw, sh, null);
+        g.dispose();
+        byte[] gray = ((DataBufferByte) sample.getRaster().getDataBuffer()).getData();
+        return estimate(gray, sw, sh, maxSkewDegrees);
+    }
+
+    /** As above on 8-bit gray pixels (row-major, w * h), already at sample size. */
+    public static Estimate estimate(byte[] gray, int w, int h, double maxSkewDegrees) {
+        int[] hist = Binarizer.histogram(gray);
+        int threshold = Binarizer.otsuThreshold(hist, gray.length);
+        int dark = 0;
+        for (int v = 0; v < threshold; v++) dark += hist[v];
+        // Ink is the minority class: dark text on paper, or light text on a dark background.
+        boolean inkIsDark = dark <= gray.length / 2;
+        int ink = inkIsDark ? dark : gray.length - dark;
+        if (ink < MIN_INK) return Estimate.NONE;
+
+        // Coordinates relative to the centre, so every angle projects into the same bin range.
+        int[] xs = new int[ink], ys = new int[ink];
+        int n = 0;
+        for (int y = 0, i = 0; y < h; y++) {
+            for (int x = 0; x < w; x++, i++) {
+                if (((gray[i] & 0xFF) < threshold) == inkIsDark) {
+                    xs[n] = x - w / 2;
+                    ys[n] = y - h / 2;
+                    n++;
+                }
+            }
+        }
+        int radius = (int) Math.ceil(Math.hypot(w, h) / 2) + 1;
+        int[] bins = new int[2 * radius + 1];
+
+        double asIs = sharpness(xs, ys, 0, bins, radius);
+        double best = 0, bestScore = -1;
+        for (double base : new double[]{0, 90}) {
+            for (double a = base - maxSkewDegrees; a <= base + maxSkewDegrees + 1e-9; a += 1) {
+                double s = sharpness(xs, ys, a, bins, radius);
+                if (s > bestScore) {
+                    bestScore = s;
+                    best = a;
+                }
+            }
+        }
+        double coarse = best;
+        for (double a = coarse - 1; a <= coarse + 1 + 1e-9; a += 0.1) {
+            double s = sharpness(xs, ys, a, bins, radius);
+            if (s > bestScore) {
+                bestScore = s;
+                best = a;
+            }
+        }
+        double gain = asIs > 0 ? bestScore / asIs - 1 : 0;
+        double lines = gain >= MIN_GAIN ? Math.round(best * 10) / 10.0 : 0;
+
+        sharpness(xs, ys, lines, bins, radius);
+        double degrees = -lines + (upsideDown(bins) ? 180 : 0);
+        degrees = Math.IEEEremainder(degrees, 360);
+        if (degrees == -180) degrees = 180;
+        return degrees == 0 ? Estimate.NONE : new Estimate(degrees, Math.max(0, gain));
+    }
+
+    // -------- Helpers --------
+
+    /**
+     * Fills {@code bins} with the ink profile across lines running at {@code degrees} and returns
+     * its sum of squares.
+     */
+    private static double sharpness(int[] xs, int[] ys, double degrees, int[] bins, int radius) {
+        double r = Math.toRadians(degrees), sin = Math.sin(r), cos = Math.cos(r);
+        Arrays.fill(bins, 0);
+        for (int i = 0; i < xs.length; i++) {
+            bins[(int) Math.round(ys[i] * cos - xs[i] * sin) + radius]++;
+        }
+        double sum = 0;
+        for (int b : bins) sum += (double) b * b;
+        return sum;
+    }
+
+    /** Compares ink above and below the x-height band of each text line in a level profile. */
+    private static boolean upsideDown(int[] profile) {
+        int peak = 0;
+        for (int c : profile) peak = Math.max(peak, c);
+        int floor = Math.max(1, peak / 20);
+
+        long above = 0, below = 0;
+        int i = 0;
+        while (i < profile.length) {
+            if (profile[i] < floor) {
+                i++;
+                continue;
+            }
+            int top = i;
+            while (i < profile.length && profile[i] >= floor) i++;
+            int bottom = i - 1;
+            if (bottom - top < 3) continue;
+
+            int lineMax = 0;
+            for (int y = top; y <= bottom; y++) lineMax = Math.max(lineMax, profile[y]);
+            int bandTop = top, bandBottom = bottom;
+            while (profile[bandTop] * 2 < lineMax) bandTop++;
+            while (profile[bandBottom] * 2 < lineMax) bandBottom--;
+            for (int y = top; y < bandTop; y++) above += profile[y];
+            for (int y = bandBottom + 1; y <= bottom; y++) below += profile[y];
+        }
+        return below > above * FLIP_RATIO;
+    }
+}
@@ -0,0 +1,174 @@
+package com.healthcare.ai_appointmentscheduler.util;
+
+import java.io.*;
+import java.util.List;
+
+/**
+ * A linear text classifier (multinomial logistic regression) over hashed character n-grams.
+ *
+ *  - Text is lower-cased, anything but letters and digits becomes one space, and it is padded
+ *    with a space either side, so "Tooth-ache!" and " tooth ache " give the same features.
+ *  - Every n-gram of minN..maxN characters is hashed (FNV-1a) into one of {@code dims} buckets.
+ *  - Weights are one flat float array, feature-major ({@code weights[bucket * classes + class]}),
+ *    so a feature touches one contiguous run; the score of a class is its bias plus the bucket
+ *    weights summed and scaled by 1/sqrt(n-gram count), and a softmax turns scores into probabilities.
+ *
+ * Prediction scans the text once and writes into a caller-owned buffer, so it allocates nothing.
+ * Models are written by {@link IntentModelTrainer}.
+ */
+public final class HashedNgramModel {
+
+    private static final int MAGIC = 0x484E4743; // "HNGC"
+    private static final int VERSION = 1;
+
+    private final String[] labels;
+    private final int dims;
+    private final int minN;
+    private final int maxN;
+    private final float[] bias;
+    private final float[] weights;
+
+    /** Wraps (does not copy) {@code bias} and {@code weights}. */
+    public HashedNgramModel(List<String> labels, int dims, int minN, int maxN, float[] bias, float[] weights) {
+        if (Integer.bitCount(dims) != 1) throw new IllegalArgumentException("dims must be a power of two: " + dims);
+        if (minN < 1 || maxN > 5 || minN > maxN) throw new IllegalArgumentException("n-gram range " + minN + ".." + maxN);
+        if (bias.length != labels.size() || weights.length != dims * labels.size()) {
+            throw new IllegalArgumentException("weights do not match " + labels.size() + " classes x " + dims + " buckets");
+        }
+        this.labels = labels.toArray(String[]::new);
+        this.dims = dims;
+        this.minN = minN;
+        this.maxN = maxN;
+        this.bias = bias;
+        this.weights = weights;
+    }
+
+    public int classes() {
+        return labels.length;
+    }
+
+    public String label(int i) {
+        return labels[i];
+    }
+
+    public int dims() {
+        return dims;
+    }
+
+    /**
+     * Class probabilities of {@code text} into {@code probabilities} (at least {@link #classes()} long).
+     * @return the most probable class
+     */
+    public int predict(CharSequence text, float[] probabilities) {
+        int k = labels.length;
+        for (int c = 0; c < k; c++) probabilities[c] = 0;
+        int n = scan(text, null, probabilities);
+
+        float scale = n == 0 ? 0 : (float) (1 / Math.sqrt(n));
+        int best = 0;
+        float max = Float.NEGATIVE_INFINITY;
+        for (int c = 0; c < k; c++) {
+            probabilities[c] = bias[c] + scale * probabilities[c];
+            if (probabilities[c] > max) {
+                max = probabilities[c];
+                best = c;
+            }
+        }
+        float sum = 0;
+        for (int c = 0; c < k; c++) {
+            probabilities[c] = (float) Math.exp(probabilities[c] - max);
+            sum += probabilities[c];
+        }
+        for (int c = 0; c < k; c++) probabilities[c] /= sum;
+        return best;
+    }
+
+    /**
+     * The n-gram buckets of {@code text}, in order and with repeats, as the model sees them.
+     * @return how many were written; at most {@code buckets.length}
+     */
+    public int features(CharSequence text, int[] buckets) {
+        return scan(text, buckets, null);
+    }
+
+    // -------- Persistence --------
+
+    public void write(OutputStream out) throws IOException {
+        DataOutputStream d = new DataOutputStream(new BufferedOutputStream(out));
+        d.writeInt(MAGIC);
+        d.writeInt(VERSION);
+        d.writeInt(dims);
+        d.writeInt(minN);
+        d.writeInt(maxN);
+        d.writeInt(labels.length);
+        for (String l : labels) d.writeUTF(l);
+        for (float b : bias) d.writeFloat(b);
+        for (float w : weights) d.writeFloat(w);
+        d.flush();
+    }
+
+    public static HashedNgramModel read(InputStream in) throws IOException {
+        DataInputStream d = new DataInputStream(new BufferedInputStream(in));
+        if (d.readInt() != MAGIC) throw new IOException("Not a hashed n-gram model");
+        int version = d.readInt();
+        if (version != VERSION) throw new IOException("Unsupported model version " + version);
+        int dims = d.readInt(), minN = d.readInt(), maxN = d.readInt(), k = d.readInt();
+        String[] labels = new String[k];
+        for (int i = 0; i < k; i++) labels[i] = d.readUTF();
+        float[] bias = new float[k];
+        for (int i = 0; i < k; i++) bias[i] = d.readFloat();
+        float[] weights = new float[dims * k];
+        for (int i = 0; i < weights.length; i++) weights[i] = d.readFloat();
+        return new HashedNgramModel(List.of(labels), dims, minN, maxN, bias, weights);
+    }
+
+    // -------- Helpers --------
+
+    /**
+     * Walks the n-grams of the normalized text once: records their buckets into {@code buckets}
+     * and/or adds their weights into {@code scores}. Returns the number of n-grams seen.
+     */
+    private int scan(CharSequence text, int[] buckets, float[] scores) {
+        int k = labels.length;
+        // The last five normalized characters, c0 the newest; 0 = before the start.
+        int c0 = 0, c1 = 0, c2 = 0, c3 = 0, c4 = 0;
+        int seen = 0, count = 0;
+        int len = text == null ? 0 : text.length();
+        boolean lastSpace = false;
+
+        for (int i = -1; i <= len; i++) {
+            char ch;
+            if (i < 0 || i == len) {
+                ch = ' ';
+            } else {
+                ch = Character.toLowerCase(text.charAt(i));
+                if (!Character.isLetterOrDigit(ch)) ch = ' ';
+            }
+            if (ch == ' ' && lastSpace) continue;
+            lastSpace = ch == ' ';
+
+            c4 = c3; c3 = c2; c2 = c1; c1 = c0; c0 = ch;
+            seen++;
+            for (int n = minN; n <= maxN && n <= seen; n++) {
+                int h = 0x811C9DC5 ^ n;
+                h = (h ^ c0) * 0x01000193;
+                if (n > 1) h = (h ^ c1) * 0x01000193;
+                if (n > 2) h = (h ^ c2) * 0x01000193;
+                if (n > 3) h = (h ^ c3) * 0x01000193;
+                if (n > 4) h = (h ^ c4) * 0x01000193;
+                int bucket = (h ^ (h >>> 16)) & (dims - 1);
+
+                if (buckets != null) {
+                    if (count == buckets.length) return count;
+                    buckets[count] = bucket;
+                }
+                if (scores != null) {
+                    int base = bucket * k;
+                    for (int c = 0; c < k; c++) scores[c] += weights[base + c];
+                }
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,144 @@
+package com.healthcare.ai_appointmentscheduler.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Offline trainer for {@link HashedNgramModel}: multinomial logistic regression fitted with SGD.
+ *
+ * Input is a TSV of {@code label <TAB> text} lines ('#' starts a comment). Each example is also
+ * trained with scheduling phrases around it ("book ... tomorrow at 3pm"), so the words every
+ * request shares carry no class weight and the model learns from the complaint alone.
+ * Before the final fit on everything, one fifth of the examples is held out and the accuracy
+ * on it is printed; runs are deterministic for a given seed.
+ *
+ * Command line:
+ * <pre>
+ *   java -cp app.jar com.healthcare.ai_appointmentscheduler.util.IntentModelTrainer &lt;train.tsv&gt; &lt;model.bin&gt; [dims] [epochs] [seed]
+ * </pre>
+ * The department model ships as classpath:models/department-intent.bin, trained from
+ * src/test/resources/intent/department-intents.tsv with the defaults.
+ */
+public final class IntentModelTrainer {
+
+    public record Example(String label, String text) {}
+
+    private static final String[] PREFIXES = {
+            "", "book ", "please book ", "appointment for ", "i have ", "need to see someone for ",
+            "my son has ", "consultation for ", "can i come in for ", "schedule me for "
+    };
+    private static final String[] SUFFIXES = {
+            "", " tomorrow at 3pm", " next friday 10am", " on monday morning", " today", " at 4:30 pm",
+            " on march 10 at 11am", " next week", " asap", " day after tomorrow", " this evening"
+    };
+    private static final int MIN_N = 3, MAX_N = 5, MAX_FEATURES = 1024;
+    private static final int AUGMENT = 6;
+    private static final double LEARNING_RATE = 0.5, L2 = 1e-6;
+
+    private IntentModelTrainer() {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: IntentModelTrainer <train.tsv> <model.bin> [dims] [epochs] [seed]");
+            System.exit(2);
+        }
+        List<Example> examples = readTsv(Path.of(args[0]));
+        int dims = args.length > 2 ? Integer.parseInt(args[2]) : 4096;
+        int epochs = args.length > 3 ? Integer.parseInt(args[3]) : 30;
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : 7;
+
+        List<Example> shuffled = new ArrayList<>(examples);
+        Collections.shuffle(shuffled, new Random(seed));
+        int cut = shuffled.size() / 5;
+        HashedNgramModel trial = train(shuffled.subList(cut, shuffled.size()), labels(examples), dims, epochs, seed);
+        System.err.printf("held-out accuracy %.3f on %d examples%n", accuracy(trial, shuffled.subList(0, cut)), cut);
+
+        HashedNgramModel model = train(examples, labels(examples), dims, epochs, seed);
+        System.err.printf("training accuracy %.3f on %d examples%n", accuracy(model, examples), examples.size());
+        try (OutputStream out = Files.newOutputStream(Path.of(args[1]))) {
+            model.write(out);
+        }
+        System.err.printf("wrote %s: %d classes, %d buckets%n", args[1], model.classes(), model.dims());
+    }
+
+    public static List<Example> readTsv(Path file) throws IOException {
+        List<Example> out = new ArrayList<>();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            if (line.isBlank() || line.startsWith("#")) continue;
+            int tab = line.indexOf('\t');
+            if (tab < 0) throw new IOException("Expected label<TAB>text: " + line);
+            out.add(new Example(line.substring(0, tab).trim(), line.substring(tab + 1).trim()));
+        }
+        return out;
+    }
+
+    /** Fits a model; labels keep their order of first appearance in {@code examples}. */
+    public static HashedNgramModel train(List<Example> examples, List<String> labels, int dims, int epochs, long seed) {
+        int k = labels.size();
+        float[] bias = new float[k];
+        float[] weights = new float[dims * k];
+        // The model wraps the arrays, so it extracts features exactly as it will at inference.
+        HashedNgramModel model = new HashedNgramModel(labels, dims, MIN_N, MAX_N, bias, weights);
+
+        Random random = new Random(seed);
+        List<int[]> features = new ArrayList<>();
+        List<Integer> targets = new ArrayList<>();
+        int[] buf = new int[MAX_FEATURES];
+        for (Example e : examples) {
+            int target = labels.indexOf(e.label());
+            for (int a = 0; a <= AUGMENT; a++) {
+                String text = a == 0 ? e.text()
+                        : PREFIXES[random.nextInt(PREFIXES.length)] + e.text() + SUFFIXES[random.nextInt(SUFFIXES.length)];
+                features.add(Arrays.copyOf(buf, model.features(text, buf)));
+                targets.add(target);
+            }
+        }
+
+        Integer[] order = new Integer[features.size()];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        double[] p = new double[k];
+        for (int epoch = 0; epoch < epochs; epoch++) {
+            Collections.shuffle(Arrays.asList(order), random);
+            double lr = LEARNING_RATE / (1 + 0.1 * epoch);
+            for (int idx : order) {
+                int[] f = features.get(idx);
+                int y = targets.get(idx);
+                double scale = f.length == 0 ? 0 : 1 / Math.sqrt(f.length);
+
+                double max = Double.NEGATIVE_INFINITY;
+                for (int c = 0; c < k; c++) {
+                    double s = 0;
+                    for (int b : f) s += weights[b * k + c];
+                    p[c] = bias[c] + scale * s;
+                    max = Math.max(max, p[c]);
+                }
+                double sum = 0;
+                for (int c = 0; c < k; c++) sum += p[c] = Math.exp(p[c] - max);
+
+                for (int c = 0; c < k; c++) {
+                    double g = p[c] / sum - (c == y ? 1 : 0);
+                    bias[c] -= (float) (lr * g);
+                    for (int b : f) {
+                        int w = b * k + c;
+                        weights[w] -= (float) (lr * (g * scale + L2 * weights[w]));
+                    }
+                }
+            }
+        }
+        return model;
+    }
+
+    private static List<String> labels(List<Example> examples) {
+        return examples.stream().map(Example::label).distinct().toList();
+    }
+
+    private static double accuracy(HashedNgramModel model, List<Example> examples) {
+        float[] p = new float[model.classes()];
+        long hits = examples.stream().filter(e -> model.label(model.predict(e.text(), p)).equals(e.label())).count();
+        return examples.isEmpty() ? 0 : (double) hits / examples.size();
+    }
+}
@@ -0,0 +1,87 @@
+package com.healthcare.ai_appointmentscheduler.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Bounded, lock-free multi-producer / single-consumer queue over a power-of-two ring.
+ *
+ * Every slot carries a sequence number: a producer claims a position with one CAS on the tail
+ * and publishes the element by advancing the slot's sequence; the consumer reads a slot once its
+ * sequence says it is published and hands it back by advancing the sequence one lap. Producers
+ * never wait for each other beyond a failed CAS, and a full ring is reported instead of blocking.
+ */
+public final class MpscRingBuffer<E> {
+
+    private final int mask;
+    private final AtomicReferenceArray<E> slots;
+    private final AtomicLongArray sequence;
+    private final AtomicLong tail = new AtomicLong();
+    // written by the single consumer only; volatile so size() is meaningful on other threads
+    private volatile long head;
+
+    public MpscRingBuffer(int capacity) {
+        if (capacity < 2) throw new IllegalArgumentException("capacity must be at least 2");
+        int size = Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = size - 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.sequence = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) sequence.set(i, i);
+    }
+
+    /** Adds an element; any thread. @return false when the ring is full */
+    public boolean offer(E e) {
+        long pos = tail.get();
+        while (true) {
+            int i = (int) pos & mask;
+            long diff = sequence.getAcquire(i) - pos;
+            if (diff == 0) {
+                if (tail.weakCompareAndSetVolatile(pos, pos + 1)) {
+                    slots.setPlain(i, e);
+                    sequence.setRelease(i, pos + 1);
+                    return true;
+                }
+                pos = tail.get();
+            } else if (diff < 0) {
+                return false;
+            } else {
+                pos = tail.get();
+            }
+        }
+    }
+
+    /** Removes the oldest published element; consumer thread only. @return null when empty */
+    public E poll() {
+        long pos = head;
+        int i = (int) pos & mask;
+        if (sequence.getAcquire(i) != pos + 1) return null;
+        E e = slots.getPlain(i);
+        slots.setPlain(i, null);
+        sequence.setRelease(i, pos + mask + 1);
+        head = pos + 1;
+        return e;
+    }
+
+    /** Polls up to {@code max} elements into {@code sink}; consumer thread only. @return how many */
+    public int drain(Consumer<? super E> sink, int max) {
+        int n = 0;
+        E e;
+        while (n < max && (e = poll()) != null) {
+            sink.accept(e);
+            n++;
+        }
+        return n;
+    }
+
+    /** Approximate number of queued elements. */
+    public int size() {
+        long size = tail.get() - head;
+        return (int) Math.max(0, Math.min(size, capacity()));
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+}
@@ -0,0 +1,79 @@
+package com.healthcare.ai_appointmentscheduler.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size, thread-safe bitset used to track slot occupancy for one department on one day.
+ * Each bit is one slot of the day grid. Updates are lock-free CAS loops on the containing word,
+ * so two bookings only contend when they fall into the same 64-slot word.
+ */
+public final class SlotBitmap {
+
+    private final int size;
+    private final AtomicLongArray words;
+
+    public SlotBitmap(int size) {
+        if (size <= 0) throw new IllegalArgumentException("size must be positive");
+        this.size = size;
+        this.words = new AtomicLongArray((size + 63) >>> 6);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int wordCount() {
+        return words.length();
+    }
+
+    /**
+     * Atomically marks the slot as taken.
+     * @return true if this call took the slot, false if it was already taken.
+     */
+    public boolean tryMark(int slot) {
+        checkIndex(slot);
+        int idx = slot >>> 6;
+        long bit = 1L << slot;
+        while (true) {
+            long cur = words.get(idx);
+            if ((cur & bit) != 0) return false;
+            if (words.compareAndSet(idx, cur, cur | bit)) return true;
+        }
+    }
+
+    /**
+     * Atomically frees the slot.
+     * @return true if the slot was taken before this call.
+     */
+    public boolean clear(int slot) {
+        checkIndex(slot);
+        int idx = slot >>> 6;
+        long bit = 1L << slot;
+        while (true) {
+            long cur = words.get(idx);
+            if ((cur & bit) == 0) return false;
+            if (words.compareAndSet(idx, cur, cur & ~bit)) return true;
+        }
+    }
+
+    public boolean isMarked(int slot) {
+        checkIndex(slot);
+        return (words.get(slot >>> 6) & (1L << slot)) != 0;
+    }
+
+    /** Raw word access (bit i of word w is slot w * 64 + i). */
+    public long word(int wordIndex) {
+        return words.get(wordIndex);
+    }
+
+    /** ORs the given bits into a word; used when restoring state. */
+    public void orWord(int wordIndex, long bits) {
+        words.getAndAccumulate(wordIndex, bits, (a, b) -> a | b);
+    }
+
+    private void checkIndex(int slot) {
+        if (slot < 0 || slot >= size) {
+            throw new IndexOutOfBoundsException("slot " + slot + " outside 0.." + (size - 1));
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.healthcare.ai_appointmentscheduler.util;
+
+import java.util.*;
+
+/**
+ * Spelling correction by symmetric deletes (the SymSpell scheme).
+ *
+ *  - At build time every dictionary word is indexed under itself and every string reachable from
+ *    it by deleting up to {@code maxDistance} characters ("friday" -> "fiday", "frday", "fday", ...).
+ *  - A lookup generates the deletes of the query the same way and probes the index with each:
+ *    two words within distance d always share a delete variant, so the candidates are found by
+ *    hash lookups alone, never by scanning the dictionary.
+ *  - Candidates are verified with the optimal-string-alignment distance (Levenshtein plus adjacent
+ *    transpositions); the closest wins, then the most frequent, then the alphabetically first.
+ *
+ * A query of length n costs O(n^d) probes, independent of dictionary size. Instances are
+ * immutable once built and safe to share between threads.
+ */
+public final class SymSpell {
+
+    private final int maxDistance;
+    private final Map<String, Integer> frequencies;
+    private final Map<String, String[]> deletes;
+
+    /** Indexes {@code words} (word to frequency; words are used as given) for lookups up to {@code maxDistance}. */
+    public SymSpell(Map<String, Integer> words, int maxDistance) {
+        if (maxDistance < 0 || maxDistance > 3) throw new IllegalArgumentException("maxDistance " + maxDistance);
+        this.maxDistance = maxDistance;
+        this.frequencies = Map.copyOf(words);
+
+        Map<String, List<String>> index = new HashMap<>();
+        for (String word : frequencies.keySet()) {
+            for (String variant : variants(word, maxDistance)) {
+                index.computeIfAbsent(variant, k -> new ArrayList<>(1)).add(word);
+            }
+        }
+        Map<String, String[]> compact = new HashMap<>(index.size() * 4 / 3 + 1);
+        index.forEach((variant, list) -> compact.put(variant, list.toArray(String[]::new)));
+        this.deletes = compact;
+    }
+
+    public boolean contains(String word) {
+        return frequencies.containsKey(word);
+    }
+
+    public int size() {
+        return frequencies.size();
+    }
+
+    public int maxDistance() {
+        return maxDistance;
+    }
+
+    /**
+     * The dictionary word closest to {@code term} within {@code distance} edits (capped at the
+     * build distance); {@code term} itself when it is a dictionary word, null when nothing is close.
+     */
+    public String lookup(String term, int distance) {
+        if (term == null || term.isEmpty()) return null;
+        if (frequencies.containsKey(term)) return term;
+        int max = Math.min(distance, maxDistance);
+        if (max <= 0) return null;
+
+        String best = null;
+        int bestDistance = max + 1;
+        int bestFrequency = 0;
+        Set<String> checked = new HashSet<>();
+
+        // Breadth first: every variant of one more delete is probed after all of the previous level.
+        List<String> level = List.of(term);
+        Set<String> seen = new HashSet<>(level);
+        for (int deleted = 0; deleted <= max && !level.isEmpty(); deleted++) {
+            // A candidate reached after k deletes of the term is at least k edits away.
+            if (deleted > bestDistance) break;
+            List<String> next = new ArrayList<>();
+            for (String variant : level) {
+                String[] words = deletes.get(variant);
+                if (words != null) {
+                    for (String word : words) {
+                        if (!checked.add(word)) continue;
+                        if (Math.abs(word.length() - term.length()) > Math.min(max, bestDistance)) continue;
+                        int d = distance(term, word, Math.min(max, bestDistance));
+                        if (d > max) continue;
+                        int f = frequencies.get(word);
+                        if (best == null || d < bestDistance || (d == bestDistance
+                                && (f > bestFrequency || (f == bestFrequency && word.compareTo(best) < 0)))) {
+                            best = word;
+                            bestDistance = d;
+                            bestFrequency = f;
+                        }
+                    }
+                }
+                if (deleted < max && variant.length() > 1) {
+                    for (int i = 0; i < variant.length(); i++) {
+                        String shorter = variant.substring(0, i) + variant.substring(i + 1);
+                        if (seen.add(shorter)) next.add(shorter);
+                    }
+                }
+            }
+            level = next;
+        }
+        return best;
+    }
+
+    /**
+     * Optimal-string-alignment distance between {@code a} and {@code b}, or {@code bound + 1}
+     * as soon as it is known to exceed {@code bound}.
+     */
+    public static int distance(String a, String b, int bound) {
+        int n = a.length(), m = b.length();
+        if (Math.abs(n - m) > bound) return bound + 1;
+        int[] prev2 = new int[m + 1], prev = new int[m + 1], cur = new int[m + 1];
+        for (int j = 0; j <= m; j++) prev[j] = j;
+        for (int i = 1; i <= n; i++) {
+            cur[0] = i;
+            int rowMin = cur[0];
+            for (int j = 1; j <= m; j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int d = Math.min(Math.min(prev[j] + 1, cur[j - 1] + 1), prev[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    d = Math.min(d, prev2[j - 2] + 1);
+                }
+                cur[j] = d;
+                rowMin = Math.min(rowMin, d);
+            }
+            if (rowMin > bound) return bound + 1;
+            int[] t = prev2; prev2 = prev; prev = cur; cur = t;
+        }
+        return Math.min(prev[m], bound + 1);
+    }
+
+    // -------- Helpers --------
+
+    // The word and everything up to `distance` deletes away from it.
+    private static Set<String> variants(String word, int distance) {
+        Set<String> out = new HashSet<>();
+        out.add(word);
+        List<String> level = List.of(word);
+        for (int d = 0; d < distance; d++) {
+            List<String> next = new ArrayList<>();
+            for (String v : level) {
+                if (v.length() <= 1) continue;
+                for (int i = 0; i < v.length(); i++) {
+                    String shorter = v.substring(0, i) + v.substring(i + 1);
+                    if (out.add(shorter)) next.add(shorter);
+                }
+            }
+            level = next;
+        }
+        return out;
+    }
+}
@@ -0,0 +1,143 @@
+package com.healthcare.ai_appointmentscheduler.util;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Extracts the English word list from a Tesseract language file, for the spelling lexicon.
+ *
+ * A .traineddata file is a table of components; the word list is the LSTM system DAWG, a
+ * "squished" directed acyclic word graph whose edges are 64-bit records (letter id, three flags,
+ * next node) stored node by node, with letters indexed by the LSTM unicharset. Walking it from
+ * node 0 yields every word. Only lower-case ASCII words of three letters or more are kept, since
+ * capitalised entries are names and shorter words are never corrected.
+ *
+ * Command line:
+ * <pre>
+ *   java -cp app.jar com.healthcare.ai_appointmentscheduler.util.TessdataWordList &lt;eng.traineddata&gt; &lt;exclude.txt&gt; &lt;lexicon.txt.gz&gt;
+ * </pre>
+ * The shipped classpath:spelling/lexicon-en.txt.gz comes from tessdata/eng.traineddata in the
+ * tess4j jar, minus the misspellings listed in src/test/resources/spelling/lexicon-exclude.txt
+ * (the web-derived list contains "tomorow" and "nxt", which must stay correctable).
+ */
+public final class TessdataWordList {
+
+    // Component indexes of the tessdata container (TessdataType in Tesseract).
+    private static final int UNICHARSET = 1, SYSTEM_DAWG = 7, LSTM_SYSTEM_DAWG = 19, LSTM_UNICHARSET = 21;
+    private static final int DAWG_MAGIC = 42;
+    private static final int MARKER_FLAG = 1, DIRECTION_FLAG = 2, WORD_END_FLAG = 4, NUM_FLAG_BITS = 3;
+
+    private TessdataWordList() {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.err.println("usage: TessdataWordList <eng.traineddata> <exclude.txt> <lexicon.txt.gz>");
+            System.exit(2);
+        }
+        Set<String> exclude = new HashSet<>();
+        for (String line : Files.readAllLines(Path.of(args[1]), StandardCharsets.UTF_8)) {
+            if (!line.isBlank() && !line.startsWith("#")) exclude.addAll(List.of(line.trim().split("\\s+")));
+        }
+        List<String> words;
+        try (InputStream in = Files.newInputStream(Path.of(args[0]))) {
+            words = read(in).stream().filter(TessdataWordList::isLexiconWord).filter(w -> !exclude.contains(w))
+                    .distinct().sorted().toList();
+        }
+        try (Writer out = new OutputStreamWriter(new GZIPOutputStream(Files.newOutputStream(Path.of(args[2]))),
+                StandardCharsets.UTF_8)) {
+            for (String w : words) out.write(w + "\n");
+        }
+        System.err.printf("wrote %s: %d words%n", args[2], words.size());
+    }
+
+    /** Every word of the system DAWG (LSTM one when present), in graph order. */
+    public static List<String> read(InputStream traineddata) throws IOException {
+        ByteBuffer buf = ByteBuffer.wrap(traineddata.readAllBytes()).order(ByteOrder.LITTLE_ENDIAN);
+        int count = buf.getInt(0);
+        long[] offsets = new long[count];
+        for (int i = 0; i < count; i++) offsets[i] = buf.getLong(4 + 8 * i);
+
+        boolean lstm = count > LSTM_UNICHARSET && offsets[LSTM_SYSTEM_DAWG] >= 0 && offsets[LSTM_UNICHARSET] >= 0;
+        byte[] unicharset = component(buf, offsets, lstm ? LSTM_UNICHARSET : UNICHARSET);
+        byte[] dawg = component(buf, offsets, lstm ? LSTM_SYSTEM_DAWG : SYSTEM_DAWG);
+        if (unicharset == null || dawg == null) throw new IOException("No word list in this traineddata file");
+        return walk(dawg, letters(unicharset));
+    }
+
+    private static boolean isLexiconWord(String w) {
+        if (w.length() < 3) return false;
+        for (int i = 0; i < w.length(); i++) {
+            if (w.charAt(i) < 'a' || w.charAt(i) > 'z') return false;
+        }
+        return true;
+    }
+
+    // -------- Helpers --------
+
+    // Bytes of component i: up to the next component present, or the end of the file.
+    private static byte[] component(ByteBuffer buf, long[] offsets, int i) {
+        if (i >= offsets.length || offsets[i] < 0) return null;
+        long end = buf.capacity();
+        for (int j = i + 1; j < offsets.length; j++) {
+            if (offsets[j] >= 0) {
+                end = offsets[j];
+                break;
+            }
+        }
+        byte[] out = new byte[(int) (end - offsets[i])];
+        buf.get((int) offsets[i], out);
+        return out;
+    }
+
+    // Unicharset text: a count line, then one line per id starting with the character ("NULL" = id 0).
+    private static String[] letters(byte[] unicharset) {
+        String[] lines = new String(unicharset, StandardCharsets.UTF_8).split("\n");
+        int n = Integer.parseInt(lines[0].trim());
+        String[] out = new String[n];
+        for (int i = 0; i < n; i++) {
+            String first = lines[i + 1].split(" ", 2)[0];
+            out[i] = first.equals("NULL") ? " " : first;
+        }
+        return out;
+    }
+
+    private static List<String> walk(byte[] dawg, String[] letters) throws IOException {
+        ByteBuffer b = ByteBuffer.wrap(dawg).order(ByteOrder.LITTLE_ENDIAN);
+        if (b.getShort() != DAWG_MAGIC) throw new IOException("Not a squished DAWG");
+        int unicharsetSize = b.getInt();
+        int edgeCount = b.getInt();
+        long[] edges = new long[edgeCount];
+        for (int i = 0; i < edgeCount; i++) edges[i] = b.getLong();
+
+        int flagShift = 64 - Long.numberOfLeadingZeros(Math.max(1, unicharsetSize - 1));
+        long letterMask = (1L << flagShift) - 1;
+        int nextShift = flagShift + NUM_FLAG_BITS;
+
+        // Depth first over (node, prefix); a node's edges run until the one with the marker flag.
+        List<String> words = new ArrayList<>();
+        Deque<Map.Entry<Integer, String>> stack = new ArrayDeque<>();
+        stack.push(Map.entry(0, ""));
+        while (!stack.isEmpty()) {
+            Map.Entry<Integer, String> top = stack.pop();
+            for (int e = top.getKey(); e < edgeCount; e++) {
+                long rec = edges[e];
+                int flags = (int) (rec >>> flagShift) & ((1 << NUM_FLAG_BITS) - 1);
+                if ((flags & DIRECTION_FLAG) == 0) {
+                    int letter = (int) (rec & letterMask);
+                    String word = top.getValue() + (letter < letters.length ? letters[letter] : "?");
+                    if ((flags & WORD_END_FLAG) != 0) words.add(word);
+                    int next = (int) (rec >>> nextShift);
+                    if (next != 0) stack.push(Map.entry(next, word));
+                }
+                if ((flags & MARKER_FLAG) != 0) break;
+            }
+        }
+        return words;
+    }
+}
@@ -0,0 +1,44 @@
+package com.healthcare.ai_appointmentscheduler.util;
+
+/**
+ * Classic token bucket: {@code capacity} tokens, refilled continuously at {@code refillPerSecond}.
+ * Synchronized per bucket; buckets are per client so contention stays local.
+ */
+public final class TokenBucket {
+
+    private final double capacity;
+    private final double refillPerNano;
+    private double tokens;
+    private long lastRefill;
+    private volatile long lastUsed;
+
+    public TokenBucket(double capacity, double refillPerSecond, long nowNanos) {
+        this.capacity = capacity;
+        this.refillPerNano = refillPerSecond / 1_000_000_000.0;
+        this.tokens = capacity;
+        this.lastRefill = nowNanos;
+        this.lastUsed = nowNanos;
+    }
+
+    /**
+     * Takes one token.
+     * @return 0 if granted, otherwise the nanoseconds until a token becomes available.
+     */
+    public synchronized long tryAcquire(long nowNanos) {
+        lastUsed = nowNanos;
+        long elapsed = nowNanos - lastRefill;
+        if (elapsed > 0) {
+            tokens = Math.min(capacity, tokens + elapsed * refillPerNano);
+            lastRefill = nowNanos;
+        }
+        if (tokens >= 1.0) {
+            tokens -= 1.0;
+            return 0;
+        }
+        return (long) Math.ceil((1.0 - tokens) / refillPerNano);
+    }
+
+    public long getLastUsed() {
+        return lastUsed;
+    }
+}
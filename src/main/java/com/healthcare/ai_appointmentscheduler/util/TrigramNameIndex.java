@@ -0,0 +1,284 @@
+package com.healthcare.ai_appointmentscheduler.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Fuzzy name lookup over a trigram inverted index kept in flat int arrays.
+ *
+ * Names are lower-cased, reduced to letters and single spaces, padded with a space on both sides
+ * and split into distinct trigrams over a 27-letter alphabet, so a trigram is a direct index into
+ * a 27^3 offset table. Each entry of the table points at a sorted run of name ids in one postings
+ * array. A name scores the share of query trigrams it contains (ties broken by Dice similarity,
+ * i.e. shorter names first).
+ *
+ * A lookup walks the query's runs together in id order. Candidates are drawn only from the rarest
+ * runs a qualifying name must appear in, the other runs are skipped through by galloping search,
+ * and the bar rises to the best score found so far, so common trigrams are rarely read in full.
+ * Nothing proportional to the directory size is allocated per lookup.
+ *
+ * The whole index is one buffer: heap-built via {@link #build}, or memory-mapped read-only via
+ * {@link #open}, in which case nothing but a few views lives on the heap. Layout (little-endian ints):
+ * <pre>
+ *   magic, version, nameCount, postingsCount, nameBytes, sourceChecksum
+ *   offsets[27^3 + 1]
+ *   postings[postingsCount]
+ *   names[nameCount * 4]     (byteOffset, byteLength, tag, trigramCount)
+ *   nameBytes                (UTF-8 display names)
+ * </pre>
+ */
+public final class TrigramNameIndex {
+
+    private static final int MAGIC = 0x54524958; // "TRIX"
+    private static final int VERSION = 1;
+    private static final int HEADER_INTS = 6;
+    private static final int TABLE = 27 * 27 * 27;
+    private static final int NAME_INTS = 4;
+
+    private final ByteBuffer buffer;
+    private final IntBuffer offsets;
+    private final IntBuffer postings;
+    private final IntBuffer names;
+    private final int nameBytesStart;
+    private final int nameCount;
+    private final int sourceChecksum;
+
+    /** Best match of a lookup; {@code unique} is false when another name matched as well. */
+    public record Match(int id, double score, boolean unique) {}
+
+    private TrigramNameIndex(ByteBuffer buffer) {
+        this.buffer = buffer;
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("Not a trigram name index (version " + VERSION + ")");
+        }
+        this.nameCount = buffer.getInt(8);
+        int postingsCount = buffer.getInt(12);
+        this.sourceChecksum = buffer.getInt(20);
+
+        int pos = HEADER_INTS * 4;
+        this.offsets = buffer.slice(pos, (TABLE + 1) * 4).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+        pos += (TABLE + 1) * 4;
+        this.postings = buffer.slice(pos, postingsCount * 4).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+        pos += postingsCount * 4;
+        this.names = buffer.slice(pos, nameCount * NAME_INTS * 4).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+        this.nameBytesStart = pos + nameCount * NAME_INTS * 4;
+    }
+
+    // -------- Building and loading --------
+
+    /**
+     * Builds an index in memory.
+     *
+     * @param displayNames names as they should be reported back
+     * @param tags         one int per name (e.g. a department index)
+     * @param sourceChecksum checksum of the source the names came from, kept for staleness checks
+     */
+    public static TrigramNameIndex build(List<String> displayNames, int[] tags, int sourceChecksum) {
+        int n = displayNames.size();
+        if (tags.length != n) throw new IllegalArgumentException("one tag per name required");
+
+        int[][] grams = new int[n][];
+        int[] counts = new int[TABLE + 1];
+        byte[][] utf8 = new byte[n][];
+        int nameBytes = 0;
+        for (int i = 0; i < n; i++) {
+            grams[i] = trigrams(normalize(displayNames.get(i)));
+            for (int g : grams[i]) counts[g + 1]++;
+            utf8[i] = displayNames.get(i).getBytes(StandardCharsets.UTF_8);
+            nameBytes += utf8[i].length;
+        }
+        for (int g = 0; g < TABLE; g++) counts[g + 1] += counts[g];
+        int postingsCount = counts[TABLE];
+
+        int size = (HEADER_INTS + TABLE + 1 + postingsCount + n * NAME_INTS) * 4 + nameBytes;
+        ByteBuffer buf = ByteBuffer.allocateDirect(size).order(ByteOrder.LITTLE_ENDIAN);
+        buf.putInt(MAGIC).putInt(VERSION).putInt(n).putInt(postingsCount).putInt(nameBytes).putInt(sourceChecksum);
+        for (int c : counts) buf.putInt(c);
+
+        // Names are visited in id order, so every postings run comes out sorted.
+        int postingsStart = buf.position();
+        int[] fill = Arrays.copyOf(counts, TABLE);
+        for (int i = 0; i < n; i++) {
+            for (int g : grams[i]) buf.putInt(postingsStart + 4 * fill[g]++, i);
+        }
+        buf.position(postingsStart + postingsCount * 4);
+
+        int byteOffset = 0;
+        for (int i = 0; i < n; i++) {
+            buf.putInt(byteOffset).putInt(utf8[i].length).putInt(tags[i]).putInt(grams[i].length);
+            byteOffset += utf8[i].length;
+        }
+        for (byte[] b : utf8) buf.put(b);
+        return new TrigramNameIndex(buf.clear());
+    }
+
+    /** Memory-maps an index file written by {@link #write}. */
+    public static TrigramNameIndex open(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new TrigramNameIndex(ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size()).order(ByteOrder.LITTLE_ENDIAN));
+        }
+    }
+
+    /** Writes the index atomically (temp file + rename). */
+    public void write(Path file) throws IOException {
+        Path dir = file.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path tmp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer src = buffer.duplicate().clear();
+            while (src.hasRemaining()) ch.write(src);
+            ch.force(true);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // -------- Lookup --------
+
+    /**
+     * Finds the name that contains the largest share of the query's trigrams.
+     * @return the best match scoring at least {@code minScore}, or null
+     */
+    public Match lookup(String query, double minScore) {
+        int[] q = trigrams(normalize(query));
+        int m = q.length;
+        if (m == 0 || nameCount == 0) return null;
+        int needed = Math.max(1, (int) Math.ceil(minScore * m));
+
+        // One cursor per query trigram over its postings run, rarest run first.
+        long[] runs = new long[m];
+        for (int i = 0; i < m; i++) {
+            runs[i] = ((long) (offsets.get(q[i] + 1) - offsets.get(q[i])) << 32) | q[i];
+        }
+        Arrays.sort(runs);
+        int[] pos = new int[m];
+        int[] end = new int[m];
+        for (int i = 0; i < m; i++) {
+            pos[i] = offsets.get((int) runs[i]);
+            end[i] = offsets.get((int) runs[i] + 1);
+        }
+
+        int best = -1, bestHits = 0, ties = 0;
+        double bestDice = 0;
+        while (true) {
+            // A name with `needed` hits must sit in one of the (m - needed + 1) rarest runs.
+            int lead = m - needed + 1;
+            int candidate = Integer.MAX_VALUE;
+            for (int j = 0; j < lead; j++) {
+                if (pos[j] < end[j]) candidate = Math.min(candidate, postings.get(pos[j]));
+            }
+            if (candidate == Integer.MAX_VALUE) break;
+
+            int hits = 0;
+            for (int j = 0; j < m && hits + (m - j) >= needed; j++) {
+                pos[j] = seek(pos[j], end[j], candidate);
+                if (pos[j] < end[j] && postings.get(pos[j]) == candidate) hits++;
+            }
+            for (int j = 0; j < lead; j++) {
+                if (pos[j] < end[j] && postings.get(pos[j]) == candidate) pos[j]++;
+            }
+            if (hits < needed) continue;
+
+            double dice = 2.0 * hits / (m + names.get(candidate * NAME_INTS + 3));
+            if (hits > bestHits) {
+                ties = 0;
+            } else {
+                ties++;
+                if (dice <= bestDice) continue;
+            }
+            best = candidate;
+            bestHits = hits;
+            bestDice = dice;
+            // From here on only names at least as good as the best one matter.
+            needed = bestHits;
+            // Two perfect matches: ambiguous, and nothing can beat them.
+            if (bestHits == m && ties > 0) break;
+        }
+        return best < 0 ? null : new Match(best, bestHits / (double) m, ties == 0);
+    }
+
+    public String name(int id) {
+        int off = names.get(id * NAME_INTS);
+        int len = names.get(id * NAME_INTS + 1);
+        byte[] b = new byte[len];
+        buffer.get(nameBytesStart + off, b);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+
+    public int tag(int id) {
+        return names.get(id * NAME_INTS + 2);
+    }
+
+    public int size() {
+        return nameCount;
+    }
+
+    public int sourceChecksum() {
+        return sourceChecksum;
+    }
+
+    /** Bytes held by the index (off-heap when memory-mapped). */
+    public long byteSize() {
+        return buffer.capacity();
+    }
+
+    // -------- Helpers --------
+
+    // First position in [p, end) whose id is >= target: gallop forward, then binary search.
+    private int seek(int p, int end, int target) {
+        if (p >= end || postings.get(p) >= target) return p;
+        int lo = p, step = 1;
+        while (p + step < end && postings.get(p + step) < target) {
+            lo = p + step;
+            step <<= 1;
+        }
+        int hi = Math.min(p + step, end);
+        lo++;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (postings.get(mid) < target) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    /** Lower-case letters and single spaces, padded with one space on each side. */
+    static String normalize(String s) {
+        StringBuilder sb = new StringBuilder(s.length() + 2).append(' ');
+        for (int i = 0; i < s.length(); i++) {
+            char c = Character.toLowerCase(s.charAt(i));
+            if (c >= 'a' && c <= 'z') sb.append(c);
+            else if (sb.charAt(sb.length() - 1) != ' ') sb.append(' ');
+        }
+        if (sb.charAt(sb.length() - 1) != ' ') sb.append(' ');
+        return sb.toString();
+    }
+
+    /** Distinct trigram ids of a normalized string, sorted. */
+    static int[] trigrams(String norm) {
+        if (norm.isBlank()) return new int[0];
+        int[] out = new int[norm.length() - 2];
+        for (int i = 0; i + 2 < norm.length(); i++) {
+            out[i] = code(norm.charAt(i)) * 729 + code(norm.charAt(i + 1)) * 27 + code(norm.charAt(i + 2));
+        }
+        Arrays.sort(out);
+        int k = 0;
+        for (int i = 0; i < out.length; i++) {
+            if (i == 0 || out[i] != out[i - 1]) out[k++] = out[i];
+        }
+        return Arrays.copyOf(out, k);
+    }
+
+    private static int code(char c) {
+        return c == ' ' ? 0 : c - 'a' + 1;
+    }
+}
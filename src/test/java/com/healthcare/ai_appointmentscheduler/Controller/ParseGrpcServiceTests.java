@@ -0,0 +1,82 @@
+package com.healthcare.ai_appointmentscheduler.Controller;
+
+import com.healthcare.ai_appointmentscheduler.grpc.*;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"grpc.enabled=false", "warmup.enabled=false", "booking.journal.enabled=false"})
+class ParseGrpcServiceTests {
+
+    @Autowired
+    private ParseGrpcService parseGrpcService;
+
+    private Server server;
+    private ManagedChannel channel;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        String name = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(name).directExecutor().addService(parseGrpcService).build().start();
+        channel = InProcessChannelBuilder.forName(name).directExecutor().build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        channel.shutdownNow();
+        server.shutdownNow();
+    }
+
+    @Test
+    void unaryTextMatchesRestSemantics() {
+        AppointmentParserGrpc.AppointmentParserBlockingStub stub = AppointmentParserGrpc.newBlockingStub(channel);
+
+        ParseReply ok = stub.parseText(TextRequest.newBuilder().setText("Book dentist next Friday at 3pm").build());
+        assertEquals(200, ok.getHttpStatus());
+        assertEquals("ok", ok.getStatus());
+        assertEquals("Dentist", ok.getAppointment().getDepartment());
+
+        ParseReply unclear = stub.parseText(TextRequest.newBuilder().setText("something soon").build());
+        assertEquals(422, unclear.getHttpStatus());
+        assertEquals("needs_clarification", unclear.getStatus());
+
+        ParseReply empty = stub.parseText(TextRequest.newBuilder().setText(" ").build());
+        assertEquals(400, empty.getHttpStatus());
+    }
+
+    @Test
+    void streamKeepsManyRequestsInFlight() throws Exception {
+        int n = 50;
+        Map<String, ParseReply> replies = new ConcurrentHashMap<>();
+        CountDownLatch done = new CountDownLatch(1);
+
+        StreamObserver<ParseRequest> requests = AppointmentParserGrpc.newStub(channel).parseStream(new StreamObserver<>() {
+            @Override public void onNext(ParseReply reply) { replies.put(reply.getRequestId(), reply); }
+            @Override public void onError(Throwable t) { done.countDown(); }
+            @Override public void onCompleted() { done.countDown(); }
+        });
+        for (int i = 0; i < n; i++) {
+            requests.onNext(ParseRequest.newBuilder().setRequestId("r" + i)
+                    .setText(TextRequest.newBuilder().setText("cardiologist tomorrow " + (9 + i % 8) + "am")).build());
+        }
+        requests.onCompleted();
+
+        assertTrue(done.await(30, TimeUnit.SECONDS));
+        assertEquals(n, replies.size());
+        replies.values().forEach(r -> assertEquals("cardiologist", r.getEntities().getDepartment()));
+    }
+}
@@ -0,0 +1,40 @@
+package com.healthcare.ai_appointmentscheduler.service;
+
+import com.healthcare.ai_appointmentscheduler.service.AdmissionControlService.Decision;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionControlServiceTests {
+
+    private final AdmissionControlService admission = new AdmissionControlService(new MockEnvironment()
+            .withProperty("admission.text.burst", "2")
+            .withProperty("admission.text.rate-per-second", "0.001")
+            .withProperty("admission.text.initial-concurrency", "32")
+            .withProperty("admission.text.max-concurrency", "64")
+            .withProperty("admission.max-tracked-clients", "10"), new SimpleMeterRegistry());
+
+    @Test
+    void requestsWithoutServiceTimeLeaveTheLimitAlone() {
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals(Decision.ADMITTED, admission.tryAdmit("text", "client-" + i).decision());
+            admission.release("text", 0); // 400s, replays and failures carry no sample
+        }
+        assertEquals(32, admission.currentLimit("text"));
+    }
+
+    @Test
+    void aFloodOfNewClientsDoesNotResetAnActiveClient() {
+        assertEquals(Decision.ADMITTED, admission.tryAdmit("text", "busy").decision());
+        assertEquals(Decision.ADMITTED, admission.tryAdmit("text", "busy").decision());
+        assertEquals(Decision.RATE_LIMITED, admission.tryAdmit("text", "busy").decision());
+
+        for (int i = 0; i < 50; i++) {
+            admission.tryAdmit("text", "rotated-" + i);
+            // the real client keeps knocking while the flood goes on
+            assertEquals(Decision.RATE_LIMITED, admission.tryAdmit("text", "busy").decision(), "after " + i);
+        }
+    }
+}
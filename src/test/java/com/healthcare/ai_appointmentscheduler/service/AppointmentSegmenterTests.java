@@ -0,0 +1,93 @@
+package com.healthcare.ai_appointmentscheduler.service;
+
+import com.healthcare.ai_appointmentscheduler.dto.ParseOptions;
+import com.healthcare.ai_appointmentscheduler.dto.ParseResponse;
+import com.healthcare.ai_appointmentscheduler.dto.ParsedAppointment;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AppointmentSegmenterTests {
+
+    private static final ParseOptions REFERENCE = ParseOptions.of("Asia/Kolkata", "2025-03-05T10:00:00+05:30");
+
+    private final TextPreprocessorImpl preprocessor = new TextPreprocessorImpl();
+    private final DoctorDirectoryService doctors = new DoctorDirectoryService(new DefaultResourceLoader(), false, "", "", 0.75);
+    private final EntityExtractorImpl extractor = new EntityExtractorImpl(doctors,
+            new DepartmentIntentClassifier(new DefaultResourceLoader(), false, "", 0.5),
+            new SpellingCorrector(new DefaultResourceLoader(), false, "", "", 2));
+    private final AppointmentSegmenter segmenter = new AppointmentSegmenter(preprocessor, extractor, true, 8);
+    private final NattyNormalizer normalizer = new NattyNormalizer(new ZoneClock(), "Asia/Kolkata", 10_000, 1);
+
+    @AfterEach
+    void stop() {
+        normalizer.shutdown();
+    }
+
+    @Test
+    void splitsOnlyWhereANewDepartmentStarts() {
+        assertEquals(List.of("dentist tomorrow 3pm", "cardiologist next friday 10am"),
+                segmenter.split("dentist tomorrow 3pm and cardiologist next friday 10am"));
+        assertEquals(List.of("Hi, please book dermatology on monday at 9am", "Also orthopedics, friday 4pm"),
+                segmenter.split("Hi, please book dermatology on monday at 9am. Also orthopedics, friday 4pm"));
+
+        // Naming the same department again is a second visit, not a continuation.
+        assertEquals(List.of("dentist tomorrow 3pm", "dentist friday 10am"),
+                segmenter.split("dentist tomorrow 3pm and dentist friday 10am"));
+        assertEquals(List.of("book dentist monday 9am", "Also dentist for my son on friday 4pm"),
+                segmenter.split("book dentist monday 9am. Also dentist for my son on friday 4pm"));
+
+        String single = "book cardiology next friday, at 3 pm and bring the reports";
+        assertEquals(List.of(single), segmenter.split(single));
+    }
+
+    @Test
+    void complaintsJoinTheClauseTheyExplain() {
+        DepartmentIntentClassifier classifier = new DepartmentIntentClassifier(
+                new DefaultResourceLoader(), true, "classpath:models/department-intent.bin", 0.5);
+        classifier.load();
+        AppointmentSegmenter inferring = new AppointmentSegmenter(preprocessor, new EntityExtractorImpl(doctors,
+                classifier, new SpellingCorrector(new DefaultResourceLoader(), false, "", "", 2)), true, 8);
+
+        String explained = "dentist friday 4pm, tooth ache since yesterday";
+        assertEquals(List.of(explained), inferring.split(explained));
+        assertEquals(List.of("dentist friday 4pm", "chest pain, monday 9am"),
+                inferring.split("dentist friday 4pm and chest pain, monday 9am"));
+    }
+
+    @Test
+    void eachClauseIsParsedOnItsOwn() {
+        SlotCalendarService slots = new SlotCalendarService(
+                new BookingJournal(false, "", 1, 5, 1, 60, false), new ZoneClock(), "Asia/Kolkata", 15, "09:00", "18:00", 3, 14);
+        PipelineStages s = new PipelineStages();
+        StageGraph graph = new StageGraph(List.of(
+                s.preprocessStage(preprocessor), s.spellStage(extractor), s.departmentStage(extractor), s.doctorStage(extractor),
+                s.dateStage(extractor), s.timeStage(extractor), s.entitiesStage(extractor),
+                s.normalizeStage(normalizer), s.scoreStage(new SimpleConfidenceScorer()),
+                s.guardrailStage(new DefaultGuardrailService(slots))), 512, 2);
+        PipelineServiceImpl pipeline = new PipelineServiceImpl(graph, segmenter);
+        try {
+            ParseResponse r = pipeline.parseText("dentist tomorrow 3pm and cardiologist next friday 10am", REFERENCE);
+
+            List<ParsedAppointment> a = r.getAppointments();
+            assertEquals(2, a.size());
+            assertEquals("Dentist", a.get(0).getAppointment().getDepartment());
+            assertEquals("2025-03-06", a.get(0).getAppointment().getDate());
+            assertEquals("15:00", a.get(0).getAppointment().getTime());
+            assertEquals("Cardiologist", a.get(1).getAppointment().getDepartment());
+            assertEquals("2025-03-14", a.get(1).getAppointment().getDate());
+            assertEquals("10:00", a.get(1).getAppointment().getTime());
+
+            // The top level is the first appointment, never a mix of both.
+            assertEquals(a.get(0).getAppointment().getTime(), r.getAppointment().getTime());
+            assertTrue(r.getTimings().containsKey("segment"));
+        } finally {
+            pipeline.shutdown();
+            graph.shutdown();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.healthcare.ai_appointmentscheduler.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.healthcare.ai_appointmentscheduler.dto.ParseResponse;
+import com.healthcare.ai_appointmentscheduler.util.AuditLogReader;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuditLogServiceTests {
+
+    @Test
+    void everyRecordFromConcurrentWritersLandsOnceAcrossRolledFiles(@TempDir Path dir) throws Exception {
+        // Small ring, small files and blocking overflow: nothing may be lost or duplicated.
+        AuditLogService audit = service(dir, 256, 4096, "block");
+        ParseResponse resp = new ParseResponse();
+        resp.setStatus("ok");
+        resp.setConfidence(0.9);
+        resp.recordTiming("extract", 120_000);
+
+        int threads = 4, perThread = 5_000;
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int id = t;
+            workers.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < perThread; i++) audit.text(id + ":" + i, 200, resp, System.nanoTime(), null);
+            }));
+        }
+        for (Thread w : workers) w.join();
+        audit.close();
+
+        Set<String> seen = new HashSet<>();
+        List<JsonNode> records = new ArrayList<>();
+        AuditLogReader.read(dir, null, null, records::add);
+        for (JsonNode r : records) {
+            assertTrue(seen.add(r.get("input").asText()), "duplicate " + r);
+            assertEquals("ok", r.get("status").asText());
+            assertEquals(0.12, r.get("timings_ms").get("extract").asDouble(), 1e-9);
+        }
+        assertEquals(threads * perThread, seen.size());
+        assertEquals(0, audit.droppedCount());
+        try (Stream<Path> files = Files.list(dir)) {
+            assertTrue(files.count() > 1, "expected size-based rolling");
+        }
+    }
+
+    @Test
+    void dropPolicyCountsAndMarksTheGap(@TempDir Path dir) throws Exception {
+        AuditLogService audit = service(dir, 2, 1 << 20, "drop");
+        for (int i = 0; i < 10_000; i++) audit.text("t" + i, 422, null, System.nanoTime(), null);
+        audit.close();
+
+        long[] kept = new long[1], gaps = new long[1];
+        AuditLogReader.read(dir, null, null, r -> {
+            if (r.has("gap")) gaps[0] += r.get("gap").asLong();
+            else kept[0]++;
+        });
+        assertEquals(audit.droppedCount(), gaps[0]);
+        assertEquals(10_000, kept[0] + gaps[0]);
+    }
+
+    @Test
+    @Tag("benchmark")
+    void requestThreadCostStaysSmall(@TempDir Path dir, TestReporter reporter) {
+        AuditLogService audit = service(dir, 1 << 16, 1 << 26, "drop");
+        ParseResponse resp = new ParseResponse();
+        String text = "Book dentist next Friday 3pm";
+        for (int i = 0; i < 50_000; i++) audit.text(text, 200, resp, 0, null);
+
+        int rounds = 50_000;
+        long t0 = System.nanoTime();
+        for (int i = 0; i < rounds; i++) audit.text(text, 200, resp, 0, null);
+        double nanos = (System.nanoTime() - t0) / (double) rounds;
+        audit.close();
+        reporter.publishEntry("audit.enqueue-ns", String.format("%.0f", nanos));
+        reporter.publishEntry("audit.dropped", String.valueOf(audit.droppedCount()));
+        // Generous bound so shared CI machines do not flap; typical figures are far lower.
+        assertTrue(nanos < 20_000, "enqueue took " + nanos + " ns");
+    }
+
+    private static AuditLogService service(Path dir, int capacity, long maxFileBytes, String overflow) {
+        return new AuditLogService(true, dir.toString(), capacity, 64, 5, maxFileBytes, 60, 0, 2000,
+                overflow, 10_000, new SimpleMeterRegistry());
+    }
+}
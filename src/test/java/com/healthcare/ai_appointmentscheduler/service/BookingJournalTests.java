@@ -0,0 +1,128 @@
+package com.healthcare.ai_appointmentscheduler.service;
+
+import com.healthcare.ai_appointmentscheduler.entity.AppointmentEntity;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.concurrent.ExecutorService;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingJournalTests {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 7);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void recoversSnapshotPlusLaterSegments() {
+        BookingJournal journal = journal();
+        SlotCalendarService calendar = calendar(journal);
+        book(calendar, "dentist", "10:00");
+        book(calendar, "cardiologist", "10:00");
+        journal.snapshot();
+        book(calendar, "dentist", "11:30");   // only in the segment after the snapshot
+        journal.close();
+
+        BookingJournal reopened = journal();
+        SlotCalendarService restored = calendar(reopened);
+        try {
+            assertFalse(restored.isFree("dentist", DAY, LocalTime.of(10, 0)));
+            assertFalse(restored.isFree("cardiologist", DAY, LocalTime.of(10, 0)));
+            assertFalse(restored.isFree("dentist", DAY, LocalTime.of(11, 30)));
+            assertTrue(restored.isFree("cardiologist", DAY, LocalTime.of(11, 30)));
+            assertEquals("conflict", book(restored, "dentist", "11:30"));
+            assertEquals("booked", book(restored, "ent", "11:30"));
+        } finally {
+            reopened.close();
+        }
+    }
+
+    @Test
+    void replayStopsAtATornRecord() throws IOException {
+        BookingJournal journal = journal();
+        SlotCalendarService calendar = calendar(journal);
+        for (String time : new String[]{"09:00", "09:15", "09:30", "09:45"}) book(calendar, "dentist", time);
+        journal.close();
+
+        // Record 3 (09:30) half-written: its checksum no longer matches.
+        try (FileChannel ch = FileChannel.open(dir.resolve("journal-0000000000.log"), StandardOpenOption.WRITE)) {
+            ch.write(ByteBuffer.wrap(new byte[]{0x7F}), 3 * BookingJournal.RECORD_SIZE + 16);
+        }
+
+        BookingJournal reopened = journal();
+        SlotCalendarService restored = calendar(reopened);
+        try {
+            assertFalse(restored.isFree("dentist", DAY, LocalTime.of(9, 0)));
+            assertFalse(restored.isFree("dentist", DAY, LocalTime.of(9, 15)));
+            assertTrue(restored.isFree("dentist", DAY, LocalTime.of(9, 30)));
+            assertTrue(restored.isFree("dentist", DAY, LocalTime.of(9, 45)));
+        } finally {
+            reopened.close();
+        }
+    }
+
+    @Test
+    void refusesSegmentsFromAnotherDepartmentList() throws IOException {
+        BookingJournal journal = journal();
+        book(calendar(journal), "dentist", "10:00");
+        journal.close();
+
+        Path segment = dir.resolve("journal-0000000000.log");
+        byte[] bytes = Files.readAllBytes(segment);
+        bytes[23]++; // department count
+        Files.write(segment, bytes);
+
+        assertThrows(IllegalStateException.class, () -> calendar(journal()));
+    }
+
+    @Test
+    void bookingDuringShutdownSkipsTheSnapshot() {
+        // Snapshot after every record, with the executor already stopped as in a shutdown in progress.
+        BookingJournal journal = new BookingJournal(true, dir.toString(), 1024, 5, 1, 60, false);
+        SlotCalendarService calendar = calendar(journal);
+        ((ExecutorService) ReflectionTestUtils.getField(journal, "background")).shutdown();
+        try {
+            assertEquals("booked", book(calendar, "dentist", "10:00"));
+        } finally {
+            journal.close();
+        }
+        BookingJournal reopened = journal();
+        try {
+            assertFalse(calendar(reopened).isFree("dentist", DAY, LocalTime.of(10, 0)));
+        } finally {
+            reopened.close();
+        }
+    }
+
+    // -------- Helpers --------
+
+    private BookingJournal journal() {
+        return new BookingJournal(true, dir.toString(), 1024, 5, 200_000, 60, false);
+    }
+
+    private static SlotCalendarService calendar(BookingJournal journal) {
+        SlotCalendarService calendar = new SlotCalendarService(journal, new ZoneClock(), "Asia/Kolkata",
+                15, "09:00", "18:00", 3, 14);
+        calendar.recover();
+        return calendar;
+    }
+
+    private static String book(SlotCalendarService calendar, String department, String time) {
+        AppointmentEntity a = new AppointmentEntity();
+        a.setDepartment(department);
+        a.setDate(DAY.toString());
+        a.setTime(time);
+        return calendar.book(a).getStatus();
+    }
+}
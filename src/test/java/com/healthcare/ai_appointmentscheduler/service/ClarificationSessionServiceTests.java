@@ -0,0 +1,36 @@
+package com.healthcare.ai_appointmentscheduler.service;
+
+import com.healthcare.ai_appointmentscheduler.dto.ParseOptions;
+import com.healthcare.ai_appointmentscheduler.dto.ParseResponse;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClarificationSessionServiceTests {
+
+    private final ClarificationSessionService sessions = new ClarificationSessionService(true, 300, 2, 3);
+
+    @Test
+    void tokenIsUsableOnce() {
+        ParseResponse resp = new ParseResponse();
+        String token = sessions.open(resp, ParseOptions.of("Asia/Kolkata", null), 1);
+        assertNotNull(token);
+
+        ClarificationSessionService.Session s = sessions.take(token);
+        assertSame(resp, s.previous());
+        assertEquals(1, s.turn());
+        assertNull(sessions.take(token));
+    }
+
+    @Test
+    void turnsAndStoreAreBounded() {
+        ParseOptions options = ParseOptions.of(null, null);
+        assertNull(sessions.open(new ParseResponse(), options, 4));
+
+        String first = sessions.open(new ParseResponse(), options, 1);
+        sessions.open(new ParseResponse(), options, 1);
+        sessions.open(new ParseResponse(), options, 1);
+        assertEquals(2, sessions.size());
+        assertNull(sessions.take(first));
+    }
+}
@@ -0,0 +1,73 @@
+package com.healthcare.ai_appointmentscheduler.service;
+
+import com.healthcare.ai_appointmentscheduler.dto.ParseResponse;
+import com.healthcare.ai_appointmentscheduler.entity.ExtractedEntities;
+import com.healthcare.ai_appointmentscheduler.entity.NormalizedEntity;
+import com.healthcare.ai_appointmentscheduler.service.DemandAnalyticsService.Dimension;
+import com.healthcare.ai_appointmentscheduler.service.DemandAnalyticsService.Granularity;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DemandAnalyticsServiceTests {
+
+    /** Clock the test moves by hand. */
+    private static final class ManualClock extends Clock {
+        Instant now = Instant.parse("2025-03-05T04:30:00Z");
+
+        @Override public ZoneId getZone() { return ZoneOffset.UTC; }
+        @Override public Clock withZone(ZoneId zone) { return this; }
+        @Override public Instant instant() { return now; }
+    }
+
+    private final ManualClock clock = new ManualClock();
+    private final DemandAnalyticsService analytics =
+            new DemandAnalyticsService(new ZoneClock(clock), true, "Asia/Kolkata", 10, 5, 3);
+
+    @Test
+    void countsByDimensionAndExpiresOldBuckets() {
+        record("dentist", "2025-03-07", "15:00", "ok");
+        record("dentist", "2025-03-07", "15:30", "ok");
+        record("cardiologist", null, null, "needs_clarification");
+
+        List<DemandAnalyticsService.Point> byStatus = analytics.series(Granularity.MINUTE, 3, Dimension.STATUS);
+        assertEquals(3, byStatus.size());
+        assertEquals(3, byStatus.get(2).total());
+        assertEquals(2L, byStatus.get(2).counts().get("ok"));
+        assertEquals(0, byStatus.get(0).total());
+
+        List<DemandAnalyticsService.Rank> top = analytics.top(Dimension.DEPARTMENT, Granularity.HOUR, 1, 5, null);
+        assertEquals("dentist", top.get(0).value());
+        assertEquals(2, top.get(0).count());
+        assertEquals(List.of(new DemandAnalyticsService.Rank("FRIDAY", 2)),
+                analytics.top(Dimension.WEEKDAY, Granularity.DAY, 1, 5, "ok"));
+        assertEquals("15", analytics.top(Dimension.HOUR, Granularity.DAY, 1, 1, "ok").get(0).value());
+
+        // Eleven minutes later the minute ring (10 slots) has moved past those records; hours still hold them.
+        clock.now = clock.now.plusSeconds(11 * 60);
+        record("ent", "2025-03-08", "09:00", "ok");
+        long minuteTotal = analytics.series(Granularity.MINUTE, 10, Dimension.STATUS).stream()
+                .mapToLong(DemandAnalyticsService.Point::total).sum();
+        assertEquals(1, minuteTotal);
+        assertEquals(4, analytics.series(Granularity.HOUR, 1, Dimension.DEPARTMENT).get(0).total());
+    }
+
+    private void record(String dept, String date, String time, String status) {
+        ExtractedEntities e = new ExtractedEntities();
+        e.setDepartment(dept);
+        NormalizedEntity n = new NormalizedEntity();
+        n.setDate(date);
+        n.setTime(time);
+        ParseResponse r = new ParseResponse();
+        r.setEntities(e);
+        r.setNormalized(n);
+        r.setStatus(status);
+        analytics.record(r);
+    }
+}
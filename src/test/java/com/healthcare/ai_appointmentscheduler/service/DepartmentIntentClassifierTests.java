@@ -0,0 +1,76 @@
+package com.healthcare.ai_appointmentscheduler.service;
+
+import com.healthcare.ai_appointmentscheduler.entity.ExtractedEntities;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DepartmentIntentClassifierTests {
+
+    private static final String TEXT = "severe headache and dizziness since monday, tomorrow at 4pm please";
+
+    private final DepartmentIntentClassifier classifier = new DepartmentIntentClassifier(
+            new DefaultResourceLoader(), true, "classpath:models/department-intent.bin", 0.5);
+
+    DepartmentIntentClassifierTests() {
+        classifier.load();
+    }
+
+    @Test
+    void mapsComplaintsToDepartments() {
+        assertEquals("cardiologist", classifier.classify("my chest hurts when i climb stairs").department());
+        assertEquals("dentist", classifier.classify("tooth ache since yesterday").department());
+        assertEquals("dermatologist", classifier.classify("rash on my arm").department());
+        assertEquals("ent", classifier.classify("sore throat and blocked ear").department());
+        assertNull(classifier.classify("appointment tomorrow at 10am").department());
+        assertNull(classifier.classify("hello").department());
+    }
+
+    @Test
+    void fallsBackOnlyWhenNoDepartmentIsNamed() {
+        DoctorDirectoryService doctors = new DoctorDirectoryService(new DefaultResourceLoader(), false, "", "", 0.75);
+        EntityExtractorImpl extractor = new EntityExtractorImpl(doctors, classifier,
+                new SpellingCorrector(new DefaultResourceLoader(), false, "", "", 2));
+
+        ExtractedEntities inferred = extractor.extract("chest pain, tomorrow at 3pm");
+        assertEquals("cardiologist", inferred.getDepartment());
+        assertTrue(inferred.getDepartmentConfidence() > 0.5 && inferred.getDepartmentConfidence() < 1.0);
+
+        ExtractedEntities named = extractor.extract("dentist for chest pain tomorrow");
+        assertEquals("dentist", named.getDepartment());
+        assertEquals(1.0, named.getDepartmentConfidence());
+    }
+
+    @Test
+    void predictionAllocatesNothing() {
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (int i = 0; i < 20_000; i++) classifier.classify(TEXT);
+
+        int n = 100_000;
+        long bytes0 = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < n; i++) classifier.classify(TEXT);
+        long bytes = (threads.getCurrentThreadAllocatedBytes() - bytes0) / n;
+
+        // The returned Prediction is the only object; the model itself allocates nothing.
+        assertTrue(bytes <= 32, bytes + " bytes per prediction");
+    }
+
+    @Test
+    @Tag("benchmark")
+    void predictionTakesMicroseconds(TestReporter reporter) {
+        for (int i = 0; i < 20_000; i++) classifier.classify(TEXT);
+
+        int n = 100_000;
+        long t0 = System.nanoTime();
+        for (int i = 0; i < n; i++) classifier.classify(TEXT);
+        long nanos = (System.nanoTime() - t0) / n;
+
+        reporter.publishEntry("intent.predict-us", String.format("%.2f", nanos / 1000.0));
+        assertTrue(nanos < 50_000, nanos + " ns per prediction");
+    }
+}
@@ -0,0 +1,259 @@
+package com.healthcare.ai_appointmentscheduler.service;
+
+import com.healthcare.ai_appointmentscheduler.dto.ParseOptions;
+import com.healthcare.ai_appointmentscheduler.dto.ParseResponse;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.imageio.ImageIO;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Golden-corpus regression suite.
+ *
+ * Runs the real pipeline (and OCR, when Tesseract is installed) over src/test/resources/golden/corpus-v1.tsv
+ * at a fixed reference time and compares the results with golden/baseline-v1.properties:
+ *  - per-field accuracy, in the default build: it fails when accuracy drops by more than the
+ *    accuracy tolerance
+ *  - per-stage p95 latency, in the benchmark group only (mvn -Pbenchmark test): it fails when a
+ *    stage's p95 exceeds its baseline * latency factor (a per-stage factor when the baseline sets
+ *    one) + a small floor for timer granularity
+ * The measured figures and misses are published through the JUnit TestReporter.
+ *
+ * System properties:
+ *  - golden.iterations (default 20): timed passes over the corpus after warm-up
+ *  - golden.latency-factor / golden.latency-floor-ms: override the baseline tolerances for every stage
+ *  - golden.write-baseline=true: write the measured numbers to target/golden/ for review and copying
+ */
+@SpringBootTest(properties = {"grpc.enabled=false", "warmup.enabled=false", "booking.journal.enabled=false"})
+class GoldenCorpusRegressionTests {
+
+    private static final String VERSION = "v1";
+    private static final ParseOptions REFERENCE = ParseOptions.of("Asia/Kolkata", "2025-03-05T10:00:00+05:30");
+    private static final String[] FIELDS = {"department", "date", "time", "status"};
+
+    private record Case(String id, String kind, String[] expected, String input) {}
+
+    private static List<Case> corpus;
+    private static Properties baseline;
+
+    @Autowired
+    private PipelineService pipelineService;
+
+    @Autowired
+    private OcrServiceImpl ocrService;
+
+    @BeforeAll
+    static void load() throws IOException {
+        corpus = readCorpus("golden/corpus-" + VERSION + ".tsv");
+        baseline = new Properties();
+        try (InputStream in = resource("golden/baseline-" + VERSION + ".properties")) {
+            baseline.load(in);
+        }
+    }
+
+    @Test
+    void textCorpusHoldsAccuracy(TestReporter reporter) throws Exception {
+        checkAccuracy("text", textCases(), textParse(), reporter);
+    }
+
+    @Test
+    @Tag("benchmark")
+    void textCorpusHoldsLatency(TestReporter reporter) throws Exception {
+        checkLatency("text", textCases(), textParse(), reporter);
+    }
+
+    @Test
+    void imageCorpusHoldsAccuracy(TestReporter reporter) throws Exception {
+        Assumptions.assumeTrue(ocrAvailable(), "Tesseract is not available; image cases skipped");
+        List<Case> cases = imageCases();
+        checkAccuracy("image", cases, imageParse(cases), reporter);
+    }
+
+    @Test
+    @Tag("benchmark")
+    void imageCorpusHoldsLatency(TestReporter reporter) throws Exception {
+        Assumptions.assumeTrue(ocrAvailable(), "Tesseract is not available; image cases skipped");
+        List<Case> cases = imageCases();
+        checkLatency("image", cases, imageParse(cases), reporter);
+    }
+
+    // -------- Runner --------
+
+    @FunctionalInterface
+    private interface Parse {
+        ParseResponse apply(Case c) throws Exception;
+    }
+
+    private static List<Case> textCases() {
+        return corpus.stream().filter(c -> c.kind().equals("text")).toList();
+    }
+
+    private static List<Case> imageCases() {
+        return corpus.stream().filter(c -> c.kind().equals("image")).toList();
+    }
+
+    private Parse textParse() {
+        return c -> pipelineService.parseText(c.input(), REFERENCE);
+    }
+
+    private Parse imageParse(List<Case> cases) throws IOException {
+        Map<String, byte[]> images = new HashMap<>();
+        for (Case c : cases) {
+            ByteArrayOutputStream png = new ByteArrayOutputStream();
+            ImageIO.write(WarmupService.render(c.input()), "png", png);
+            images.put(c.id(), png.toByteArray());
+        }
+        return c -> ocrService.parseImageAndRunPipeline(images.get(c.id()), REFERENCE);
+    }
+
+    // One pass over the corpus; the first parse of each case decides its accuracy.
+    private void checkAccuracy(String kind, List<Case> cases, Parse parse, TestReporter reporter) throws Exception {
+        assertFalse(cases.isEmpty(), "no " + kind + " cases in corpus " + VERSION);
+        int[] correct = new int[FIELDS.length];
+        Map<String, String> report = new LinkedHashMap<>();
+        for (Case c : cases) {
+            String[] actual = fields(parse.apply(c));
+            for (int f = 0; f < FIELDS.length; f++) {
+                if (Objects.equals(c.expected()[f], actual[f])) correct[f]++;
+                else report.put(kind + ".miss." + c.id() + "." + FIELDS[f],
+                        "expected " + c.expected()[f] + ", got " + actual[f]);
+            }
+        }
+
+        double accTolerance = Double.parseDouble(baseline.getProperty("accuracy.tolerance", "0.02"));
+        Map<String, String> measured = new LinkedHashMap<>();
+        List<String> failures = new ArrayList<>();
+        for (int f = 0; f < FIELDS.length; f++) {
+            double actual = correct[f] / (double) cases.size();
+            String key = kind + ".accuracy." + FIELDS[f];
+            measured.put(key, String.format(Locale.ROOT, "%.3f", actual));
+            String expected = baseline.getProperty(key);
+            if (expected != null && actual < Double.parseDouble(expected) - accTolerance) {
+                failures.add(String.format("%s accuracy dropped to %.3f (baseline %s)", FIELDS[f], actual, expected));
+            }
+        }
+        finish(kind, "accuracy", measured, report, failures, reporter);
+    }
+
+    // Warm-up passes, then golden.iterations timed passes; compares each stage's p95 with the baseline.
+    private void checkLatency(String kind, List<Case> cases, Parse parse, TestReporter reporter) throws Exception {
+        assertFalse(cases.isEmpty(), "no " + kind + " cases in corpus " + VERSION);
+        int iterations = Integer.getInteger("golden.iterations", 20);
+        for (int i = 0; i < 5; i++) {
+            for (Case c : cases) parse.apply(c);
+        }
+
+        Map<String, List<Double>> samples = new LinkedHashMap<>();
+        for (int i = 0; i < iterations; i++) {
+            for (Case c : cases) {
+                long t0 = System.nanoTime();
+                ParseResponse resp = parse.apply(c);
+                double total = (System.nanoTime() - t0) / 1_000_000.0;
+                resp.getTimings().forEach((stage, ms) -> samples.computeIfAbsent(stage, s -> new ArrayList<>()).add(ms));
+                samples.computeIfAbsent("total", s -> new ArrayList<>()).add(total);
+            }
+        }
+
+        String factorOverride = System.getProperty("golden.latency-factor");
+        double floorMs = Double.parseDouble(System.getProperty("golden.latency-floor-ms",
+                baseline.getProperty("latency.floor-ms", "0.05")));
+        Map<String, String> measured = new LinkedHashMap<>();
+        Map<String, String> report = new LinkedHashMap<>();
+        List<String> failures = new ArrayList<>();
+        percentiles(samples).forEach((stage, p) -> {
+            measured.put(kind + ".p95-ms." + stage, String.format(Locale.ROOT, "%.3f", p[1]));
+            report.put(kind + ".p50-ms." + stage, String.format(Locale.ROOT, "%.3f", p[0]));
+            report.put(kind + ".p99-ms." + stage, String.format(Locale.ROOT, "%.3f", p[2]));
+            String expected = baseline.getProperty(kind + ".p95-ms." + stage);
+            if (expected == null) return;
+            double factor = Double.parseDouble(factorOverride != null ? factorOverride
+                    : baseline.getProperty("latency.factor." + stage, baseline.getProperty("latency.factor", "3.0")));
+            if (p[1] > Double.parseDouble(expected) * factor + floorMs) {
+                failures.add(String.format("%s p95 %.3f ms exceeds baseline %s ms x %.1f + %.2f",
+                        stage, p[1], expected, factor, floorMs));
+            }
+        });
+        finish(kind, "latency", measured, report, failures, reporter);
+    }
+
+    // Publishes the baseline-shaped figures plus extra detail, optionally writes them out, then fails on regressions.
+    private static void finish(String kind, String what, Map<String, String> measured, Map<String, String> detail,
+                               List<String> failures, TestReporter reporter) throws IOException {
+        reporter.publishEntry(measured);
+        if (!detail.isEmpty()) reporter.publishEntry(detail);
+        if (Boolean.getBoolean("golden.write-baseline")) {
+            Path dir = Path.of("target", "golden");
+            Files.createDirectories(dir);
+            StringBuilder sb = new StringBuilder();
+            measured.forEach((k, v) -> sb.append(k).append('=').append(v).append('\n'));
+            Files.writeString(dir.resolve("baseline-" + VERSION + "-" + kind + "-" + what + ".properties"), sb);
+        }
+        assertTrue(failures.isEmpty(), kind + " " + what + " regressions:\n  " + String.join("\n  ", failures));
+    }
+
+    // -------- Helpers --------
+
+    private boolean ocrAvailable() {
+        try {
+            ocrService.extractText(WarmupService.render("ok"));
+            return true;
+        } catch (Exception | LinkageError e) {
+            return false;
+        }
+    }
+
+    private static String[] fields(ParseResponse r) {
+        String dept = r.getEntities() == null ? null : r.getEntities().getDepartment();
+        String date = r.getNormalized() == null ? null : r.getNormalized().getDate();
+        String time = r.getNormalized() == null ? null : r.getNormalized().getTime();
+        return new String[]{
+                dept == null ? null : dept.toLowerCase(Locale.ROOT), date, time, r.getStatus()};
+    }
+
+    private static Map<String, double[]> percentiles(Map<String, List<Double>> samples) {
+        Map<String, double[]> out = new LinkedHashMap<>();
+        samples.forEach((stage, values) -> {
+            double[] sorted = values.stream().mapToDouble(Double::doubleValue).sorted().toArray();
+            out.put(stage, new double[]{at(sorted, 0.50), at(sorted, 0.95), at(sorted, 0.99)});
+        });
+        return out;
+    }
+
+    private static double at(double[] sorted, double q) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(q * sorted.length) - 1)];
+    }
+
+    private static List<Case> readCorpus(String name) throws IOException {
+        List<Case> out = new ArrayList<>();
+        try (BufferedReader r = new BufferedReader(new InputStreamReader(resource(name), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = r.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) continue;
+                String[] cols = line.split("\t", 7);
+                assertEquals(7, cols.length, "malformed corpus line: " + line);
+                String[] expected = new String[FIELDS.length];
+                for (int f = 0; f < FIELDS.length; f++) expected[f] = cols[2 + f].equals("-") ? null : cols[2 + f];
+                out.add(new Case(cols[0], cols[1], expected, cols[6]));
+            }
+        }
+        return out;
+    }
+
+    private static InputStream resource(String name) {
+        InputStream in = GoldenCorpusRegressionTests.class.getClassLoader().getResourceAsStream(name);
+        assertNotNull(in, "missing test resource " + name);
+        return in;
+    }
+}
@@ -0,0 +1,55 @@
+package com.healthcare.ai_appointmentscheduler.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyServiceTests {
+
+    private final IdempotencyService service = new IdempotencyService(60, 4);
+    private final AtomicInteger runs = new AtomicInteger();
+    private final Supplier<ResponseEntity<?>> work = () -> ResponseEntity.ok(runs.incrementAndGet());
+
+    @Test
+    void duplicatesAreScopedToTheirClient() {
+        String fp = IdempotencyService.fingerprint("text", false, "", "dentist friday 3pm".getBytes());
+
+        assertEquals(1, service.execute("addr:10.0.0.1", null, fp, false, work).getBody());
+        ResponseEntity<?> replay = service.execute("addr:10.0.0.1", null, fp, false, work);
+        assertEquals(1, replay.getBody());
+        assertEquals("true", replay.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+
+        // Same content or same key from another client is its own request.
+        assertEquals(2, service.execute("addr:10.0.0.2", null, fp, false, work).getBody());
+        assertEquals(3, service.execute("addr:10.0.0.1", "k1", fp, false, work).getBody());
+        assertEquals(4, service.execute("addr:10.0.0.2", "k1", fp, false, work).getBody());
+
+        String other = IdempotencyService.fingerprint("text", false, "", "dentist friday 4pm".getBytes());
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, service.execute("addr:10.0.0.1", "k1", other, false, work).getStatusCode());
+    }
+
+    @Test
+    void bookingsCoalesceOnlyUnderAKey() {
+        String fp = IdempotencyService.fingerprint("text", true, "", "dentist friday 3pm".getBytes());
+
+        assertEquals(1, service.execute("addr:10.0.0.1", null, fp, true, work).getBody());
+        assertEquals(2, service.execute("addr:10.0.0.1", null, fp, true, work).getBody());
+        assertEquals(3, service.execute("addr:10.0.0.1", "b1", fp, true, work).getBody());
+        assertEquals(3, service.execute("addr:10.0.0.1", "b1", fp, true, work).getBody());
+    }
+
+    @Test
+    void forgetsTheOldestKeyPastTheCap() {
+        for (int i = 0; i < 10; i++) {
+            service.execute("addr:10.0.0.1", "k" + i, "fp" + i, false, work);
+            assertTrue(service.size() <= 4, "size " + service.size());
+        }
+        assertEquals(10, service.execute("addr:10.0.0.1", "k9", "fp9", false, work).getBody()); // still replayed
+        assertEquals(11, service.execute("addr:10.0.0.1", "k0", "fp0", false, work).getBody()); // evicted, runs again
+    }
+}
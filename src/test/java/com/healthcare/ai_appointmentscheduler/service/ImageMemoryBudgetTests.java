@@ -0,0 +1,85 @@
+package com.healthcare.ai_appointmentscheduler.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import com.healthcare.ai_appointmentscheduler.util.Binarizer;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImageMemoryBudgetTests {
+
+    private static final long MB = 1024 * 1024;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ImageMemoryBudget budget = new ImageMemoryBudget(10, 50, registry);
+
+    @Test
+    void reservationsShareTheBudgetAndAreReleasedOnClose() {
+        try (ImageMemoryBudget.Reservation a = budget.reserve(6 * MB, 1000)) {
+            assertEquals(0.6, registry.get("ocr.memory.utilization").gauge().value(), 1e-9);
+
+            ImageMemoryBudget.Rejected busy = assertThrows(ImageMemoryBudget.Rejected.class,
+                    () -> budget.reserve(6 * MB, 1000));
+            assertFalse(busy.isTooLarge());
+
+            a.close();
+            a.close(); // idempotent
+            try (ImageMemoryBudget.Reservation b = budget.reserve(6 * MB, 1000)) {
+                assertEquals(6 * MB, budget.reservedBytes());
+            }
+        }
+        assertEquals(0, budget.reservedBytes());
+        assertEquals(1.0, registry.get("ocr.memory.rejected").tag("reason", "busy").counter().count());
+    }
+
+    @Test
+    void imageLargerThanTheWholeBudgetIsRejectedAtOnce() {
+        ImageMemoryBudget.Rejected ex = assertThrows(ImageMemoryBudget.Rejected.class,
+                () -> budget.reserve(11 * MB, 1000));
+        assertTrue(ex.isTooLarge());
+        assertEquals(0, budget.reservedBytes());
+    }
+
+    @Test
+    void headerGivesDimensionsWithoutDecoding() throws Exception {
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(640, 480, BufferedImage.TYPE_BYTE_GRAY), "png", png);
+
+        OcrServiceImpl.ImageHeader h = OcrServiceImpl.readHeader(new ByteArrayInputStream(png.toByteArray()));
+        assertEquals(640, h.width());
+        assertEquals(480, h.height());
+        assertEquals(1, h.bytesPerPixel());
+        assertNull(OcrServiceImpl.readHeader(new ByteArrayInputStream(new byte[]{1, 2, 3})));
+    }
+
+    @Test
+    void workingSetCountsIntegralTablesOfLocalThresholds() {
+        OcrServiceImpl ocr = new OcrServiceImpl(null, budget);
+        try {
+            ReflectionTestUtils.setField(ocr, "deskewEnabled", false);
+            ReflectionTestUtils.setField(ocr, "defaultBinarization", "auto");
+            ReflectionTestUtils.setField(ocr, "multiVariants", "otsu:6,sauvola:6,gray:6,sauvola:11,otsu:7");
+            ReflectionTestUtils.setField(ocr, "multiMaxParallel", 3);
+
+            // 12 MP RGB photo; the 2x upscale has four times as many pixels.
+            OcrServiceImpl.ImageHeader h = new OcrServiceImpl.ImageHeader(4000, 3000, 3);
+            long p = 4000L * 3000, scaled = 4 * p;
+            long base = 3 * p + 4 * scaled + scaled;
+
+            assertEquals(base + 2 * scaled, ocr.workingSetBytes(h, false, Binarizer.Mode.OTSU));
+            // Sauvola adds sum and sum-of-squares tables: two longs per upscaled pixel.
+            assertEquals(base + 2 * scaled + 16 * scaled, ocr.workingSetBytes(h, false, Binarizer.Mode.SAUVOLA));
+            assertEquals(ocr.workingSetBytes(h, false, Binarizer.Mode.SAUVOLA), ocr.workingSetBytes(h, false, null));
+            // Three variants at once, at most two of them (both sauvola) thresholding locally.
+            assertEquals(base + 3 * 2 * scaled + 2 * 16 * scaled, ocr.workingSetBytes(h, true, null));
+        } finally {
+            ocr.shutdown();
+        }
+    }
+}
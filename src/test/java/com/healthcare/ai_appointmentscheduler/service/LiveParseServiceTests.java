@@ -0,0 +1,86 @@
+package com.healthcare.ai_appointmentscheduler.service;
+
+import com.healthcare.ai_appointmentscheduler.dto.ParseOptions;
+import com.healthcare.ai_appointmentscheduler.entity.ExtractedEntities;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LiveParseServiceTests {
+
+    private static final ParseOptions REFERENCE = ParseOptions.of("Asia/Kolkata", "2025-03-05T10:00:00+05:30");
+
+    private final TextPreprocessorImpl preprocessor = new TextPreprocessorImpl();
+    private final DoctorDirectoryService doctors = new DoctorDirectoryService(new DefaultResourceLoader(), false, "", "", 0.75);
+    private final SpellingCorrector spelling = new SpellingCorrector(new DefaultResourceLoader(), true,
+            "classpath:spelling/vocabulary.txt", "classpath:spelling/lexicon-en.txt.gz", 2);
+    private final EntityExtractorImpl extractor = new EntityExtractorImpl(doctors,
+            new DepartmentIntentClassifier(new DefaultResourceLoader(), false, "", 0.5), spelling);
+    private final NattyNormalizer normalizer = new NattyNormalizer(new ZoneClock(), "Asia/Kolkata", 250, 1);
+    private final SlotCalendarService slots = new SlotCalendarService(
+            new BookingJournal(false, "", 1, 5, 1, 60, false), new ZoneClock(), "Asia/Kolkata", 15, "09:00", "18:00", 3, 14);
+    private final LiveParseService live = new LiveParseService(preprocessor, extractor, normalizer,
+            new SimpleConfidenceScorer(), new DefaultGuardrailService(slots), 2000, 1000);
+
+    LiveParseServiceTests() {
+        spelling.load();
+    }
+
+    @AfterEach
+    void stop() {
+        normalizer.shutdown();
+    }
+
+    @Test
+    void typingCharacterByCharacterMatchesAFullParse() {
+        LiveParseSession session = live.open(REFERENCE);
+        String target = "book cardiolgy nxt friday at 3 pm";
+        long rev = 0;
+        for (int i = 0; i < target.length(); i++) {
+            session.edit(i, i, target.substring(i, i + 1), ++rev);
+            // a typo and its correction on the way
+            if (i == 7) {
+                session.edit(i + 1, i + 1, "x", ++rev);
+                session.edit(i + 1, i + 2, "", ++rev);
+            }
+            assertSameAsFullParse(session, live.evaluate(session));
+        }
+    }
+
+    @Test
+    void editingTheTimeOnlyRerunsTheTimeExtractor() {
+        LiveParseSession session = live.open(REFERENCE);
+        session.replace("book dentist tomorrow at 3pm", 1);
+        live.evaluate(session);
+
+        int at = session.text().indexOf("3pm");
+        session.edit(at, at + 1, "4", 2);
+        LiveParseService.Update u = live.evaluate(session);
+
+        assertEquals(List.of("time", "normalize"), u.reran());
+        assertEquals("4pm", u.response().getEntities().getTimePhrase());
+        assertEquals("16:00", u.response().getNormalized().getTime());
+        assertEquals(2, u.revision());
+    }
+
+    @Test
+    void outOfRangeEditIsRejected() {
+        LiveParseSession session = live.open(REFERENCE);
+        session.replace("dentist", 1);
+        assertThrows(IllegalArgumentException.class, () -> session.edit(3, 20, "x", 2));
+        assertEquals("dentist", session.text());
+    }
+
+    private void assertSameAsFullParse(LiveParseSession session, LiveParseService.Update u) {
+        ExtractedEntities full = extractor.extract(preprocessor.preprocess(session.text()));
+        ExtractedEntities got = u.response().getEntities();
+        String at = "after \"" + session.text() + "\"";
+        assertEquals(full.getDepartment(), got.getDepartment(), at);
+        assertEquals(full.getDatePhrase(), got.getDatePhrase(), at);
+        assertEquals(full.getTimePhrase(), got.getTimePhrase(), at);
+    }
+}
@@ -0,0 +1,62 @@
+package com.healthcare.ai_appointmentscheduler.service;
+
+import com.healthcare.ai_appointmentscheduler.dto.ParseOptions;
+import com.healthcare.ai_appointmentscheduler.entity.ExtractedEntities;
+import com.healthcare.ai_appointmentscheduler.util.Deadline;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NattyNormalizerDeadlineTests {
+
+    private static final ParseOptions REFERENCE = ParseOptions.of("Asia/Kolkata", "2025-03-05T10:00:00+05:30");
+
+    private final NattyNormalizer normalizer = new NattyNormalizer(new ZoneClock(), "Asia/Kolkata", 250, 2);
+
+    @AfterEach
+    void stop() {
+        normalizer.shutdown();
+    }
+
+    @Test
+    void withinBudgetNattyAnswers() {
+        NattyNormalizer.Outcome out = normalizer.normalizeWithin("tomorrow at 3pm", entities(), REFERENCE);
+        assertFalse(out.degraded());
+        assertEquals("2025-03-06", out.normalized().getDate());
+        assertEquals("15:00", out.normalized().getTime());
+    }
+
+    @Test
+    void expiredDeadlineFallsBackToHeuristics() throws Exception {
+        Deadline deadline = Deadline.after(1);
+        Thread.sleep(5);
+        NattyNormalizer.Outcome out = normalizer.normalizeWithin("tomorrow at 3pm", entities(),
+                REFERENCE.withDeadline(deadline));
+        assertTrue(out.degraded());
+        assertEquals("2025-03-06", out.normalized().getDate());
+        assertEquals("15:00", out.normalized().getTime());
+    }
+
+    @Test
+    void fallbackResolvesRelativeDaysLikeNatty() {
+        String[][] cases = {{"tomorrow", "2025-03-06"}, {"day after tomorrow", "2025-03-07"}, {"next friday", "2025-03-14"}};
+        for (String[] c : cases) {
+            ExtractedEntities phrase = new ExtractedEntities();
+            phrase.setDatePhrase(c[0]);
+            String text = "dentist " + c[0] + " please";
+            assertEquals(c[1], normalizer.normalize(text, phrase, REFERENCE).getDate(), "natty: " + c[0]);
+            assertEquals(c[1], normalizer.normalizeHeuristic(text, phrase, REFERENCE).getDate(), "date phrase: " + c[0]);
+            // No extracted phrase: the fallback scans the text itself.
+            assertEquals(c[1], normalizer.normalizeHeuristic(text, new ExtractedEntities(), REFERENCE).getDate(),
+                    "text: " + c[0]);
+        }
+    }
+
+    private static ExtractedEntities entities() {
+        ExtractedEntities e = new ExtractedEntities();
+        e.setDatePhrase("tomorrow");
+        e.setTimePhrase("3pm");
+        return e;
+    }
+}
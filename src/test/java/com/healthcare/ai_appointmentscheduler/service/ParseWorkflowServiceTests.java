@@ -0,0 +1,130 @@
+package com.healthcare.ai_appointmentscheduler.service;
+
+import com.healthcare.ai_appointmentscheduler.dto.ParseOptions;
+import com.healthcare.ai_appointmentscheduler.dto.ParseResponse;
+import com.healthcare.ai_appointmentscheduler.dto.ParsedAppointment;
+import com.healthcare.ai_appointmentscheduler.entity.OcrResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.http.HttpStatus;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParseWorkflowServiceTests {
+
+    private static final ParseOptions REFERENCE = ParseOptions.of("Asia/Kolkata", "2025-03-05T10:00:00+05:30");
+
+    private final TextPreprocessorImpl preprocessor = new TextPreprocessorImpl();
+    private final EntityExtractorImpl extractor = new EntityExtractorImpl(
+            new DoctorDirectoryService(new DefaultResourceLoader(), false, "", "", 0.75),
+            new DepartmentIntentClassifier(new DefaultResourceLoader(), false, "", 0.5),
+            new SpellingCorrector(new DefaultResourceLoader(), false, "", "", 2));
+    private final NattyNormalizer normalizer = new NattyNormalizer(new ZoneClock(), "Asia/Kolkata", 10_000, 1);
+    private final SlotCalendarService slots = new SlotCalendarService(
+            new BookingJournal(false, "", 1, 5, 1, 60, false), new ZoneClock(), "Asia/Kolkata", 15, "09:00", "18:00", 3, 14);
+    private final StageGraph graph;
+    private final PipelineServiceImpl pipeline;
+
+    ParseWorkflowServiceTests() {
+        PipelineStages s = new PipelineStages();
+        graph = new StageGraph(List.of(
+                s.preprocessStage(preprocessor), s.spellStage(extractor), s.departmentStage(extractor), s.doctorStage(extractor),
+                s.dateStage(extractor), s.timeStage(extractor), s.entitiesStage(extractor),
+                s.normalizeStage(normalizer), s.scoreStage(new SimpleConfidenceScorer()),
+                s.guardrailStage(new DefaultGuardrailService(slots))), 512, 2);
+        pipeline = new PipelineServiceImpl(graph, new AppointmentSegmenter(preprocessor, extractor, true, 8));
+    }
+
+    @AfterEach
+    void stop() {
+        pipeline.shutdown();
+        graph.shutdown();
+        normalizer.shutdown();
+    }
+
+    @Test
+    void followUpCompletesTheStoredAppointment() {
+        ParseResponse first = pipeline.parseText("dentist tomorrow", REFERENCE);
+        assertEquals("needs_clarification", first.getStatus());   // no time given
+
+        ParseResponse r = pipeline.parseFollowUp("3pm please", first, REFERENCE);
+        assertEquals("ok", r.getStatus());
+        assertEquals("Dentist", r.getAppointment().getDepartment());
+        assertEquals("2025-03-06", r.getAppointment().getDate());
+        assertEquals("15:00", r.getAppointment().getTime());
+    }
+
+    @Test
+    void failedFollowUpKeepsTheSession() {
+        AtomicInteger failures = new AtomicInteger(1);
+        PipelineService flaky = new PipelineService() {
+            public ParseResponse parseText(String text) { return pipeline.parseText(text); }
+            public ParseResponse parseText(String text, ParseOptions o) { return pipeline.parseText(text, o); }
+            public ParseResponse parseOcr(OcrResult ocr, ParseOptions o) { return pipeline.parseOcr(ocr, o); }
+            public ParseResponse parseFollowUp(String text, ParseResponse previous, ParseOptions o) {
+                if (failures.getAndDecrement() > 0) throw new IllegalStateException("stage pool unavailable");
+                return pipeline.parseFollowUp(text, previous, o);
+            }
+        };
+        ParseWorkflowService workflow = workflow(flaky);
+
+        ParseWorkflowService.Result first = workflow.parseText("dentist tomorrow", false, REFERENCE);
+        String token = first.response().getSessionToken();
+        assertNotNull(token);
+
+        assertThrows(IllegalStateException.class, () -> workflow.parseFollowUp(token, "3pm please", false, REFERENCE));
+        ParseWorkflowService.Result retry = workflow.parseFollowUp(token, "3pm please", false, REFERENCE);
+        assertEquals(HttpStatus.OK, retry.status());
+        assertEquals("15:00", retry.response().getAppointment().getTime());
+
+        assertThrows(NoSuchElementException.class, () -> workflow.parseFollowUp(token, "3pm please", false, REFERENCE));
+    }
+
+    @Test
+    void booksEveryClause() {
+        ParseWorkflowService workflow = workflow(pipeline);
+        String text = "dentist tomorrow 3pm and cardiologist friday 10am";
+
+        ParseWorkflowService.Result r = workflow.parseText(text, true, REFERENCE);
+        assertEquals(HttpStatus.OK, r.status());
+        List<ParsedAppointment> clauses = r.response().getAppointments();
+        assertEquals(2, clauses.size());
+        for (ParsedAppointment a : clauses) assertEquals("booked", a.getBooking().getStatus());
+        assertSame(clauses.get(0).getBooking(), r.response().getBooking());
+        assertFalse(slots.isFree("dentist", LocalDate.of(2025, 3, 6), LocalTime.of(15, 0)));
+        assertFalse(slots.isFree("cardiologist", LocalDate.of(2025, 3, 7), LocalTime.of(10, 0)));
+
+        // Booking the same message again conflicts on both clauses, each with its own suggestions.
+        ParseWorkflowService.Result again = workflow.parseText(text, true, REFERENCE);
+        assertEquals(HttpStatus.CONFLICT, again.status());
+        for (ParsedAppointment a : again.response().getAppointments()) {
+            assertEquals("conflict", a.getBooking().getStatus());
+            assertFalse(a.getSuggestions().isEmpty());
+        }
+    }
+
+    @Test
+    void incompleteLaterClauseBooksNothing() {
+        ParseWorkflowService.Result r = workflow(pipeline).parseText(
+                "dentist tomorrow 3pm and cardiologist friday", true, REFERENCE);
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, r.status());
+        assertEquals("needs_clarification", r.response().getAppointments().get(1).getStatus());
+        assertNull(r.response().getBooking());
+        assertTrue(slots.isFree("dentist", LocalDate.of(2025, 3, 6), LocalTime.of(15, 0)));
+    }
+
+    private ParseWorkflowService workflow(PipelineService pipelineService) {
+        return new ParseWorkflowService(pipelineService, null, slots,
+                new AuditLogService(false, "", 16, 8, 5, 1024, 60, 0, 2000, "drop", 50, new SimpleMeterRegistry()),
+                new DemandAnalyticsService(new ZoneClock(), false, "Asia/Kolkata", 10, 5, 3),
+                new ClarificationSessionService(true, 300, 100, 3), 1000, 10_000);
+    }
+}
@@ -0,0 +1,78 @@
+package com.healthcare.ai_appointmentscheduler.service;
+
+import com.healthcare.ai_appointmentscheduler.dto.ParseOptions;
+import com.healthcare.ai_appointmentscheduler.entity.AppointmentEntity;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlotCalendarServiceTests {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 7);
+
+    // The wall clock reads 2025-03-07 12:05 in Kolkata.
+    private final SlotCalendarService calendar = new SlotCalendarService(
+            new BookingJournal(false, "", 1, 5, 1, 60, false),
+            new ZoneClock(Clock.fixed(Instant.parse("2025-03-07T06:35:00Z"), ZoneOffset.UTC)), "Asia/Kolkata",
+            15, "09:00", "18:00", 3, 14);
+
+    @Test
+    void suggestionsAreOrderedByDistanceFromTheRequest() {
+        book("10:00");
+        book("10:15");
+
+        List<AppointmentEntity> s = calendar.suggestNearest("dentist", DAY, LocalTime.of(10, 0), 5, 2, null);
+        // 09:30 and 10:30 are both two slots away; the earlier one comes first.
+        assertEquals(List.of("09:45", "09:30", "10:30", "09:15", "10:45"), times(s));
+        assertTrue(s.stream().allMatch(a -> a.getDate().equals("2025-03-07") && a.getDepartment().equals("Dentist")));
+
+        // Distance counts opening-hours slots: after a full evening, opening time next morning
+        // (one slot past 17:45) beats 16:15 the same day (six slots back).
+        for (String t : new String[]{"17:00", "17:15", "17:30", "17:45", "16:45", "16:30"}) book(t);
+        List<AppointmentEntity> late = calendar.suggestNearest("dentist", DAY, LocalTime.of(17, 45), 3, 2, null);
+        assertEquals(List.of("09:00", "09:15", "09:30"), times(late));
+        assertEquals("2025-03-08", late.get(0).getDate());
+    }
+
+    @Test
+    void neverSuggestsASlotThatHasStarted() {
+        // Asked for 09:00 today at 12:05: the nearest slots still ahead are 12:15 onwards.
+        List<AppointmentEntity> s = calendar.suggestNearest("dentist", DAY, LocalTime.of(9, 0), 3, 2,
+                LocalDateTime.of(DAY, LocalTime.of(12, 5)));
+        assertEquals(List.of("12:15", "12:30", "12:45"), times(s));
+
+        // A request for a day already gone starts from now, through the configured defaults.
+        List<AppointmentEntity> fromClock = calendar.suggestNearest("dentist", DAY.minusDays(3), null, 3, 5);
+        assertEquals(List.of("12:15", "12:30", "12:45"), times(fromClock));
+        assertEquals("2025-03-07", fromClock.get(0).getDate());
+
+        // The request's own "now" wins over the wall clock.
+        ParseOptions evening = ParseOptions.of("Asia/Kolkata", "2025-03-07T17:50:00+05:30");
+        List<AppointmentEntity> next = calendar.suggestNearest("dentist", DAY, LocalTime.of(17, 0), evening);
+        assertEquals(List.of("09:00", "09:15", "09:30"), times(next));
+        assertEquals("2025-03-08", next.get(0).getDate());
+
+        assertTrue(calendar.suggestNearest("dentist", DAY, null, 3, 0,
+                LocalDateTime.of(DAY, LocalTime.of(18, 0))).isEmpty());
+    }
+
+    private void book(String time) {
+        AppointmentEntity a = new AppointmentEntity();
+        a.setDepartment("dentist");
+        a.setDate(DAY.toString());
+        a.setTime(time);
+        assertEquals("booked", calendar.book(a).getStatus());
+    }
+
+    private static List<String> times(List<AppointmentEntity> suggestions) {
+        return suggestions.stream().map(AppointmentEntity::getTime).toList();
+    }
+}
@@ -0,0 +1,92 @@
+package com.healthcare.ai_appointmentscheduler.service;
+
+import com.healthcare.ai_appointmentscheduler.util.SymSpell;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpellingCorrectorTests {
+
+    private final SymSpell dictionary = new SymSpell(Map.of(
+            "tomorrow", 1000, "friday", 1000, "next", 1000, "not", 500, "dentist", 10_000, "ent", 10_000), 2);
+
+    private final SpellingCorrector corrector = new SpellingCorrector(new DefaultResourceLoader(), true,
+            "classpath:spelling/vocabulary.txt", "classpath:spelling/lexicon-en.txt.gz", 2);
+
+    SpellingCorrectorTests() {
+        corrector.load();
+    }
+
+    @Test
+    void findsTheClosestThenMostFrequentWord() {
+        assertEquals("tomorrow", dictionary.lookup("tomorw", 2));
+        assertEquals("tomorrow", dictionary.lookup("tommorow", 2));
+        assertEquals("friday", dictionary.lookup("fridya", 1));   // transposition is one edit
+        assertEquals("dentist", dictionary.lookup("dentst", 2));
+        assertEquals("next", dictionary.lookup("nxt", 1));        // next and not are both one edit away
+        assertEquals("friday", dictionary.lookup("friday", 0));
+        assertNull(dictionary.lookup("tomorw", 1));
+        assertNull(dictionary.lookup("cardiologist", 2));
+    }
+
+    @Test
+    void distanceStopsAtTheBound() {
+        assertEquals(2, SymSpell.distance("tomorw", "tomorrow", 2));
+        assertEquals(1, SymSpell.distance("ab", "ba", 2));
+        assertEquals(3, SymSpell.distance("dentist", "monday", 2));
+    }
+
+    @Test
+    void repairsMisspelledWords() {
+        assertEquals("dentist next friday 2pm", corrector.correct("dentst nxt fridy 2pm"));
+        assertEquals("dermatologist tomorrow at 10am", corrector.correct("dermatolgist tomorow at 10am"));
+        assertEquals("orthopedic tomorrow 1pm", corrector.correct("orthopedic tommorow 1pm"));
+        assertEquals("tooth pain since the end of may", corrector.correct("toth pain since the end of may"));
+        assertEquals("please book cardiology appointment next wednesday morning",
+                corrector.correct("plese book cardiolgy appointmnet nxt wednesdy mornng"));
+    }
+
+    @Test
+    void leavesCorrectlySpelledTextAlone() {
+        for (String text : new String[]{
+                "skin allergy near the neck friday 10am",
+                "earlier than usual if you are ready",
+                "my eyes are itchy and i am not sure",
+                "one thing at a time please",
+                "book a dentist for my daughter after school on thursday",
+                "the pharmacy said the rash should settle within a fortnight",
+                "xyzzy qwerty 12:30"}) {
+            assertSame(text, corrector.correct(text), text);
+        }
+        // Names after "dr" are the doctor directory's to match, not the dictionary's.
+        assertEquals("dr raghvan 3 30 pm", corrector.correct("dr raghvan 3 30 pm"));
+        assertEquals("doctor khan on friday", corrector.correct("doctor khan on fridy"));
+    }
+
+    @Test
+    void correctEnglishKeepsItsExtraction() {
+        DepartmentIntentClassifier intent = new DepartmentIntentClassifier(
+                new DefaultResourceLoader(), true, "classpath:models/department-intent.bin", 0.5);
+        intent.load();
+        EntityExtractorImpl extractor = new EntityExtractorImpl(
+                new DoctorDirectoryService(new DefaultResourceLoader(), false, "", "", 0.75), intent, corrector);
+
+        assertEquals("dermatologist", extractor.extract("skin allergy near the neck friday 10am").getDepartment());
+    }
+
+    @Test
+    @Tag("benchmark")
+    void correctionIsFast(TestReporter reporter) {
+        long t0 = System.nanoTime();
+        int n = 20_000;
+        for (int i = 0; i < n; i++) corrector.correct("plese book cardiolgy appointmnet nxt wednesdy mornng");
+        long nanos = (System.nanoTime() - t0) / n;
+        reporter.publishEntry("spelling.correct-us", String.format("%.1f", nanos / 1000.0));
+        assertTrue(nanos < 1_000_000, nanos + " ns per request");
+    }
+}
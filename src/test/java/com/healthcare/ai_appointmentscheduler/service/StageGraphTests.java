@@ -0,0 +1,77 @@
+package com.healthcare.ai_appointmentscheduler.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.healthcare.ai_appointmentscheduler.service.ParseContext.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class StageGraphTests {
+
+    private static final Key<String> A = new Key<>("a");
+    private static final Key<String> B = new Key<>("b");
+    private static final Key<String> OUT = new Key<>("out");
+
+    @Test
+    void independentStagesShareAWaveAndRunOnThePoolForLongInput() {
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        List<PipelineStage> stages = List.of(
+                PipelineStage.named("join").reads(A, B).writes(OUT)
+                        .run(ctx -> ctx.put(OUT, ctx.get(A) + ctx.get(B))),
+                PipelineStage.named("a").parallel().reads(TEXT).writes(A)
+                        .run(ctx -> { threads.add(Thread.currentThread().getName()); ctx.put(A, "a"); }),
+                PipelineStage.named("b").parallel().reads(TEXT).writes(B)
+                        .run(ctx -> { threads.add(Thread.currentThread().getName()); ctx.put(B, "b"); }));
+        StageGraph graph = new StageGraph(stages, 8, 2);
+        try {
+            assertEquals(List.of(List.of("a", "b"), List.of("join")), graph.waves());
+
+            assertEquals("ab", graph.run(new ParseContext().put(TEXT, "short")).get(OUT));
+            assertEquals(Set.of(Thread.currentThread().getName()), threads);
+
+            threads.clear();
+            assertEquals("ab", graph.run(new ParseContext().put(TEXT, "long enough")).get(OUT));
+            assertTrue(threads.stream().allMatch(t -> t.startsWith("stage-")), threads.toString());
+        } finally {
+            graph.shutdown();
+        }
+    }
+
+    @Test
+    void decidedOutcomeSkipsToFallback() {
+        List<PipelineStage> stages = List.of(
+                PipelineStage.named("gate").reads(TEXT).writes(A).run(ctx -> {
+                    ctx.put(A, ctx.get(TEXT));
+                    if (ctx.get(TEXT).isEmpty()) ctx.decide("empty");
+                }),
+                PipelineStage.named("expensive").reads(A).writes(OUT)
+                        .skipWhenDecided(ctx -> ctx.put(OUT, "cheap"))
+                        .run(ctx -> ctx.put(OUT, "full")));
+        StageGraph graph = new StageGraph(stages, 512, 1);
+        try {
+            assertEquals("full", graph.run(new ParseContext().put(TEXT, "x")).get(OUT));
+            ParseContext decided = graph.run(new ParseContext().put(TEXT, ""));
+            assertEquals("cheap", decided.get(OUT));
+            assertEquals(List.of("expensive"), decided.skipped());
+            assertEquals("empty", decided.decidedBy());
+        } finally {
+            graph.shutdown();
+        }
+    }
+
+    @Test
+    void brokenGraphsAreRejected() {
+        PipelineStage writesA = PipelineStage.named("x").reads(TEXT).writes(A).run(ctx -> {});
+        PipelineStage alsoWritesA = PipelineStage.named("y").reads(TEXT).writes(A).run(ctx -> {});
+        PipelineStage readsB = PipelineStage.named("z").reads(B).writes(OUT).run(ctx -> {});
+        PipelineStage aFromB = PipelineStage.named("p").reads(B).writes(A).run(ctx -> {});
+        PipelineStage bFromA = PipelineStage.named("q").reads(A).writes(B).run(ctx -> {});
+
+        assertThrows(IllegalStateException.class, () -> StageGraph.plan(List.of(writesA, alsoWritesA)));
+        assertThrows(IllegalStateException.class, () -> StageGraph.plan(List.of(readsB)));
+        assertThrows(IllegalStateException.class, () -> StageGraph.plan(List.of(aFromB, bFromA)));
+    }
+}
@@ -0,0 +1,82 @@
+package com.healthcare.ai_appointmentscheduler.service;
+
+import com.healthcare.ai_appointmentscheduler.dto.ParseOptions;
+import com.healthcare.ai_appointmentscheduler.entity.ExtractedEntities;
+import com.healthcare.ai_appointmentscheduler.entity.NormalizedEntity;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ZoneClockTests {
+
+    private static final ZoneId KOLKATA = ZoneId.of("Asia/Kolkata");
+    private static final ZoneId NEW_YORK = ZoneId.of("America/New_York");
+
+    // 20:00 UTC: already the next day in Kolkata, still the same evening in New York.
+    private static final Instant EVENING_UTC = Instant.parse("2025-03-05T20:00:00Z");
+
+    @Test
+    void todayDependsOnlyOnZoneAndReference() {
+        ZoneClock clock = new ZoneClock(Clock.fixed(EVENING_UTC, ZoneOffset.UTC));
+        assertEquals(LocalDate.of(2025, 3, 6), clock.today(KOLKATA));
+        assertEquals(LocalDate.of(2025, 3, 5), clock.today(NEW_YORK));
+
+        // An older reference is answered without evicting the cached "today".
+        assertEquals(LocalDate.of(2025, 1, 1), clock.today(KOLKATA, Instant.parse("2025-01-01T00:00:00Z")));
+        assertEquals(LocalDate.of(2025, 3, 6), clock.today(KOLKATA));
+
+        // The spring-forward day in New York runs 05:00Z to 04:00Z (23 hours); both edges resolve correctly.
+        assertEquals(LocalDate.of(2025, 3, 8), clock.today(NEW_YORK, Instant.parse("2025-03-09T04:59:59Z")));
+        assertEquals(LocalDate.of(2025, 3, 9), clock.today(NEW_YORK, Instant.parse("2025-03-09T05:00:00Z")));
+        assertEquals(LocalDate.of(2025, 3, 9), clock.today(NEW_YORK, Instant.parse("2025-03-10T03:59:59Z")));
+        assertEquals(LocalDate.of(2025, 3, 10), clock.today(NEW_YORK, Instant.parse("2025-03-10T04:00:00Z")));
+    }
+
+    @Test
+    void normalizedDatesIgnoreTheWallClock() {
+        // Two normalizers whose wall clocks are five years apart agree on every request that carries its "now".
+        NattyNormalizer now = new NattyNormalizer(new ZoneClock(), "Asia/Kolkata", 10_000, 1);
+        NattyNormalizer later = new NattyNormalizer(
+                new ZoneClock(Clock.fixed(Instant.parse("2030-06-01T00:00:00Z"), ZoneOffset.UTC)), "Asia/Kolkata", 10_000, 1);
+        try {
+            for (NattyNormalizer n : new NattyNormalizer[]{now, later}) {
+                assertDateTime("2025-03-07", "15:00", normalize(n, "Asia/Kolkata"));
+                assertDateTime("2025-03-06", "15:00", normalize(n, "America/New_York"));
+                assertDateTime("2025-03-07", "15:00",
+                        n.normalizeHeuristic("tomorrow 3pm", entities(), options("Asia/Kolkata")));
+                assertDateTime("2025-03-06", "15:00",
+                        n.normalizeHeuristic("tomorrow 3pm", entities(), options("America/New_York")));
+            }
+            assertEquals("America/New_York", normalize(later, "America/New_York").getTz());
+        } finally {
+            now.shutdown();
+            later.shutdown();
+        }
+    }
+
+    private static NormalizedEntity normalize(NattyNormalizer n, String zone) {
+        return n.normalize("tomorrow 3pm", entities(), options(zone));
+    }
+
+    private static ParseOptions options(String zone) {
+        return ParseOptions.of(zone, EVENING_UTC.toString());
+    }
+
+    private static void assertDateTime(String date, String time, NormalizedEntity n) {
+        assertEquals(date, n.getDate());
+        assertEquals(time, n.getTime());
+    }
+
+    private static ExtractedEntities entities() {
+        ExtractedEntities e = new ExtractedEntities();
+        e.setDatePhrase("tomorrow");
+        e.setTimePhrase("3pm");
+        return e;
+    }
+}
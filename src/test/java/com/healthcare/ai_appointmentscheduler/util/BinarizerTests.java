@@ -0,0 +1,101 @@
+package com.healthcare.ai_appointmentscheduler.util;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinarizerTests {
+
+    private static final int W = 1280, H = 320;
+
+    @Test
+    void autoKeepsOtsuForCleanScans() {
+        byte[] clean = page(false);
+        int[] hist = Binarizer.histogram(clean);
+        double score = Binarizer.bimodality(hist, clean.length, Binarizer.otsuThreshold(hist, clean.length));
+
+        byte[] out = new byte[clean.length];
+        assertEquals(Binarizer.Mode.OTSU, Binarizer.binarize(clean, out, W, H, Binarizer.Mode.AUTO, 41, 0.34, 0.85),
+                "bimodality " + score);
+    }
+
+    @Test
+    void sauvolaSurvivesShadowWhereOtsuFails() {
+        byte[] shadowed = page(true);
+        byte[] otsu = new byte[shadowed.length];
+        byte[] sauvola = new byte[shadowed.length];
+
+        Binarizer.binarize(shadowed, otsu, W, H, Binarizer.Mode.OTSU, 41, 0.34, 0.85);
+        Binarizer.Mode picked = Binarizer.binarize(shadowed, sauvola, W, H, Binarizer.Mode.AUTO, 41, 0.34, 0.85);
+
+        assertEquals(Binarizer.Mode.SAUVOLA, picked);
+        // The shadowed right third is mostly paper: Otsu turns it black, Sauvola keeps it white.
+        assertTrue(blackShare(otsu, 2 * W / 3, W) > 0.5, "otsu black share " + blackShare(otsu, 2 * W / 3, W));
+        assertTrue(blackShare(sauvola, 2 * W / 3, W) < 0.2, "sauvola black share " + blackShare(sauvola, 2 * W / 3, W));
+    }
+
+    @Test
+    @Tag("benchmark")
+    void costDoesNotGrowWithWindow(TestReporter reporter) {
+        byte[] img = page(true);
+        byte[] out = new byte[img.length];
+        for (int i = 0; i < 5; i++) Binarizer.binarize(img, out, W, H, Binarizer.Mode.SAUVOLA, 15, 0.34, 0.85);
+
+        long small = time(img, out, 15);
+        long large = time(img, out, 201);
+        reporter.publishEntry("sauvola.window-15-ms", String.format("%.2f", small / 1e6));
+        reporter.publishEntry("sauvola.window-201-ms", String.format("%.2f", large / 1e6));
+        assertTrue(large < small * 3 + 5_000_000, "window 201 took " + large + " ns vs " + small + " ns");
+    }
+
+    private static long time(byte[] img, byte[] out, int window) {
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            long t0 = System.nanoTime();
+            Binarizer.binarize(img, out, W, H, Binarizer.Mode.SAUVOLA, window, 0.34, 0.85);
+            best = Math.min(best, System.nanoTime() - t0);
+        }
+        return best;
+    }
+
+    // Dark text on light paper; with a shadow the paper darkens from left to right.
+    private static byte[] page(boolean shadow) {
+        BufferedImage img = new BufferedImage(W, H, BufferedImage.TYPE_BYTE_GRAY);
+        Graphics2D g = img.createGraphics();
+        g.setColor(new Color(235, 235, 235));
+        g.fillRect(0, 0, W, H);
+        g.setColor(new Color(30, 30, 30));
+        g.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, 56));
+        g.drawString("Book dentist next Friday 3pm", 20, 120);
+        g.drawString("cardiologist tomorrow 10:30am", 20, 240);
+        g.dispose();
+
+        byte[] px = ((DataBufferByte) img.getRaster().getDataBuffer()).getData();
+        if (shadow) {
+            for (int y = 0; y < H; y++) {
+                for (int x = 0; x < W; x++) {
+                    double light = 1.0 - 0.75 * x / (double) W;
+                    px[y * W + x] = (byte) (int) ((px[y * W + x] & 0xFF) * light);
+                }
+            }
+        }
+        return px;
+    }
+
+    private static double blackShare(byte[] bin, int fromX, int toX) {
+        long black = 0, total = 0;
+        for (int y = 0; y < H; y++) {
+            for (int x = fromX; x < toX; x++) {
+                if (bin[y * W + x] == 0) black++;
+                total++;
+            }
+        }
+        return black / (double) total;
+    }
+}
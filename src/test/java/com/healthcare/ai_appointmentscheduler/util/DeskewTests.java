@@ -0,0 +1,102 @@
+package com.healthcare.ai_appointmentscheduler.util;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeskewTests {
+
+    private static final String[] LINES = {
+            "Book a dentist appointment with Dr Patel",
+            "next Friday at 3pm, or Thursday morning",
+            "Please bring your insurance card",
+    };
+
+    @Test
+    void levelsTiltedSlips() {
+        BufferedImage page = page(900, 260, 26);
+        for (double tilt : new double[]{7, -12, 3.5}) {
+            Deskew.Estimate e = Deskew.estimate(rotate(page, tilt), 640, 15);
+            assertEquals(-tilt, e.degrees(), 0.5, "tilt " + tilt);
+        }
+    }
+
+    @Test
+    void turnsSidewaysAndUpsideDownSlipsUpright() {
+        BufferedImage page = page(900, 260, 26);
+        assertEquals(-90, Deskew.estimate(rotate(page, 90), 640, 15).degrees(), 0.5);
+        assertEquals(90, Deskew.estimate(rotate(page, -90), 640, 15).degrees(), 0.5);
+        assertEquals(180, Math.abs(Deskew.estimate(rotate(page, 180), 640, 15).degrees()), 0.5);
+        assertEquals(-180 + 5, Deskew.estimate(rotate(page, 175), 640, 15).degrees(), 0.5);
+    }
+
+    @Test
+    void leavesLevelAndBlankImagesAlone() {
+        assertTrue(Deskew.estimate(page(900, 260, 26), 640, 15).isNone());
+        BufferedImage blank = new BufferedImage(400, 300, BufferedImage.TYPE_INT_RGB);
+        assertTrue(Deskew.estimate(blank, 640, 15).isNone());
+    }
+
+    @Test
+    void levelsPhotoSizedImages() {
+        assertEquals(-6, Deskew.estimate(photo(), 640, 15).degrees(), 0.5);
+    }
+
+    @Test
+    @Tag("benchmark")
+    void costIsSmallOnPhotoSizedImages(TestReporter reporter) {
+        BufferedImage photo = photo();
+        for (int i = 0; i < 3; i++) Deskew.estimate(photo, 640, 15);
+
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            long t0 = System.nanoTime();
+            Deskew.estimate(photo, 640, 15);
+            best = Math.min(best, System.nanoTime() - t0);
+        }
+        reporter.publishEntry("deskew.ms", String.format("%.2f", best / 1e6));
+        assertTrue(best < 150_000_000, "deskew took " + best + " ns");
+    }
+
+    // -------- Helpers --------
+
+    // A 12 MP phone photo tilted 6 degrees; one OCR pass on an image this size takes seconds.
+    private static BufferedImage photo() {
+        return rotate(page(4000, 1200, 110), 6);
+    }
+
+    private static BufferedImage page(int w, int h, int fontSize) {
+        BufferedImage img = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = img.createGraphics();
+        g.setColor(Color.WHITE);
+        g.fillRect(0, 0, w, h);
+        g.setColor(Color.BLACK);
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, fontSize));
+        for (int i = 0; i < LINES.length; i++) g.drawString(LINES[i], fontSize, (int) (fontSize * (2 + i * 2.2)));
+        g.dispose();
+        return img;
+    }
+
+    // Rotates clockwise by degrees onto a white canvas large enough to hold the result.
+    private static BufferedImage rotate(BufferedImage src, double degrees) {
+        double r = Math.toRadians(degrees);
+        double sin = Math.abs(Math.sin(r)), cos = Math.abs(Math.cos(r));
+        int w = src.getWidth(), h = src.getHeight();
+        int nw = (int) Math.round(w * cos + h * sin), nh = (int) Math.round(w * sin + h * cos);
+        BufferedImage out = new BufferedImage(nw, nh, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = out.createGraphics();
+        g.setColor(Color.WHITE);
+        g.fillRect(0, 0, nw, nh);
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.rotate(r, nw / 2.0, nh / 2.0);
+        g.drawImage(src, (nw - w) / 2, (nh - h) / 2, null);
+        g.dispose();
+        return out;
+    }
+}
@@ -0,0 +1,50 @@
+package com.healthcare.ai_appointmentscheduler.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlotBitmapTests {
+
+    @Test
+    void eachSlotIsTakenExactlyOnceUnderContention() throws Exception {
+        int slots = 130;   // three words, the last one partial
+        int threads = 8;
+        SlotBitmap bitmap = new SlotBitmap(slots);
+        AtomicIntegerArray winners = new AtomicIntegerArray(slots);
+        CyclicBarrier start = new CyclicBarrier(threads);
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> done = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int offset = t;
+                done.add(pool.submit(() -> {
+                    start.await();
+                    // Every thread tries every slot, starting at a different one, so neighbours in a word collide.
+                    for (int i = 0; i < slots; i++) {
+                        int slot = (i + offset * 17) % slots;
+                        if (bitmap.tryMark(slot)) winners.incrementAndGet(slot);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> f : done) f.get(30, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        for (int s = 0; s < slots; s++) {
+            assertEquals(1, winners.get(s), "slot " + s);
+            assertTrue(bitmap.isMarked(s));
+        }
+        assertFalse(bitmap.tryMark(129));
+        assertTrue(bitmap.clear(129));
+        assertTrue(bitmap.tryMark(129));
+    }
+}
@@ -0,0 +1,103 @@
+package com.healthcare.ai_appointmentscheduler.util;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrigramNameIndexTests {
+
+    private static final String[] FIRST = {"anil", "priya", "rohan", "meera", "arjun", "kavya", "sameer", "nisha",
+            "rajesh", "ananya", "suresh", "deepa", "imran", "karan", "pooja", "naveen", "shalini", "aditya",
+            "neha", "sanjay", "ritu", "aisha", "manoj", "divya", "gaurav", "swati", "vivek", "jyoti"};
+    private static final String[] LAST = {"sharma", "iyer", "menon", "reddy", "joshi", "nair", "pillai", "mehta",
+            "gupta", "singh", "rao", "verma", "khan", "bose", "shetty", "kapoor", "malhotra", "agarwal"};
+
+    private static List<String> names;
+    private static TrigramNameIndex index;
+
+    @BeforeAll
+    static void buildDirectory() {
+        // 120k practitioners: first + last + a made-up third token to keep names distinct.
+        Random rnd = new Random(7);
+        names = new ArrayList<>();
+        int[] tags = new int[120_000];
+        for (int i = 0; i < tags.length; i++) {
+            names.add(cap(FIRST[rnd.nextInt(FIRST.length)]) + " " + syllables(rnd) + " "
+                    + cap(LAST[rnd.nextInt(LAST.length)]));
+            tags[i] = i % 6;
+        }
+        names.set(4242, "Wilhelmina Okonkwo-Castellanos");
+        index = TrigramNameIndex.build(names, tags, 0);
+    }
+
+    @Test
+    void findsExactAndMisspelledNames() {
+        TrigramNameIndex.Match exact = index.lookup("wilhelmina okonkwo castellanos", 0.75);
+        assertNotNull(exact);
+        assertEquals(4242, exact.id());
+        assertTrue(exact.unique());
+        assertEquals(4242 % 6, index.tag(exact.id()));
+
+        TrigramNameIndex.Match typo = index.lookup("okonkwo castelanos", 0.75);
+        assertNotNull(typo);
+        assertEquals("Wilhelmina Okonkwo-Castellanos", index.name(typo.id()));
+
+        assertNull(index.lookup("zzyzx", 0.75));
+    }
+
+    @Test
+    void sharedSurnameIsNotUnique() {
+        TrigramNameIndex.Match m = index.lookup("sharma", 0.75);
+        assertNotNull(m);
+        assertFalse(m.unique());
+    }
+
+    @Test
+    void mappedFileMatchesHeapIndex(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("names.idx");
+        index.write(file);
+        TrigramNameIndex mapped = TrigramNameIndex.open(file);
+        assertEquals(index.size(), mapped.size());
+        for (int id : new int[]{0, 4242, 119_999}) {
+            TrigramNameIndex.Match m = mapped.lookup(names.get(id), 0.75);
+            assertNotNull(m);
+            assertEquals(names.get(id), mapped.name(m.id()));
+        }
+    }
+
+    @Test
+    @Tag("benchmark")
+    void lookupStaysFast(TestReporter reporter) {
+        String[] queries = {"okonkwo castellanos", "wilhelmina", "priya sharma", "kapur", "menon"};
+        for (int i = 0; i < 2_000; i++) index.lookup(queries[i % queries.length], 0.75);
+
+        int rounds = 5_000;
+        long t0 = System.nanoTime();
+        for (int i = 0; i < rounds; i++) index.lookup(queries[i % queries.length], 0.75);
+        double micros = (System.nanoTime() - t0) / 1_000.0 / rounds;
+        reporter.publishEntry("trigram.lookup-us", String.format("%.1f", micros));
+        reporter.publishEntry("trigram.index-kb", String.valueOf(index.byteSize() / 1024));
+        // Generous bound so shared CI machines do not flap; typical figures are far lower.
+        assertTrue(micros < 2_000, "lookup took " + micros + " us");
+    }
+
+    private static String syllables(Random rnd) {
+        String[] parts = {"ka", "ri", "mo", "ta", "ve", "lu", "sa", "no", "pi", "de", "ra", "ko"};
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0, n = 2 + rnd.nextInt(2); i < n; i++) sb.append(parts[rnd.nextInt(parts.length)]);
+        return cap(sb.toString());
+    }
+
+    private static String cap(String s) {
+        return Character.toUpperCase(s.charAt(0)) + s.substring(1);
+    }
+}